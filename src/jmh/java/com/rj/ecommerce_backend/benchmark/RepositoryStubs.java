@@ -0,0 +1,63 @@
+package com.rj.ecommerce_backend.benchmark;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+
+/**
+ * Dynamic-proxy stand-ins for Spring Data repositories in benchmarks.
+ * <p>
+ * Every call except {@code getReferenceById}, which only builds a proxy in JPA, parks for
+ * {@code roundTripMicros} to model a database round trip, then asks {@code answers}
+ * for a result by method name. Unanswered calls get a neutral value: {@code Optional.empty()}, {@code 0},
+ * {@code false}, or the single argument (so {@code save} returns what it was given).
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RepositoryStubs {
+
+    public static final Object NO_ANSWER = new Object();
+
+    @SuppressWarnings("unchecked")
+    public static <T> T stub(Class<T> repositoryType, long roundTripMicros,
+                             BiFunction<String, Object[], Object> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> repositoryType.getSimpleName() + "Stub";
+                        };
+                    }
+
+                    if (roundTripMicros > 0 && !method.getName().equals("getReferenceById")) {
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+                    }
+
+                    Object answer = answers.apply(method.getName(), args);
+                    if (answer != NO_ANSWER) {
+                        return answer;
+                    }
+
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == Optional.class) {
+                        return Optional.empty();
+                    }
+                    if (returnType == int.class || returnType == long.class) {
+                        return returnType == int.class ? (Object) 0 : (Object) 0L;
+                    }
+                    if (returnType == boolean.class) {
+                        return false;
+                    }
+                    if (returnType == void.class) {
+                        return null;
+                    }
+                    return args != null && args.length == 1 ? args[0] : null;
+                });
+    }
+}
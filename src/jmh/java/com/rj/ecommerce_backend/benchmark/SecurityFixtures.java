@@ -0,0 +1,48 @@
+package com.rj.ecommerce_backend.benchmark;
+
+import com.rj.ecommerce_backend.securityconfig.config.JwtConfig;
+import com.rj.ecommerce_backend.securityconfig.utils.JwtUtils;
+import com.rj.ecommerce_backend.user.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Shared setup for the authentication benchmarks.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SecurityFixtures {
+
+    public static final String SECRET =
+            "dGVzdHNlY3JldGtleXRlc3RzZWNyZXRrZXl0ZXN0c2VjcmV0a2V5dGVzdHNlY3JldGtleXRlc3RzZWNyZXRrZXk=";
+    public static final Long USER_ID = 42L;
+    public static final String EMAIL = "bench@example.com";
+
+    public static JwtConfig jwtConfig(boolean claimsCacheEnabled) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpirationMs(900000);
+        jwtConfig.getClaimsCache().setEnabled(claimsCacheEnabled);
+        return jwtConfig;
+    }
+
+    public static JwtUtils jwtUtils(JwtConfig jwtConfig) {
+        JwtUtils jwtUtils = new JwtUtils(jwtConfig, new SimpleMeterRegistry());
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    public static UserDetailsImpl principal() {
+        return new UserDetailsImpl(USER_ID, EMAIL, "secret", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    public static Authentication authentication() {
+        UserDetailsImpl principal = principal();
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+}
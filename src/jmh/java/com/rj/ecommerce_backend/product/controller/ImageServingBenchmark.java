@@ -0,0 +1,164 @@
+package com.rj.ecommerce_backend.product.controller;
+
+import com.rj.ecommerce_backend.product.service.StoredImage;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends one image of {@code imageBytes} to a loopback socket that a background thread drains.
+ * <p>
+ * {@code legacyResourceCopy} is what serving a {@link UrlResource} did: an input stream copied through a heap
+ * buffer. {@code writerCopy} runs {@link ImageResponseWriter} against a response whose body goes to the socket,
+ * which is the block copy taken when the container has no sendfile. {@code writerSendfile} lets the writer hand the
+ * file off and then does what Tomcat does with it, a {@link FileChannel#transferTo} straight into the socket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageServingBenchmark {
+
+    @Param({"1048576", "16777216"})
+    private int imageBytes;
+
+    private Path file;
+    private StoredImage image;
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private OutputStream clientStream;
+    private Thread drain;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[imageBytes];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("image-serving", ".jpg");
+        Files.write(file, content);
+        image = new StoredImage(file, imageBytes, Files.getLastModifiedTime(file).toMillis(), "\"bench\"",
+                MediaType.IMAGE_JPEG);
+
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        drain = new Thread(() -> {
+            try (SocketChannel peer = server.accept()) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+                while (peer.read(buffer) >= 0) {
+                    buffer.clear();
+                }
+            } catch (IOException ignored) {
+                // Closed at tear down
+            }
+        }, "image-serving-drain");
+        drain.setDaemon(true);
+        drain.start();
+        client = SocketChannel.open(server.getLocalAddress());
+        clientStream = Channels.newOutputStream(client);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        server.close();
+        drain.join(1000);
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long legacyResourceCopy() throws IOException {
+        try (InputStream in = new UrlResource(file.toUri()).getInputStream()) {
+            return StreamUtils.copy(in, clientStream);
+        }
+    }
+
+    @Benchmark
+    public int writerCopy() throws IOException {
+        MockHttpServletResponse response = new SocketResponse(clientStream);
+        ImageResponseWriter.write(image, CacheControl.noCache(), new MockHttpServletRequest("GET", "/"), response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public long writerSendfile() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        ImageResponseWriter.write(image, CacheControl.noCache(), request, new MockHttpServletResponse());
+
+        long position = (Long) request.getAttribute("org.apache.tomcat.sendfile.start");
+        long end = (Long) request.getAttribute("org.apache.tomcat.sendfile.end");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (position < end) {
+                position += channel.transferTo(position, end - position, client);
+            }
+        }
+        return position;
+    }
+
+    private static final class SocketResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream;
+
+        private SocketResponse(OutputStream socket) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public void write(int b) throws IOException {
+                    socket.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    socket.write(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.benchmark.RepositoryStubs;
+import com.rj.ecommerce_backend.product.ProductImageProperties;
+import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent storing the images of one product create request with {@code images} files of {@code imageBytes}.
+ * <p>
+ * {@code legacySequential} replays what creating a product did before: each file copied under a random name and
+ * saved on its own, one after the other. {@code sequentialStoreFile} does the same through the content-addressed
+ * {@link FileStorageService#storeFile}, which hashes every file, and {@code storeFiles} writes them all on the
+ * upload pool and inserts each row as soon as its file is in place. Each row insert is charged
+ * {@code roundTripMicros}. Every invocation uploads new content, so nothing is reused. The pool only overlaps the
+ * hashing of several files when there are cores to spare; on one core only the inserts overlap with it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductImageUploadBenchmark {
+
+    @Param({"10"})
+    private int images;
+
+    @Param({"1048576"})
+    private int imageBytes;
+
+    // Charged for every image row inserted
+    @Param({"500"})
+    private long roundTripMicros;
+
+    private Path storage;
+    private ImageRepository imageRepository;
+    private FileStorageService fileStorageService;
+    private Product product;
+    private Random random;
+    private List<MultipartFile> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        storage = Files.createTempDirectory("image-upload");
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setLocation(storage.toString());
+
+        imageRepository = RepositoryStubs.stub(ImageRepository.class, roundTripMicros,
+                (method, args) -> method.equals("findVariantWidthsByPath") ? List.of() : RepositoryStubs.NO_ANSWER);
+        fileStorageService = new FileStorageService(new ImageStorageLayout(storageProperties), imageRepository, null,
+                event -> { }, new ProductImageProperties(), new SimpleMeterRegistry());
+        fileStorageService.init();
+
+        product = new Product();
+        product.setId(1L);
+        random = new Random(42);
+    }
+
+    @Setup(Level.Invocation)
+    public void upload() {
+        files = new ArrayList<>(images);
+        for (int i = 0; i < images; i++) {
+            byte[] content = new byte[imageBytes];
+            random.nextBytes(content);
+            files.add(new MockMultipartFile("images", "photo-" + i + ".jpg", "image/jpeg", content));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearStorage() throws IOException {
+        try (var stored = Files.list(storage)) {
+            for (Path file : stored.toList()) {
+                FileSystemUtils.deleteRecursively(file);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fileStorageService.shutdown();
+        FileSystemUtils.deleteRecursively(storage);
+    }
+
+    @Benchmark
+    public List<Image> legacySequential() throws IOException {
+        List<Image> saved = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            String fileName = UUID.randomUUID() + ".jpg";
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, storage.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Image image = Image.builder().path(fileName).mimeType(file.getContentType()).product(product).build();
+            saved.add(imageRepository.save(image));
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public List<Image> sequentialStoreFile() {
+        List<Image> saved = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            saved.add(fileStorageService.storeFile(file, "Product Image", product));
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public List<Image> storeFiles() {
+        return fileStorageService.storeFiles(files, "Product Image", product);
+    }
+}
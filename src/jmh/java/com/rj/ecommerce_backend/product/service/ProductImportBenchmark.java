@@ -0,0 +1,165 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.benchmark.RepositoryStubs;
+import com.rj.ecommerce_backend.product.ProductImportProperties;
+import com.rj.ecommerce_backend.product.domain.Category;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
+import com.rj.ecommerce_backend.product.repository.CategoryRepository;
+import com.rj.ecommerce_backend.product.repository.ProductBulkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to import {@code rows} products into an in-memory H2 database.
+ * <p>
+ * {@code legacyRowByRow} replays what creating the same products one by one costs: an identity insert that
+ * returns its key and a commit per product. The import benchmarks stream the same catalog as NDJSON and CSV
+ * through {@link ProductImportServiceImpl}. H2 has no network round trip, so against MySQL the gap is wider.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductImportBenchmark {
+
+    private static final List<String> CATEGORIES = List.of("Phones", "Audio", "Garden", "Kitchen");
+
+    @Param({"10000"})
+    private int rows;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ProductImportServiceImpl productImportService;
+    private byte[] ndjson;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:product-import;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE \"category\" (\"id\" BIGINT AUTO_INCREMENT PRIMARY KEY, \"name\" VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE \"product\" (\"id\" BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "\"name\" VARCHAR(255), \"description\" VARCHAR(255), \"value\" DECIMAL(38, 2), \"code\" VARCHAR(255), "
+                + "\"quantity\" INT, \"created_at\" TIMESTAMP, \"updated_at\" TIMESTAMP, "
+                + "\"created_by\" VARCHAR(255), \"last_modified_by\" VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE \"product_category\" ("
+                + "\"product_id\" BIGINT NOT NULL REFERENCES \"product\" (\"id\"), "
+                + "\"category_id\" BIGINT NOT NULL REFERENCES \"category\" (\"id\"))");
+        for (String category : CATEGORIES) {
+            jdbcTemplate.update("INSERT INTO \"category\" (\"name\") VALUES (?)", category);
+        }
+        List<Category> categories = jdbcTemplate.query("SELECT \"id\", \"name\" FROM \"category\"",
+                (rs, i) -> new Category(rs.getLong(1), rs.getString(2), null, null, null, null));
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        CategoryRepository categoryRepository = RepositoryStubs.stub(CategoryRepository.class, 0,
+                (method, args) -> method.equals("findAll") ? categories : RepositoryStubs.NO_ANSWER);
+        productImportService = new ProductImportServiceImpl(new ProductBulkRepository(jdbcTemplate),
+                new CategoryCatalog(categoryRepository), transactionTemplate, event -> {
+        }, new ObjectMapper(), new ProductImportProperties(), new SimpleMeterRegistry());
+        productImportService.init();
+
+        StringBuilder ndjsonLines = new StringBuilder();
+        StringBuilder csvLines = new StringBuilder("name,description,price,currencyCode,quantity,categories\n");
+        for (int i = 0; i < rows; i++) {
+            String category = CATEGORIES.get(i % CATEGORIES.size());
+            ndjsonLines.append("{\"name\":\"Product ").append(i)
+                    .append("\",\"description\":\"Imported product number ").append(i)
+                    .append("\",\"price\":").append(price(i))
+                    .append(",\"currencyCode\":\"USD\",\"quantity\":").append(i % 50)
+                    .append(",\"categories\":[\"").append(category).append("\"]}\n");
+            csvLines.append("Product ").append(i).append(",Imported product number ").append(i).append(',')
+                    .append(price(i)).append(",USD,").append(i % 50).append(',').append(category).append('\n');
+        }
+        ndjson = ndjsonLines.toString().getBytes(StandardCharsets.UTF_8);
+        csv = csvLines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearProducts() {
+        jdbcTemplate.execute("DELETE FROM \"product_category\"");
+        jdbcTemplate.execute("DELETE FROM \"product\"");
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public Object importNdjson() {
+        return productImportService.importProducts(new ByteArrayInputStream(ndjson), ProductImportFormat.NDJSON);
+    }
+
+    @Benchmark
+    public Object importCsv() {
+        return productImportService.importProducts(new ByteArrayInputStream(csv), ProductImportFormat.CSV);
+    }
+
+    @Benchmark
+    public long legacyRowByRow() {
+        long lastId = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < rows; i++) {
+            int row = i;
+            Long id = transactionTemplate.execute(status -> {
+                GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement ps = connection.prepareStatement("INSERT INTO \"product\" (\"name\", "
+                            + "\"description\", \"value\", \"code\", \"quantity\", \"created_at\", \"updated_at\") "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+                    ps.setString(1, "Product " + row);
+                    ps.setString(2, "Imported product number " + row);
+                    ps.setBigDecimal(3, price(row));
+                    ps.setString(4, "USD");
+                    ps.setInt(5, row % 50);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                    return ps;
+                }, keyHolder);
+                long productId = keyHolder.getKey().longValue();
+                jdbcTemplate.update("INSERT INTO \"product_category\" (\"product_id\", \"category_id\") "
+                        + "SELECT ?, \"id\" FROM \"category\" WHERE \"name\" = ?", productId,
+                        CATEGORIES.get(row % CATEGORIES.size()));
+                return productId;
+            });
+            lastId = id;
+        }
+        return lastId;
+    }
+
+    private static BigDecimal price(int i) {
+        return BigDecimal.valueOf(100 + i % 9000, 2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.rj.ecommerce_backend.securityconfig;
+
+import com.rj.ecommerce_backend.benchmark.RepositoryStubs;
+import com.rj.ecommerce_backend.benchmark.SecurityFixtures;
+import com.rj.ecommerce_backend.user.domain.User;
+import com.rj.ecommerce_backend.user.repositories.UserRepository;
+import com.rj.ecommerce_backend.user.valueobject.Email;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link SecurityContextImpl} calls a typical service method makes per request: a current-user lookup
+ * plus {@code checkAccess}. Each invocation opens a fresh request, so the per-request memoization starts cold,
+ * against a repository that charges {@code roundTripMicros} per query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityContextBenchmark {
+
+    @Param({"0", "250"})
+    private long roundTripMicros;
+
+    private SecurityContextImpl securityContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        User user = new User();
+        user.setId(SecurityFixtures.USER_ID);
+        user.setEmail(new Email(SecurityFixtures.EMAIL));
+
+        UserRepository userRepository = RepositoryStubs.stub(UserRepository.class, roundTripMicros,
+                (method, args) -> method.equals("findUserByEmail") ? Optional.of(user) : RepositoryStubs.NO_ANSWER);
+        securityContext = new SecurityContextImpl(userRepository);
+        SecurityContextHolder.getContext().setAuthentication(SecurityFixtures.authentication());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object checkAccessAndLoadUser() {
+        startRequest();
+        try {
+            securityContext.checkAccess(SecurityFixtures.USER_ID);
+            securityContext.isAdmin();
+            return securityContext.getCurrentUser();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Benchmark
+    public Object repeatedCurrentUserLookups() {
+        startRequest();
+        try {
+            securityContext.getCurrentUser();
+            securityContext.getCurrentUser();
+            return securityContext.getCurrentUser();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
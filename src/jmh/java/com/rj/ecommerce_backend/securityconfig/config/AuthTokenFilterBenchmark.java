@@ -0,0 +1,109 @@
+package com.rj.ecommerce_backend.securityconfig.config;
+
+import com.rj.ecommerce_backend.benchmark.RepositoryStubs;
+import com.rj.ecommerce_backend.benchmark.SecurityFixtures;
+import com.rj.ecommerce_backend.securityconfig.dto.TokenInfo;
+import com.rj.ecommerce_backend.securityconfig.services.JwtBlacklistService;
+import com.rj.ecommerce_backend.securityconfig.services.UserStatusCache;
+import com.rj.ecommerce_backend.securityconfig.utils.JwtUtils;
+import com.rj.ecommerce_backend.user.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One authenticated request through {@link AuthTokenFilter}, with the blacklist and user lookups stubbed.
+ * <p>
+ * {@code stateless=false} loads the user through {@link UserDetailsService} on every request;
+ * {@code stateless=true} builds the principal from the token and only consults {@link UserStatusCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    @Param({"false", "true"})
+    private boolean stateless;
+
+    @Param({"true"})
+    private boolean claimsCache;
+
+    // Charged for every user lookup that would reach the database
+    @Param({"0", "250"})
+    private long roundTripMicros;
+
+    private AuthTokenFilter authTokenFilter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = SecurityFixtures.jwtConfig(claimsCache);
+        jwtConfig.getStateless().setEnabled(stateless);
+        JwtUtils jwtUtils = SecurityFixtures.jwtUtils(jwtConfig);
+
+        UserDetailsService userDetailsService = username -> {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+            return SecurityFixtures.principal();
+        };
+        JwtBlacklistService jwtBlacklistService = new JwtBlacklistService() {
+            @Override
+            public void blacklistToken(String token, String username) {
+            }
+
+            @Override
+            public boolean isTokenBlacklisted(String token) {
+                return false;
+            }
+
+            @Override
+            public List<TokenInfo> getUserTokens(Long userId) {
+                return List.of();
+            }
+        };
+
+        UserRepository userRepository = RepositoryStubs.stub(UserRepository.class, roundTripMicros,
+                (method, args) -> method.equals("findActiveStatusById") ? Optional.of(true) : RepositoryStubs.NO_ANSWER);
+        UserStatusCache userStatusCache = new UserStatusCache(userRepository, jwtConfig, new SimpleMeterRegistry());
+        userStatusCache.init();
+
+        authTokenFilter = new AuthTokenFilter(jwtUtils, userDetailsService, jwtBlacklistService, userStatusCache, jwtConfig);
+        authorizationHeader = "Bearer " + jwtUtils.generateJwtToken(SecurityFixtures.authentication());
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/42");
+        request.addHeader("Authorization", authorizationHeader);
+
+        authTokenFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,118 @@
+package com.rj.ecommerce_backend.securityconfig.services;
+
+import com.rj.ecommerce_backend.benchmark.RepositoryStubs;
+import com.rj.ecommerce_backend.securityconfig.domain.RefreshToken;
+import com.rj.ecommerce_backend.securityconfig.repositories.RefreshTokenRepository;
+import com.rj.ecommerce_backend.user.domain.User;
+import com.rj.ecommerce_backend.user.repositories.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login and refresh cost of the refresh-token store against repositories that charge a fixed
+ * database round trip per call.
+ * <p>
+ * The {@code legacy*} benchmarks replay the statements of the previous implementation: {@code findById},
+ * {@code deleteByUserId} and {@code save} on every login, plus a lookup by raw token on refresh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshTokenBenchmark {
+
+    private static final Long USER_ID = 42L;
+
+    @Param({"0", "250"})
+    private long roundTripMicros;
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private UserRepository userRepository;
+    private RefreshTokenServiceImpl refreshTokenService;
+    private String currentToken;
+
+    @Setup
+    public void setUp() {
+        refreshTokenRepository = RepositoryStubs.stub(RefreshTokenRepository.class, roundTripMicros, (method, args) -> {
+            if (method.equals("upsertForUser")) {
+                return 1;
+            }
+            if (!method.equals("findByTokenHash")) {
+                return RepositoryStubs.NO_ANSWER;
+            }
+            User user = new User();
+            user.setId(USER_ID);
+            RefreshToken stored = new RefreshToken();
+            stored.setUser(user);
+            stored.setTokenHash((String) args[0]);
+            stored.setExpiryDate(Instant.now().plusMillis(86400000L));
+            return Optional.of(stored);
+        });
+        userRepository = RepositoryStubs.stub(UserRepository.class, roundTripMicros, (method, args) -> {
+            if (!method.equals("findById") && !method.equals("getReferenceById")) {
+                return RepositoryStubs.NO_ANSWER;
+            }
+            User user = new User();
+            user.setId((Long) args[0]);
+            return method.equals("findById") ? Optional.of(user) : user;
+        });
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("127.0.0.1");
+
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, userRepository, request);
+        currentToken = refreshTokenService.createRefreshToken(USER_ID).getToken();
+    }
+
+    @Benchmark
+    public Object legacyLogin() {
+        return legacyCreateRefreshToken();
+    }
+
+    @Benchmark
+    public Object legacyRefresh() {
+        refreshTokenRepository.findByTokenHash(currentToken);
+        return legacyCreateRefreshToken();
+    }
+
+    @Benchmark
+    public Object login() {
+        return refreshTokenService.createRefreshToken(USER_ID);
+    }
+
+    @Benchmark
+    public Object refresh() {
+        RefreshToken verified = refreshTokenService.verifyRefreshToken(currentToken);
+        currentToken = refreshTokenService.createRefreshToken(verified.getUser().getId()).getToken();
+        return currentToken;
+    }
+
+    private RefreshToken legacyCreateRefreshToken() {
+        User user = userRepository.findById(USER_ID).orElseThrow();
+        refreshTokenRepository.deleteByUserId(user.getId());
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(user);
+        refreshToken.setExpiryDate(Instant.now().plusMillis(86400000L));
+        refreshToken.setToken(UUID.randomUUID().toString());
+        refreshToken.setCreatedByIp("127.0.0.1");
+        return refreshTokenRepository.save(refreshToken);
+    }
+}
@@ -0,0 +1,80 @@
+package com.rj.ecommerce_backend.securityconfig.utils;
+
+import com.rj.ecommerce_backend.benchmark.SecurityFixtures;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue cost, and the per-request cost of what {@code AuthTokenFilter} asks of {@link JwtUtils}:
+ * validate the token, then read the username from it.
+ * <p>
+ * {@code legacyDoubleParse} reproduces the previous implementation, which decoded the key and
+ * built a parser for each of the two calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils cachedJwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtils = SecurityFixtures.jwtUtils(SecurityFixtures.jwtConfig(true));
+        uncachedJwtUtils = SecurityFixtures.jwtUtils(SecurityFixtures.jwtConfig(false));
+        authentication = SecurityFixtures.authentication();
+        token = cachedJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return cachedJwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole blackhole) {
+        Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SecurityFixtures.SECRET)))
+                .build()
+                .parseClaimsJws(token);
+        blackhole.consume(Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SecurityFixtures.SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .get("username", String.class));
+    }
+
+    @Benchmark
+    public void sharedParserWithoutCache(Blackhole blackhole) {
+        blackhole.consume(uncachedJwtUtils.validateJwtToken(token));
+        blackhole.consume(uncachedJwtUtils.getUsernameFromJwtToken(token));
+    }
+
+    @Benchmark
+    public void verifiedClaimsCache(Blackhole blackhole) {
+        blackhole.consume(cachedJwtUtils.validateJwtToken(token));
+        blackhole.consume(cachedJwtUtils.getUsernameFromJwtToken(token));
+    }
+}
@@ -4,12 +4,21 @@ import com.rj.ecommerce_backend.order.exceptions.AccessDeniedException;
 import com.rj.ecommerce_backend.order.exceptions.OrderCancellationException;
 import com.rj.ecommerce_backend.order.exceptions.OrderNotFoundException;
 import com.rj.ecommerce_backend.order.exceptions.OrderServiceException;
+import com.rj.ecommerce_backend.paging.InvalidCursorException;
+import com.rj.ecommerce_backend.paging.InvalidPagingParameterException;
 import com.rj.ecommerce_backend.product.dtos.ErrorDTO;
 import com.rj.ecommerce_backend.product.exceptions.CategoryNotFoundException;
+import com.rj.ecommerce_backend.product.exceptions.FacetsUnavailableException;
+import com.rj.ecommerce_backend.product.exceptions.ImageUploadRejectedException;
 import com.rj.ecommerce_backend.product.exceptions.InsufficientStockException;
+import com.rj.ecommerce_backend.product.exceptions.InvalidProductImportException;
+import com.rj.ecommerce_backend.product.exceptions.InvalidStockAdjustmentException;
 import com.rj.ecommerce_backend.product.exceptions.ProductNotFoundException;
+import com.rj.ecommerce_backend.securityconfig.exceptions.PasswordHashingRejectedException;
+import com.rj.ecommerce_backend.user.exceptions.InvalidSortParameterException;
 import com.rj.ecommerce_backend.user.exceptions.UserNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -123,6 +132,47 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler({InvalidCursorException.class, InvalidPagingParameterException.class,
+            InvalidSortParameterException.class})
+    public ResponseEntity<ErrorDTO> handleInvalidListingParameters(RuntimeException ex) {
+        log.warn("Invalid listing parameters: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidProductImportException.class)
+    public ResponseEntity<ErrorDTO> handleInvalidProductImportException(InvalidProductImportException ex) {
+        log.warn("Product import rejected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidStockAdjustmentException.class)
+    public ResponseEntity<ErrorDTO> handleInvalidStockAdjustmentException(InvalidStockAdjustmentException ex) {
+        log.warn("Stock adjustment rejected: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(FacetsUnavailableException.class)
+    public ResponseEntity<ErrorDTO> handleFacetsUnavailableException(FacetsUnavailableException ex) {
+        log.warn("Facets unavailable: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+    }
+
+    @ExceptionHandler(ImageUploadRejectedException.class)
+    public ResponseEntity<ErrorDTO> handleImageUploadRejectedException(ImageUploadRejectedException ex) {
+        log.warn("Image upload rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorDTO(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(), LocalDateTime.now()));
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<ErrorDTO> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        log.warn("Password hashing rejected: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorDTO(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage(), LocalDateTime.now()));
+    }
+
 
     private ResponseEntity<ErrorDTO> buildErrorResponse(HttpStatus status, String message) {
         ErrorDTO errorDTO = new ErrorDTO(
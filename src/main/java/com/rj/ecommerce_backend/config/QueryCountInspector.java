@@ -0,0 +1,36 @@
+package com.rj.ecommerce_backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #start()} and {@link #stop()}.
+ * Statements outside such a window are passed through without being counted.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNTER = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        int[] counter = COUNTER.get();
+        if (counter != null) {
+            counter[0]++;
+        }
+        return sql;
+    }
+
+    public static void start() {
+        COUNTER.set(new int[1]);
+    }
+
+    public static int current() {
+        int[] counter = COUNTER.get();
+        return counter == null ? 0 : counter[0];
+    }
+
+    public static int stop() {
+        int count = current();
+        COUNTER.remove();
+        return count;
+    }
+}
@@ -7,6 +7,10 @@ import com.rj.ecommerce_backend.order.enums.PaymentMethod;
 import com.rj.ecommerce_backend.order.dtos.OrderDTO;
 import com.rj.ecommerce_backend.order.dtos.StatusUpdateRequest;
 import com.rj.ecommerce_backend.order.service.OrderService;
+import com.rj.ecommerce_backend.paging.CountMode;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.KeysetRequestFactory;
 import com.rj.ecommerce_backend.sorting.OrderSortFilter;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import jakarta.validation.constraints.Min;
@@ -33,9 +37,10 @@ public class OrderAdminController {
     private final OrderService orderService;
     private final OrderMapper orderMapper;
     private final SortValidator sortValidator;
+    private final KeysetRequestFactory keysetRequestFactory;
 
     @GetMapping()
-    public ResponseEntity<Page<OrderDTO>> getAllOrders(
+    public ResponseEntity<?> getAllOrders(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) OrderStatus status,
             @RequestParam(required = false) @Min(0) BigDecimal minTotal,
@@ -47,12 +52,14 @@ public class OrderAdminController {
             @RequestParam(required = false) Boolean hasTransactionId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id:asc") String sort
+            @RequestParam(defaultValue = "id:asc") String sort,
+            @RequestParam(defaultValue = "exact") String count
     ) {
 
         log.info("Received request to retrieve all orders with filters. search={}, status={}, minTotal={}, maxTotal={}, startDate={}, endDate={}",
                 search, status, minTotal, maxTotal, startDate, endDate);
 
+        CountMode countMode = CountMode.fromParameter(count);
         Sort validatedSort = sortValidator.validateAndBuildSort(sort, OrderSortFilter.class);
         Pageable pageable = PageRequest.of(page, size, validatedSort);
         OrderSearchCriteria criteria = new OrderSearchCriteria(
@@ -67,6 +74,11 @@ public class OrderAdminController {
                 hasTransactionId
         );
 
+        if (countMode != CountMode.EXACT) {
+            return ResponseEntity.ok(
+                    orderService.sliceAllOrders(pageable, criteria, countMode == CountMode.APPROXIMATE));
+        }
+
         Page<OrderDTO> orders = orderService.getAllOrders(pageable, criteria);
 
         log.info("Successfully retrieved all orders with filters. search={}, status={}, minTotal={}, maxTotal={}, startDate={}, endDate={}",
@@ -75,6 +87,37 @@ public class OrderAdminController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<OrderDTO>> scrollAllOrders(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @Min(0) BigDecimal minTotal,
+            @RequestParam(required = false) @Min(0) BigDecimal maxTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) PaymentMethod paymentMethod,
+            @RequestParam(required = false) Boolean hasTransactionId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id:asc") String sort
+    ) {
+        KeysetRequest request = keysetRequestFactory.create(sort, cursor, size, OrderSortFilter.class);
+        OrderSearchCriteria criteria = new OrderSearchCriteria(
+                search,
+                status,
+                minTotal,
+                maxTotal,
+                startDate,
+                endDate,
+                userId,
+                paymentMethod,
+                hasTransactionId
+        );
+
+        return ResponseEntity.ok(orderService.scrollAllOrders(request, criteria));
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDTO> getOrder(
             @PathVariable Long orderId
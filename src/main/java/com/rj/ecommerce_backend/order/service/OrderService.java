@@ -7,6 +7,9 @@ import com.rj.ecommerce_backend.order.search.OrderSearchCriteria;
 import com.rj.ecommerce_backend.order.enums.OrderStatus;
 import com.rj.ecommerce_backend.order.dtos.OrderCreationRequest;
 import com.rj.ecommerce_backend.order.dtos.OrderDTO;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingSlice;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -29,6 +32,10 @@ public interface OrderService {
 
     Page<OrderDTO> getAllOrders(Pageable pageable, OrderSearchCriteria criteria);
 
+    ListingSlice<OrderDTO> sliceAllOrders(Pageable pageable, OrderSearchCriteria criteria, boolean approximateTotal);
+
+    CursorPage<OrderDTO> scrollAllOrders(KeysetRequest request, OrderSearchCriteria criteria);
+
     Page<OrderDTO> getOrdersForUser(Pageable pageable, OrderSearchCriteria criteria);
 
     OrderDTO updateOrderStatus(Long orderId, OrderStatus newStatus);
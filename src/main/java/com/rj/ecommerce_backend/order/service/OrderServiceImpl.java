@@ -19,6 +19,12 @@ import com.rj.ecommerce_backend.order.exceptions.OrderCancellationException;
 import com.rj.ecommerce_backend.order.exceptions.OrderNotFoundException;
 import com.rj.ecommerce_backend.order.exceptions.OrderServiceException;
 import com.rj.ecommerce_backend.order.repository.OrderRepository;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetQueryExecutor;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingCountCache;
+import com.rj.ecommerce_backend.paging.ListingSlice;
+import com.rj.ecommerce_backend.paging.SliceQueryExecutor;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.service.ProductService;
 import com.rj.ecommerce_backend.product.exceptions.InsufficientStockException;
@@ -34,6 +40,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -53,6 +60,9 @@ public class OrderServiceImpl implements OrderService {
     private final ProductService productService;
     private final AdminService adminService;
     private final OrderMapper orderMapper;
+    private final KeysetQueryExecutor keysetQueryExecutor;
+    private final SliceQueryExecutor sliceQueryExecutor;
+    private final ListingCountCache listingCountCache;
     private final EmailServiceClient emailServiceclient;
     private final EmailRequestFactory emailRequestFactory;
 
@@ -147,7 +157,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional
     public Optional<Order> getOrderByIdWithOrderItems(Long orderId) {
 
-        Long userId = securityContext.getCurrentUser().getId();
+        Long userId = securityContext.getCurrentUserId();
         securityContext.checkAccess(userId);
 
         if (orderId == null) {
@@ -197,6 +207,37 @@ public class OrderServiceImpl implements OrderService {
         return orders.map(orderMapper::toDto);
     }
 
+    @Override
+    @Transactional
+    public ListingSlice<OrderDTO> sliceAllOrders(Pageable pageable, OrderSearchCriteria criteria,
+                                                 boolean approximateTotal) {
+        if (securityContext.isAdmin()) {
+            log.warn("Unauthorized access attempt to all orders");
+            throw new AccessDeniedException("Admin access required");
+        }
+
+        Specification<Order> orderSpecification = criteria.toSpecification();
+        Slice<OrderDTO> orders = sliceQueryExecutor.findSlice(Order.class, orderSpecification, pageable)
+                .map(orderMapper::toDto);
+
+        Long total = approximateTotal
+                ? listingCountCache.count("orders", criteria, () -> orderRepository.count(orderSpecification))
+                : null;
+        return ListingSlice.of(orders, total);
+    }
+
+    @Override
+    @Transactional
+    public CursorPage<OrderDTO> scrollAllOrders(KeysetRequest request, OrderSearchCriteria criteria) {
+        if (securityContext.isAdmin()) {
+            log.warn("Unauthorized access attempt to all orders");
+            throw new AccessDeniedException("Admin access required");
+        }
+
+        return keysetQueryExecutor.findSlice(Order.class, criteria.toSpecification(), request)
+                .map(orderMapper::toDto);
+    }
+
     @Override
     @Transactional
     public OrderDTO updateOrderStatus(Long orderId, OrderStatus newStatus) {
@@ -0,0 +1,29 @@
+package com.rj.ecommerce_backend.paging;
+
+import java.util.Locale;
+
+/**
+ * How a listing request wants its total computed, negotiated with the {@code count} request parameter.
+ * <ul>
+ *     <li>{@code exact}: a full {@code Page}, with a {@code count(*)} query alongside the data query</li>
+ *     <li>{@code none}: a {@link ListingSlice} that only knows whether another page follows</li>
+ *     <li>{@code approximate}: a {@link ListingSlice} with a cached total that is refreshed in the background</li>
+ * </ul>
+ */
+public enum CountMode {
+    EXACT,
+    NONE,
+    APPROXIMATE;
+
+    public static CountMode fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPagingParameterException(
+                    "Invalid count mode: " + value + ". Expected one of: exact, none, approximate");
+        }
+    }
+}
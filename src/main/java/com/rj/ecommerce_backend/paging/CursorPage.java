@@ -0,0 +1,19 @@
+package com.rj.ecommerce_backend.paging;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is passed back as {@code cursor} to fetch
+ * the following slice and is {@code null} on the last one. No total is computed.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), size, nextCursor, hasNext);
+    }
+}
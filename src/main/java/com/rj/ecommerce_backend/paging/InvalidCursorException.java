@@ -0,0 +1,7 @@
+package com.rj.ecommerce_backend.paging;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.rj.ecommerce_backend.paging;
+
+public class InvalidPagingParameterException extends RuntimeException {
+    public InvalidPagingParameterException(String message) {
+        super(message);
+    }
+}
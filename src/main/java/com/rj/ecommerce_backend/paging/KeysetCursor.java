@@ -0,0 +1,47 @@
+package com.rj.ecommerce_backend.paging;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a slice: the sort it was produced under, the sort key of that row
+ * and its id as tie-breaker. The key is kept in its string form and converted back to the attribute
+ * type when the next query is built.
+ */
+public record KeysetCursor(String field, Sort.Direction direction, Long id, String key) {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = ":";
+    private static final String NULL_KEY = "~";
+    private static final String KEY_PREFIX = "=";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, field, direction.name(), String.valueOf(id),
+                key == null ? NULL_KEY : KEY_PREFIX + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The key goes last so it may contain the separator itself
+            String[] parts = raw.split(SEPARATOR, 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Unsupported cursor");
+            }
+            String key = parts[4].equals(NULL_KEY) ? null : keyOf(parts[4]);
+            return new KeysetCursor(parts[1], Sort.Direction.valueOf(parts[2]), Long.valueOf(parts[3]), key);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static String keyOf(String part) {
+        if (!part.startsWith(KEY_PREFIX)) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        return part.substring(KEY_PREFIX.length());
+    }
+}
@@ -0,0 +1,169 @@
+package com.rj.ecommerce_backend.paging;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs keyset ("seek") queries: instead of skipping {@code page * size} rows, each slice starts right after
+ * the (sort key, id) pair carried by the cursor and reads {@code size + 1} rows to learn whether more follow.
+ * No count query is issued, so the cost of a slice does not depend on how deep into the listing it is.
+ * <p>
+ * The tuple comparison {@code (key, id) > (?, ?)} is expanded into {@code key > ? OR (key = ? AND id > ?)},
+ * which the optimizer can serve from an index on {@code (key, id)}. NULL keys sort first in ascending order,
+ * as in MySQL and H2.
+ */
+@Component
+public class KeysetQueryExecutor {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public <T> CursorPage<T> findSlice(Class<T> entityClass, Specification<T> specification, KeysetRequest request) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entityClass);
+        Path<Comparable<Object>> key = path(root, request.keyPath());
+        Path<Comparable<Object>> id = root.get(ID);
+        boolean keyIsId = ID.equals(request.keyPath());
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        if (request.after() != null) {
+            predicates.add(keyIsId
+                    ? after(cb, id, request.direction(), request.after().id())
+                    : seek(cb, key, id, request));
+        }
+
+        query.multiselect(root, key, id).where(predicates.toArray(Predicate[]::new));
+        if (keyIsId) {
+            query.orderBy(order(cb, id, request.direction()));
+        } else {
+            query.orderBy(order(cb, key, request.direction()), order(cb, id, request.direction()));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(request.size() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > request.size();
+        List<Tuple> slice = hasNext ? rows.subList(0, request.size()) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = slice.get(slice.size() - 1);
+            nextCursor = request.cursorAfter(last.get(2, Long.class), formatKey(last.get(1))).encode();
+        }
+
+        List<T> content = slice.stream().map(row -> row.get(0, entityClass)).toList();
+        return new CursorPage<>(content, request.size(), nextCursor, hasNext);
+    }
+
+    private Predicate seek(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Comparable<Object>> id,
+                           KeysetRequest request) {
+        Sort.Direction direction = request.direction();
+        KeysetCursor cursor = request.after();
+        Predicate sameKeyLaterId;
+
+        if (cursor.key() == null) {
+            sameKeyLaterId = cb.and(cb.isNull(key), after(cb, id, direction, cursor.id()));
+            return direction.isAscending()
+                    ? cb.or(sameKeyLaterId, cb.isNotNull(key))
+                    : sameKeyLaterId;
+        }
+
+        Comparable<Object> value = parseKey(cursor.key(), key.getJavaType());
+        sameKeyLaterId = cb.and(cb.equal(key, value), after(cb, id, direction, cursor.id()));
+        return direction.isAscending()
+                ? cb.or(cb.greaterThan(key, value), sameKeyLaterId)
+                : cb.or(cb.lessThan(key, value), sameKeyLaterId, cb.isNull(key));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> id, Sort.Direction direction,
+                                   Long lastId) {
+        Comparable value = lastId;
+        return direction.isAscending() ? cb.greaterThan(id, value) : cb.lessThan(id, value);
+    }
+
+    private static jakarta.persistence.criteria.Order order(CriteriaBuilder cb, Path<?> path, Sort.Direction direction) {
+        return direction.isAscending() ? cb.asc(path) : cb.desc(path);
+    }
+
+    private static <T> Path<Comparable<Object>> path(Root<T> root, String keyPath) {
+        Path<?> path = root;
+        for (String attribute : keyPath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Comparable<Object>> comparable = (Path<Comparable<Object>>) path;
+        return comparable;
+    }
+
+    private static String formatKey(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (key instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (key instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return key.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Comparable<Object> parseKey(String raw, Class<?> type) {
+        try {
+            Object value;
+            if (type == String.class) {
+                value = raw;
+            } else if (type == Long.class || type == long.class) {
+                value = Long.valueOf(raw);
+            } else if (type == Integer.class || type == int.class) {
+                value = Integer.valueOf(raw);
+            } else if (type == BigDecimal.class) {
+                value = new BigDecimal(raw);
+            } else if (type == Boolean.class || type == boolean.class) {
+                value = Boolean.valueOf(raw);
+            } else if (type == LocalDateTime.class) {
+                value = LocalDateTime.parse(raw);
+            } else if (type == LocalDate.class) {
+                value = LocalDate.parse(raw);
+            } else if (type == Instant.class) {
+                value = Instant.parse(raw);
+            } else if (type.isEnum()) {
+                value = Enum.valueOf((Class<Enum>) type, raw);
+            } else {
+                throw new InvalidCursorException("Unsupported cursor key type: " + type.getSimpleName());
+            }
+            return (Comparable<Object>) value;
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
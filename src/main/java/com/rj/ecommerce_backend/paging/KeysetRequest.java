@@ -0,0 +1,19 @@
+package com.rj.ecommerce_backend.paging;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * A validated request for one keyset slice: order by {@code keyPath} then id in {@code direction},
+ * starting after {@code after}, or from the beginning when it is {@code null}.
+ */
+public record KeysetRequest(
+        String field,
+        String keyPath,
+        Sort.Direction direction,
+        KeysetCursor after,
+        int size
+) {
+    public KeysetCursor cursorAfter(Long id, String key) {
+        return new KeysetCursor(field, direction, id, key);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rj.ecommerce_backend.paging;
+
+import com.rj.ecommerce_backend.sorting.SortValidator;
+import com.rj.ecommerce_backend.sorting.SortableField;
+import com.rj.ecommerce_backend.user.exceptions.InvalidSortParameterException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Turns the {@code sort}, {@code cursor} and {@code size} parameters of a scroll endpoint into a
+ * {@link KeysetRequest}, checking the sort field against the endpoint's {@link SortableField} enum and
+ * the cursor against the requested sort.
+ */
+@Component
+@RequiredArgsConstructor
+public class KeysetRequestFactory {
+
+    public static final int MAX_SIZE = 100;
+
+    private final SortValidator sortValidator;
+
+    public KeysetRequest create(String sortParam, String cursor, int size,
+                                Class<? extends SortableField> sortFieldClass) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidCursorException("Page size must be between 1 and " + MAX_SIZE);
+        }
+
+        Sort.Order order = sortValidator.validateAndBuildSort(sortParam, sortFieldClass).iterator().next();
+        SortableField field = SortableField.fromString(order.getProperty(), sortFieldClass);
+        if (field.getKeyPath() == null) {
+            throw new InvalidSortParameterException(
+                    "Sort field '" + field.getFieldName() + "' is not supported in cursor mode");
+        }
+
+        KeysetCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = KeysetCursor.decode(cursor);
+            if (!after.field().equals(field.getFieldName()) || after.direction() != order.getDirection()) {
+                throw new InvalidCursorException("Cursor was issued for a different sort order");
+            }
+        }
+
+        return new KeysetRequest(field.getFieldName(), field.getKeyPath(), order.getDirection(), after, size);
+    }
+}
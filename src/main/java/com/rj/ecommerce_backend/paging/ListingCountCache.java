@@ -0,0 +1,65 @@
+package com.rj.ecommerce_backend.paging;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Approximate listing totals. The first request for a listing and filter combination pays for the count;
+ * later requests get the cached value, and a value older than {@code refreshAfterMs} is recounted on a
+ * background thread while the stale one keeps being served.
+ * <p>
+ * The counter of the first request is kept with the entry and reused for refreshes, so it must not depend
+ * on request-scoped state such as the security context.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingCountCache {
+
+    private final ListingCountProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private LoadingCache<CountKey, Long> totals;
+
+    @PostConstruct
+    public void init() {
+        totals = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(Duration.ofMillis(properties.getRefreshAfterMs()))
+                .expireAfterAccess(Duration.ofMillis(properties.getExpireAfterMs()))
+                .recordStats()
+                .build(key -> key.counter().getAsLong());
+        CaffeineCacheMetrics.monitor(meterRegistry, totals, "listing.count");
+    }
+
+    /**
+     * Returns the cached total of {@code listing} filtered by {@code criteria}, counting with {@code counter}
+     * when there is none yet. {@code criteria} must implement value equality, as records do.
+     */
+    public long count(String listing, Object criteria, LongSupplier counter) {
+        return totals.get(new CountKey(listing, criteria, counter));
+    }
+
+    private record CountKey(String listing, Object criteria, LongSupplier counter) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CountKey key
+                    && listing.equals(key.listing)
+                    && Objects.equals(criteria, key.criteria);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(listing, criteria);
+        }
+    }
+}
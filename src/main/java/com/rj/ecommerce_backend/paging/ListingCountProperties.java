@@ -0,0 +1,22 @@
+package com.rj.ecommerce_backend.paging;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "listing-count")
+@Getter
+@Setter
+public class ListingCountProperties {
+
+    // Distinct listing/filter combinations whose totals are kept
+    private long maximumSize = 1000;
+
+    // Once a total is older than this, the next read returns it and recounts in the background
+    private long refreshAfterMs = 60000;
+
+    // Totals nobody asked for in this long are dropped
+    private long expireAfterMs = 600000;
+}
@@ -0,0 +1,27 @@
+package com.rj.ecommerce_backend.paging;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of an offset-paginated listing served without a count query. {@code approximateTotal} is only
+ * set when it was asked for, and may lag behind recent writes.
+ */
+public record ListingSlice<T>(
+        List<T> content,
+        int number,
+        int size,
+        boolean hasNext,
+        Long approximateTotal
+) {
+    public static <T> ListingSlice<T> of(Slice<T> slice, Long approximateTotal) {
+        return new ListingSlice<>(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(),
+                approximateTotal);
+    }
+
+    public <R> ListingSlice<R> map(Function<? super T, ? extends R> mapper) {
+        return new ListingSlice<>(content.stream().<R>map(mapper).toList(), number, size, hasNext, approximateTotal);
+    }
+}
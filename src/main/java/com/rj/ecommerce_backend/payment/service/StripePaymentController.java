@@ -38,7 +38,7 @@ public class StripePaymentController {
             @RequestBody CheckoutUrlsRequest request) {
         try {
             log.info("Processing checkout session for order: {}", orderId);
-            Long userId = securityContext.getCurrentUser().getId();
+            Long userId = securityContext.getCurrentUserId();
 
             // Get existing session or create new one
             CheckoutSessionDTO sessionDTO = stripePaymentService.createOrGetCheckoutSession(
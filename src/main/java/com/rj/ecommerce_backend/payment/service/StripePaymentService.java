@@ -34,7 +34,7 @@ public class StripePaymentService {
     @Transactional
     public PaymentStatusDTO getOrderPaymentStatus(Long orderId) {
 
-        Long userId = securityContext.getCurrentUser().getId();
+        Long userId = securityContext.getCurrentUserId();
 
         Order order = orderService.getOrderById(userId, orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
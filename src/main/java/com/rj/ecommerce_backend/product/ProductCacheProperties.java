@@ -0,0 +1,21 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-cache")
+@Getter
+@Setter
+public class ProductCacheProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on the estimated heap used by cached product views
+    private long maximumWeightBytes = 64L * 1024 * 1024;
+
+    // Safety net for changes made by other nodes, which only invalidate their own cache
+    private long ttlMs = 600000;
+}
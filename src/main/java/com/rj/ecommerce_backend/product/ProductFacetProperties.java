@@ -0,0 +1,30 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-facets")
+@Getter
+@Setter
+public class ProductFacetProperties {
+
+    private boolean enabled = true;
+
+    // Rows read per query while the snapshot is built at startup
+    private int buildBatchSize = 5000;
+
+    // Changes made on other nodes show up in facet counts and filters after at most this long
+    private long rebuildIntervalMs = 600_000;
+
+    // Ascending lower bounds of the price buckets after the first one, which starts at zero
+    private List<BigDecimal> priceBucketBounds = new ArrayList<>(List.of(
+            new BigDecimal("10"), new BigDecimal("25"), new BigDecimal("50"),
+            new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500")));
+}
@@ -0,0 +1,28 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-http-cache")
+@Getter
+@Setter
+public class ProductHttpCacheProperties {
+
+    // How long browsers may reuse a public product response without revalidating
+    private long maxAgeSeconds = 30;
+
+    // How long shared caches such as a CDN may reuse it; negative to fall back to max-age
+    private long sharedMaxAgeSeconds = 300;
+
+    // How long a cache may keep serving a stale response while it revalidates in the background
+    private long staleWhileRevalidateSeconds = 60;
+
+    // How long product images may be reused; revalidation is cheap thanks to their ETags
+    private long imageMaxAgeSeconds = 3600;
+
+    // How long images named after their content may be reused; such a URL never changes what it points to
+    private long immutableImageMaxAgeSeconds = 31_536_000;
+}
@@ -0,0 +1,44 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-images")
+@Getter
+@Setter
+public class ProductImageProperties {
+
+    // Widths in pixels of the resized copies made of every uploaded image; none is wider than the original
+    private List<Integer> variantWidths = List.of(128, 400, 1200);
+
+    // Images resized at once; each holds a decoded original in memory
+    private int poolSize = 2;
+
+    // Further uploads are resized lazily, when a missing variant is first requested
+    private int queueCapacity = 256;
+
+    private float jpegQuality = 0.85f;
+
+    // Larger originals are served as they are; decoding one takes four bytes per pixel
+    private long maxPixels = 40_000_000;
+
+    // Uploaded files written at once, across all requests
+    private int uploadPoolSize = 4;
+
+    // Beyond this, uploads are rejected with 503 until the queue drains
+    private int uploadQueueCapacity = 64;
+
+    // Sent in Retry-After with a rejected upload
+    private int uploadRetryAfterSeconds = 5;
+
+    // Attempts at writing one file before the upload fails
+    private int uploadMaxAttempts = 3;
+
+    // Wait before the first retry; doubled for each one after
+    private long uploadRetryBackoffMs = 200;
+}
@@ -0,0 +1,28 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-import")
+@Getter
+@Setter
+public class ProductImportProperties {
+
+    // Rows committed per transaction; a failure only rolls back the chunk in progress
+    private int chunkSize = 2000;
+
+    // Rows sent per JDBC batch, each returning its generated ids in one round trip
+    private int batchSize = 500;
+
+    // Used for rows that do not name a currency
+    private String defaultCurrencyCode = "USD";
+
+    // Rejected rows reported back in full; further ones are only counted
+    private int maxReportedErrors = 50;
+
+    // Finished imports kept for the progress endpoint
+    private int trackedImports = 20;
+}
@@ -0,0 +1,24 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-search")
+@Getter
+@Setter
+public class ProductSearchProperties {
+
+    private boolean enabled = true;
+
+    // Rows read per query while the index is built at startup
+    private int buildBatchSize = 5000;
+
+    // Changes made on other nodes show up in search results after at most this long
+    private long rebuildIntervalMs = 600_000;
+
+    // Largest match set pushed into the database as an id filter when a search is combined with other filters
+    private int maxFilteredMatches = 1000;
+}
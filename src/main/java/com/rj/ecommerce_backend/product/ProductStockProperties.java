@@ -0,0 +1,19 @@
+package com.rj.ecommerce_backend.product;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product-stock")
+@Getter
+@Setter
+public class ProductStockProperties {
+
+    // Adjustments locked, updated and committed together
+    private int chunkSize = 1000;
+
+    // Larger requests are rejected outright
+    private int maxAdjustments = 10000;
+}
@@ -34,6 +34,28 @@ public class StorageProperties {
 
     private Integer cleanupThresholdDays = 7;
 
+    // Files looked up in one query against the image table
+    private int cleanupBatchSize = 500;
+
+    // The rest of the directory is picked up where this run stopped by the next one
+    private int cleanupMaxBatchesPerRun = 20;
+
+    private long cleanupPauseBetweenBatchesMs = 100;
+
+    // Deletes at most this many files per run, however many orphans are found
+    private int cleanupMaxDeletesPerRun = 1000;
+
+    // Only logs and counts what would be deleted
+    private boolean cleanupDryRun = false;
+
+    // Moves files stored directly under the location into their shard directories
+    private boolean migrationEnabled = true;
+
+    // Files moved per run
+    private int migrationBatchSize = 1000;
+
+    private long migrationIntervalMs = 60_000;
+
     private String tempDir;
 
     // The initialization method needs to create necessary directories
@@ -1,10 +1,19 @@
 package com.rj.ecommerce_backend.product.controller;
 
+import com.rj.ecommerce_backend.paging.KeysetRequestFactory;
+import com.rj.ecommerce_backend.product.ProductHttpCacheProperties;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
 import com.rj.ecommerce_backend.product.service.FileStorageService;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import com.rj.ecommerce_backend.product.service.ProductImportService;
 import com.rj.ecommerce_backend.product.service.ProductService;
+import com.rj.ecommerce_backend.product.service.ProductStockService;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductImportStatusDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductUpdateDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO;
 import com.rj.ecommerce_backend.product.exceptions.ProductNotFoundException;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,11 +28,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -35,10 +47,32 @@ import java.util.List;
 @Slf4j
 public class AdminProductController extends BaseProductController {
 
+    private final ProductImportService productImportService;
+    private final ProductStockService productStockService;
+
     public AdminProductController(ProductService productService,
                                   FileStorageService fileStorageService,
-                                  SortValidator sortValidator) {
-        super(productService, fileStorageService, sortValidator);
+                                  SortValidator sortValidator,
+                                  KeysetRequestFactory keysetRequestFactory,
+                                  ProductCatalogVersion catalogVersion,
+                                  ProductHttpCacheProperties httpCacheProperties,
+                                  ProductImportService productImportService,
+                                  ProductStockService productStockService) {
+        super(productService, fileStorageService, sortValidator, keysetRequestFactory,
+                catalogVersion, httpCacheProperties);
+        this.productImportService = productImportService;
+        this.productStockService = productStockService;
+    }
+
+    // Admin responses go through authentication, so shared caches must not keep them
+    @Override
+    protected CacheControl cacheControl() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    @Override
+    protected CacheControl imageCacheControl(boolean contentAddressed) {
+        return cacheControl();
     }
 
     @Operation(
@@ -131,6 +165,60 @@ public class AdminProductController extends BaseProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    @Operation(
+            summary = "Bulk import products",
+            description = "Streams products from NDJSON (one JSON object per line) or CSV with a header row. " +
+                    "Rows are committed in chunks; invalid rows are skipped and reported in the result"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the counts for skipped rows"),
+            @ApiResponse(responseCode = "400", description = "The input is not readable as the given format"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    @PostMapping(value = "/import", consumes = {ProductImportFormat.NDJSON_MEDIA_TYPE, ProductImportFormat.CSV_MEDIA_TYPE})
+    public ResponseEntity<ProductImportStatusDTO> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        ProductImportFormat format = ProductImportFormat.fromContentType(contentType);
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
+    @Operation(
+            summary = "List recent product imports",
+            description = "Progress of running imports and results of recently finished ones, newest first"
+    )
+    @GetMapping("/import")
+    public ResponseEntity<List<ProductImportStatusDTO>> getImports() {
+        return ResponseEntity.ok(productImportService.getImports());
+    }
+
+    @Operation(
+            summary = "Get product import progress",
+            description = "Rows read, imported and rejected so far by a running or recently finished import"
+    )
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ProductImportStatusDTO> getImport(@PathVariable String importId) {
+        return productImportService.getImport(importId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(
+            summary = "Bulk adjust stock",
+            description = "Applies stock changes given either as a delta or as an absolute quantity per product. " +
+                    "Returns one result per adjustment, in request order"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Adjustments processed; see each result's status"),
+            @ApiResponse(responseCode = "400", description = "Too many adjustments in one request")
+    })
+    @PatchMapping("/stock")
+    public ResponseEntity<List<StockAdjustmentResultDTO>> adjustStock(
+            @RequestBody List<StockAdjustmentDTO> adjustments) {
+        return ResponseEntity.ok(productStockService.adjustStock(adjustments));
+    }
+
     @DeleteMapping("/{productId}/images/{imageId}")
     public ResponseEntity<Void> deleteProductImage(
             @PathVariable Long productId,
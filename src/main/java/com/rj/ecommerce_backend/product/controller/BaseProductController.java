@@ -1,7 +1,15 @@
 package com.rj.ecommerce_backend.product.controller;
 
+import com.rj.ecommerce_backend.paging.CountMode;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.KeysetRequestFactory;
+import com.rj.ecommerce_backend.product.ProductHttpCacheProperties;
 import com.rj.ecommerce_backend.product.service.FileStorageService;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
 import com.rj.ecommerce_backend.product.service.ProductService;
+import com.rj.ecommerce_backend.product.service.StoredImage;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.sorting.ProductSortField;
@@ -11,20 +19,26 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.MediaType;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -35,6 +49,9 @@ public abstract class BaseProductController {
     protected final ProductService productService;
     protected final FileStorageService fileStorageService;
     protected final SortValidator sortValidator;
+    protected final KeysetRequestFactory keysetRequestFactory;
+    protected final ProductCatalogVersion catalogVersion;
+    protected final ProductHttpCacheProperties httpCacheProperties;
 
     @Operation(
             summary = "Get all products with filtering and pagination",
@@ -45,8 +62,8 @@ public abstract class BaseProductController {
             @ApiResponse(responseCode = "400", description = "Invalid pagination or sort parameters")
     })
     @GetMapping
-    public ResponseEntity<Page<ProductResponseDTO>> getAllProducts(
-            @Parameter(description = "Search term for product name or description")
+    public ResponseEntity<?> getAllProducts(
+            @Parameter(description = "Search term for product name, or a product id")
             @RequestParam(required = false) String search,
             @Parameter(description = "Category ID to filter products")
             @RequestParam(required = false) String categoryId,
@@ -63,11 +80,15 @@ public abstract class BaseProductController {
             @Parameter(description = "Number of items per page")
             @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field and direction (e.g., 'id:asc', 'name:desc')")
-            @RequestParam(defaultValue = "id:asc") String sort) {
+            @RequestParam(defaultValue = "id:asc") String sort,
+            @Parameter(description = "Total to compute: 'exact' (default, full page), 'none' (hasNext only) or 'approximate' (cached total)")
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
 
         log.info("Received request to retrieve products with filters. search={}, categoryId={}, minPrice={}, maxPrice={}, minStockQuantity={}, maxStockQuantity={}",
                 search, categoryId, minPrice, maxPrice, minStockQuantity, maxStockQuantity);
 
+        CountMode countMode = CountMode.fromParameter(count);
         Sort validatedSort = sortValidator.validateAndBuildSort(sort, ProductSortField.class);
         Pageable pageable = PageRequest.of(page, size, validatedSort);
         ProductSearchCriteria criteria = new ProductSearchCriteria(
@@ -78,12 +99,114 @@ public abstract class BaseProductController {
                 minStockQuantity,
                 maxStockQuantity);
 
+        ProductCatalogVersion.ListingVersion version = catalogVersion.listingVersion();
+        String etag = listingETag(version, criteria, pageable, countMode);
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return null;
+        }
+
+        if (countMode != CountMode.EXACT) {
+            return cacheable(etag, version.lastModified())
+                    .body(productService.sliceProducts(pageable, criteria, countMode == CountMode.APPROXIMATE));
+        }
+
         Page<ProductResponseDTO> products = productService.getAllProducts(pageable, criteria);
 
         log.info("Successfully retrieve products with filters. search={}, categoryId={}, minPrice={}, maxPrice={}, minStockQuantity={}, maxStockQuantity={}",
                 search, categoryId, minPrice, maxPrice, minStockQuantity, maxStockQuantity);
 
-        return ResponseEntity.ok(products);
+        return cacheable(etag, version.lastModified()).body(products);
+    }
+
+
+    @Operation(
+            summary = "Scroll through products with a cursor",
+            description = "Keyset-paginated variant of the product listing. Returns a cursor for the next slice instead of page numbers and a total count"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or sort parameters")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductResponseDTO>> scrollProducts(
+            @Parameter(description = "Search term for product name, or a product id")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Category ID to filter products")
+            @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Minimum price filter")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price filter")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Minimum stock quantity filter")
+            @RequestParam(required = false) Integer minStockQuantity,
+            @Parameter(description = "Maximum stock quantity filter")
+            @RequestParam(required = false) Integer maxStockQuantity,
+            @Parameter(description = "Cursor returned as nextCursor by the previous slice; omit for the first slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of items per slice")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field and direction (e.g., 'id:asc', 'name:desc'); must not change between slices")
+            @RequestParam(defaultValue = "id:asc") String sort,
+            WebRequest webRequest) {
+
+        KeysetRequest request = keysetRequestFactory.create(sort, cursor, size, ProductSortField.class);
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                search,
+                categoryId,
+                minPrice,
+                maxPrice,
+                minStockQuantity,
+                maxStockQuantity);
+
+        ProductCatalogVersion.ListingVersion version = catalogVersion.listingVersion();
+        String etag = listingETag(version, criteria, request);
+        if (webRequest.checkNotModified(etag, version.lastModified())) {
+            return null;
+        }
+
+        return cacheable(etag, version.lastModified()).body(productService.scrollProducts(request, criteria));
+    }
+
+
+    @Operation(
+            summary = "Get facet counts for a product listing",
+            description = "Counts the products matching the filters, per category and per price bucket. Category counts ignore the category filter and price buckets ignore the price filter"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Facets counted successfully"),
+            @ApiResponse(responseCode = "503", description = "The catalog snapshot is still being built")
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsDTO> getProductFacets(
+            @Parameter(description = "Search term for product name, or a product id")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Category ID to filter products")
+            @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Minimum price filter")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Maximum price filter")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Minimum stock quantity filter")
+            @RequestParam(required = false) Integer minStockQuantity,
+            @Parameter(description = "Maximum stock quantity filter")
+            @RequestParam(required = false) Integer maxStockQuantity,
+            WebRequest request) {
+
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                search,
+                categoryId,
+                minPrice,
+                maxPrice,
+                minStockQuantity,
+                maxStockQuantity);
+
+        ProductCatalogVersion.ListingVersion version = catalogVersion.listingVersion();
+        String etag = listingETag(version, criteria, "facets");
+        if (request.checkNotModified(etag, version.lastModified())) {
+            return null;
+        }
+
+        return cacheable(etag, version.lastModified()).body(productService.getProductFacets(criteria));
     }
 
 
@@ -96,12 +219,64 @@ public abstract class BaseProductController {
             @ApiResponse(responseCode = "404", description = "Image not found")
     })
     @GetMapping("/images/{fileName}")
-    public ResponseEntity<Resource> getImage(
+    public void getImage(
             @Parameter(description = "Image filename")
-            @PathVariable String fileName) {
-        Resource resource = fileStorageService.loadFileAsResource(fileName);
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(resource);
+            @PathVariable String fileName,
+            @Parameter(description = "Display width in pixels; serves the best fitting resized copy when there is one")
+            @RequestParam(required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        CacheControl cacheControl = imageCacheControl(FileStorageService.isContentAddressed(fileName));
+        if (width != null && width > 0) {
+            Optional<StoredImage> variant = fileStorageService.loadImageVariant(fileName, width);
+            if (variant.isPresent()) {
+                ImageResponseWriter.write(variant.get(), cacheControl, request, response);
+                return;
+            }
+            // The copy is being made; the original must not be cached in its place
+            cacheControl = CacheControl.noCache();
+        }
+
+        Optional<StoredImage> image = fileStorageService.loadStoredImage(fileName);
+        if (image.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ImageResponseWriter.write(image.get(), cacheControl, request, response);
+    }
+
+    // Image files are never rewritten in place, so they can be kept longer than listings. Those named after
+    // their content cannot even be replaced, so caches need not revalidate them at all.
+    protected CacheControl imageCacheControl(boolean contentAddressed) {
+        if (contentAddressed) {
+            return CacheControl.maxAge(Duration.ofSeconds(httpCacheProperties.getImmutableImageMaxAgeSeconds()))
+                    .cachePublic()
+                    .immutable();
+        }
+        return CacheControl.maxAge(Duration.ofSeconds(httpCacheProperties.getImageMaxAgeSeconds())).cachePublic();
+    }
+
+    // Public listings may be kept by browsers and a CDN; controllers serving non-public data override this
+    protected CacheControl cacheControl() {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(httpCacheProperties.getMaxAgeSeconds()))
+                .cachePublic()
+                .staleWhileRevalidate(Duration.ofSeconds(httpCacheProperties.getStaleWhileRevalidateSeconds()));
+        if (httpCacheProperties.getSharedMaxAgeSeconds() >= 0) {
+            cacheControl = cacheControl.sMaxAge(Duration.ofSeconds(httpCacheProperties.getSharedMaxAgeSeconds()));
+        }
+        return cacheControl;
+    }
+
+    // A negative lastModified sends no Last-Modified, leaving the ETag as the only validator
+    protected ResponseEntity.BodyBuilder cacheable(String etag, long lastModified) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(cacheControl())
+                .eTag(etag);
+        return lastModified >= 0 ? builder.lastModified(lastModified) : builder;
+    }
+
+    // The query is part of the tag so a cache that ignores the URL still cannot mix up two results
+    private static String listingETag(ProductCatalogVersion.ListingVersion version, Object... query) {
+        return "\"" + version.tag() + "-" + Integer.toHexString(Arrays.deepToString(query).hashCode()) + "\"";
     }
 }
@@ -11,9 +11,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -34,14 +36,20 @@ public class PublicCategoryController {
     }
 
     @GetMapping("/names")
-    public ResponseEntity<List<String>> getCategoriesNames() {
+    public ResponseEntity<List<String>> getCategoriesNames(WebRequest request) {
         log.info("Received request to retrieve names of categories.");
+        String etag = categoryService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<String> categoryNames = categoryService.getCategoryNames();
 
         log.info("Successfully retrieved names of categories. Total elements: {}", categoryNames.size());
 
         return ResponseEntity
                 .status(HttpStatus.OK)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
                 .body(categoryNames);
     }
 
@@ -51,15 +59,23 @@ public class PublicCategoryController {
             @RequestParam(required = false) String name,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id:asc") String sort
+            @RequestParam(defaultValue = "id:asc") String sort,
+            WebRequest request
     ) {
 
         log.info("Received request to retrieve categories with filters. search={}, name={}",
                 search, name);
 
 
+        // An invalid request is rejected even when the client's copy is current
         Sort validatedSort = sortValidator.validateAndBuildSort(sort, CategorySortField.class);
         Pageable pageable = PageRequest.of(page, size, validatedSort);
+
+        String etag = categoryService.getCatalogETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         CategorySearchCriteria criteria = new CategorySearchCriteria(
                 search,
                 name
@@ -70,6 +86,8 @@ public class PublicCategoryController {
         log.info("Successfully retrieved filtered categories. Total elements: {}", categories.getTotalElements());
         return ResponseEntity
                 .status(HttpStatus.OK)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
                 .body(categories);
     }
 
@@ -1,11 +1,25 @@
 package com.rj.ecommerce_backend.product.controller;
 
+import com.rj.ecommerce_backend.paging.KeysetRequestFactory;
+import com.rj.ecommerce_backend.product.ProductHttpCacheProperties;
+import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.service.FileStorageService;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
 import com.rj.ecommerce_backend.product.service.ProductService;
+import com.rj.ecommerce_backend.product.service.VersionedProduct;
 import com.rj.ecommerce_backend.sorting.SortValidator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Tag(name = "Public Product API", description = "Public APIs for viewing products")
 @RestController
@@ -15,8 +29,46 @@ public class PublicProductController extends BaseProductController {
 
     public PublicProductController(ProductService productService,
                                    FileStorageService fileStorageService,
-                                   SortValidator sortValidator) {
-        super(productService, fileStorageService, sortValidator);
+                                   SortValidator sortValidator,
+                                   KeysetRequestFactory keysetRequestFactory,
+                                   ProductCatalogVersion catalogVersion,
+                                   ProductHttpCacheProperties httpCacheProperties) {
+        super(productService, fileStorageService, sortValidator, keysetRequestFactory,
+                catalogVersion, httpCacheProperties);
     }
 
+    @Operation(
+            summary = "Get product by ID",
+            description = "Retrieves a specific product by its ID. Supports If-None-Match and If-Modified-Since"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found successfully"),
+            @ApiResponse(responseCode = "304", description = "Product not modified since the given validator"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{productId}")
+    public ResponseEntity<ProductResponseDTO> getProductById(
+            @Parameter(description = "ID of the product to retrieve")
+            @PathVariable Long productId,
+            WebRequest request) {
+
+        Optional<LocalDateTime> updatedAt = productService.getProductLastModified(productId);
+        if (updatedAt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        // The view may come from this node's cache, so the validators are those of the state it was mapped from
+        Optional<VersionedProduct> product =
+                productService.getProductById(productId, catalogVersion.productLastModified(updatedAt.get()));
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long lastModified = product.get().lastModified().toEpochMilli();
+        String etag = "\"" + productId + "-" + Long.toHexString(lastModified) + "\"";
+        if (request.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+        return cacheable(etag, lastModified).body(product.get().product());
+    }
 }
@@ -0,0 +1,33 @@
+package com.rj.ecommerce_backend.product.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The single row holding the version of the product catalog, shared by every node serving it.
+ */
+@Entity
+@Table(name = "catalog_version")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogVersion {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    // Millisecond timestamp of the last committed product or category change, moved forward on every change
+    @Column(nullable = false)
+    private long version;
+
+    // The version as of the last category change; deleting a category leaves no updated_at behind to compare
+    @Column(name = "categories_version", nullable = false)
+    private long categoriesVersion;
+}
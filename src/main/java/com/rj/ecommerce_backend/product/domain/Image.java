@@ -29,6 +29,10 @@ public class Image {
     private String altText;
     private String mimeType;
 
+    // Comma separated widths of the resized copies generated so far, see ImageVariants
+    @Column(length = 64)
+    private String variantWidths;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id")
     private Product product;
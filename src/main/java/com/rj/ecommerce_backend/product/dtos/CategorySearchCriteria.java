@@ -4,12 +4,48 @@ import com.rj.ecommerce_backend.product.domain.Category;
 import com.rj.ecommerce_backend.product.search.CategorySpecifications;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 public record CategorySearchCriteria(
         String search,
         String name) {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
     public Specification<Category> toSpecification() {
         return Specification
                 .where(CategorySpecifications.withSearchCriteria(search))
                 .and(CategorySpecifications.withName(name));
     }
+
+    // Same conditions as toSpecification(), for categories already in memory. Names are compared case- and
+    // accent-insensitively, as the column's utf8mb4_0900_ai_ci collation does.
+    public boolean matches(CategoryResponseDTO category) {
+        String categoryName = fold(category.name());
+        if (name != null && !fold(name).equals(categoryName)) {
+            return false;
+        }
+        if (search == null || search.isBlank()) {
+            return true;
+        }
+        if (categoryName.contains(fold(search))) {
+            return true;
+        }
+        try {
+            return Long.valueOf(Long.parseLong(search)).equals(category.id());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        return COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
 }
@@ -2,6 +2,8 @@ package com.rj.ecommerce_backend.product.dtos;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.List;
+
 @Schema(
         description = "Data transfer object representing a product image with its metadata",
         title = "Product Image"
@@ -36,6 +38,12 @@ public record ImageDTO(
                 requiredMode = Schema.RequiredMode.REQUIRED,
                 allowableValues = {"image/jpeg", "image/png", "image/gif"}  // Common supported image formats
         )
-        String mimeType
+        String mimeType,
+
+        @Schema(
+                description = "Resized copies of the image, narrowest first; empty until they are generated",
+                accessMode = Schema.AccessMode.READ_ONLY
+        )
+        List<ImageVariantDTO> variants
 ) {
 }
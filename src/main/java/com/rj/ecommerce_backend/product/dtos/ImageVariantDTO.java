@@ -0,0 +1,16 @@
+package com.rj.ecommerce_backend.product.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(
+        description = "A resized copy of a product image",
+        title = "Product Image Variant"
+)
+public record ImageVariantDTO(
+        @Schema(description = "Width of the copy in pixels", example = "400")
+        int width,
+
+        @Schema(description = "File name of the copy, served like the original", example = "3f2a9c.jpg-w400.jpg")
+        String path
+) {
+}
@@ -0,0 +1,21 @@
+package com.rj.ecommerce_backend.product.dtos;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result counts next to a product listing. Category counts ignore the category filter and price buckets
+ * ignore the price filter, so each facet shows what selecting another value would return.
+ */
+public record ProductFacetsDTO(
+        long total,
+        List<CategoryCount> categories,
+        List<PriceBucket> priceBuckets
+) {
+    public record CategoryCount(Long categoryId, String name, long count) {
+    }
+
+    // from is inclusive and to exclusive; null marks an open end
+    public record PriceBucket(BigDecimal from, BigDecimal to, long count) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.rj.ecommerce_backend.product.dtos;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ProductImportStatusDTO(
+        String id,
+        String format,
+        String status,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        long rowsRead,
+        long imported,
+        long rejected,
+        List<String> errors
+) {
+}
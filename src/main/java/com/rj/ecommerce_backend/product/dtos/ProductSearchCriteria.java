@@ -5,6 +5,7 @@ import com.rj.ecommerce_backend.product.search.ProductSpecifications;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 import java.math.BigDecimal;
+import java.util.Collection;
 
 @Slf4j
 public record ProductSearchCriteria(
@@ -20,7 +21,24 @@ public record ProductSearchCriteria(
                 search, categoryId, minPrice, maxPrice, minStockQuantity, maxStockQuantity);
         return Specification
                 .where(ProductSpecifications.withSearchCriteria(search))
-                .and(ProductSpecifications.withCategory(categoryId))
+                .and(toFilterSpecification());
+    }
+
+    // Same filters, with the search term already resolved to matching product ids
+    public Specification<Product> toSpecification(Collection<Long> searchMatches) {
+        return Specification
+                .where(ProductSpecifications.withIdIn(searchMatches))
+                .and(toFilterSpecification());
+    }
+
+    public boolean hasFilters() {
+        return categoryId != null || minPrice != null || maxPrice != null
+                || minStockQuantity != null || maxStockQuantity != null;
+    }
+
+    private Specification<Product> toFilterSpecification() {
+        return Specification
+                .where(ProductSpecifications.withCategory(categoryId))
                 .and(ProductSpecifications.withPriceRange(minPrice, maxPrice))
                 .and(ProductSpecifications.withStockQuantityRange(minStockQuantity, maxStockQuantity));
     }
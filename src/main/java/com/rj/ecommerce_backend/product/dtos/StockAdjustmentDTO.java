@@ -0,0 +1,12 @@
+package com.rj.ecommerce_backend.product.dtos;
+
+/**
+ * One stock change for a product: either a {@code delta} added to the current stock, or an absolute
+ * {@code quantity} to set it to.
+ */
+public record StockAdjustmentDTO(
+        Long productId,
+        Integer delta,
+        Integer quantity
+) {
+}
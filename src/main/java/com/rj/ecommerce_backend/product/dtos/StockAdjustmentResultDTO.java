@@ -0,0 +1,24 @@
+package com.rj.ecommerce_backend.product.dtos;
+
+public record StockAdjustmentResultDTO(
+        Long productId,
+        Status status,
+        Integer quantity,
+        String message
+) {
+
+    public enum Status {
+        APPLIED,
+        NOT_FOUND,
+        INSUFFICIENT_STOCK,
+        INVALID
+    }
+
+    public static StockAdjustmentResultDTO applied(Long productId, int quantity) {
+        return new StockAdjustmentResultDTO(productId, Status.APPLIED, quantity, null);
+    }
+
+    public static StockAdjustmentResultDTO rejected(Long productId, Status status, String message) {
+        return new StockAdjustmentResultDTO(productId, status, null, message);
+    }
+}
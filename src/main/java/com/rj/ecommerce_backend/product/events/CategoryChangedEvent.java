@@ -0,0 +1,8 @@
+package com.rj.ecommerce_backend.product.events;
+
+/**
+ * Published when a category is created, renamed or deleted. Product views embed category names,
+ * so anything derived from products has to be refreshed as well.
+ */
+public record CategoryChangedEvent(Long categoryId) {
+}
@@ -0,0 +1,7 @@
+package com.rj.ecommerce_backend.product.events;
+
+/**
+ * Published when an {@code Image} row is deleted. The file it pointed to may still be shared by other rows.
+ */
+public record ImageReleasedEvent(String path) {
+}
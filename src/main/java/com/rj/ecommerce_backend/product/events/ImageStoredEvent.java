@@ -0,0 +1,7 @@
+package com.rj.ecommerce_backend.product.events;
+
+/**
+ * Published when an uploaded image file has been written to storage and its {@code Image} row saved.
+ */
+public record ImageStoredEvent(String path) {
+}
@@ -0,0 +1,32 @@
+package com.rj.ecommerce_backend.product.events;
+
+/**
+ * Published by the product service whenever a product row, its stock, categories or images change.
+ * Listeners that keep derived state should use {@code @TransactionalEventListener} so they only see
+ * committed changes.
+ */
+public record ProductChangedEvent(Long productId, Change change) {
+
+    public enum Change {
+        CREATED,
+        UPDATED,
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(Long productId) {
+        return new ProductChangedEvent(productId, Change.CREATED);
+    }
+
+    public static ProductChangedEvent updated(Long productId) {
+        return new ProductChangedEvent(productId, Change.UPDATED);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(productId, Change.STOCK_CHANGED);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, Change.DELETED);
+    }
+}
@@ -0,0 +1,10 @@
+package com.rj.ecommerce_backend.product.events;
+
+import java.util.List;
+
+/**
+ * Published once per committed bulk-import chunk instead of a {@link ProductChangedEvent} per product,
+ * so derived state can load the new products in batches.
+ */
+public record ProductsImportedEvent(List<Long> productIds) {
+}
@@ -0,0 +1,10 @@
+package com.rj.ecommerce_backend.product.events;
+
+import java.util.List;
+
+/**
+ * Published once per committed chunk of bulk stock adjustments instead of a {@link ProductChangedEvent}
+ * per product, so derived state can reload the changed products in batches.
+ */
+public record ProductsStockChangedEvent(List<Long> productIds) {
+}
@@ -0,0 +1,11 @@
+package com.rj.ecommerce_backend.product.exceptions;
+
+public class FacetsUnavailableException extends RuntimeException {
+    public FacetsUnavailableException() {
+        super("Product facets are not available yet");
+    }
+
+    public FacetsUnavailableException(String message) {
+        super(message);
+    }
+}
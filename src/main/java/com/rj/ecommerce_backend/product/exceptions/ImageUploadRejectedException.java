@@ -0,0 +1,13 @@
+package com.rj.ecommerce_backend.product.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class ImageUploadRejectedException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ImageUploadRejectedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
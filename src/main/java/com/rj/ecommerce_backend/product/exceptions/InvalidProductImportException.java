@@ -0,0 +1,11 @@
+package com.rj.ecommerce_backend.product.exceptions;
+
+public class InvalidProductImportException extends RuntimeException {
+    public InvalidProductImportException(String message) {
+        super(message);
+    }
+
+    public InvalidProductImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
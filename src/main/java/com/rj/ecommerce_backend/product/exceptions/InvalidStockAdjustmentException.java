@@ -0,0 +1,7 @@
+package com.rj.ecommerce_backend.product.exceptions;
+
+public class InvalidStockAdjustmentException extends RuntimeException {
+    public InvalidStockAdjustmentException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,180 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import com.rj.ecommerce_backend.product.exceptions.InvalidProductImportException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row naming the columns, in any order: {@code name}, {@code price} and
+ * {@code quantity} are required, {@code description}, {@code currencyCode} and {@code categories} are optional.
+ * Several categories go in one field separated by {@code |}. Quoted fields may contain commas, quotes and line breaks.
+ */
+public class CsvProductImportReader implements ProductImportReader {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "quantity");
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private Map<String, Integer> columns;
+    private long line = 1;
+    private boolean endOfInput;
+
+    public CsvProductImportReader(InputStream input, Charset charset) {
+        this.reader = new BufferedReader(new InputStreamReader(input, charset));
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        List<String> record;
+        long recordLine;
+        do {
+            recordLine = line;
+            record = readRecord();
+        } while (record != null && record.size() == 1 && record.get(0).isBlank());
+        if (record == null) {
+            return null;
+        }
+
+        return new ProductImportRow(
+                recordLine,
+                value(record, "name"),
+                value(record, "description"),
+                decimal(record, "price", recordLine),
+                value(record, "currencycode"),
+                integer(record, "quantity", recordLine),
+                categories(value(record, "categories")));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidProductImportException("The CSV import is empty; expected a header row");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidProductImportException("The CSV header is missing columns: " + missing);
+        }
+    }
+
+    // Returns null at the end of the input
+    private List<String> readRecord() throws IOException {
+        if (endOfInput) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean anyInput = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                endOfInput = true;
+                if (quoted) {
+                    throw new ProductImportRowException(line, "unterminated quoted field");
+                }
+                if (!anyInput) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            }
+            anyInput = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                line++;
+                record.add(field.toString());
+                return record;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private BigDecimal decimal(List<String> record, String column, long recordLine) {
+        String value = value(record, column);
+        try {
+            return value == null ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ProductImportRowException(recordLine, column + " is not a number");
+        }
+    }
+
+    private Integer integer(List<String> record, String column, long recordLine) {
+        String value = value(record, column);
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ProductImportRowException(recordLine, column + " is not a whole number");
+        }
+    }
+
+    private static List<String> categories(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split("\\|"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+    }
+}
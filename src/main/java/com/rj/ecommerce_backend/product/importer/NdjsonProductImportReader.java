@@ -0,0 +1,114 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One JSON object per line: {@code {"name": "...", "description": "...", "price": 19.99, "currencyCode": "USD",
+ * "quantity": 10, "categories": ["Audio"]}}. Blank lines are skipped.
+ */
+public class NdjsonProductImportReader implements ProductImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    public NdjsonProductImportReader(InputStream input, Charset charset, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, charset));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        if (text == null) {
+            return null;
+        }
+
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new ProductImportRowException(line, "malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new ProductImportRowException(line, "expected a JSON object");
+        }
+
+        return new ProductImportRow(
+                line,
+                text(node, "name"),
+                text(node, "description"),
+                decimal(node, "price"),
+                text(node, "currencyCode"),
+                integer(node, "quantity"),
+                categories(node));
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private BigDecimal decimal(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.isNumber()) {
+            return value.decimalValue();
+        }
+        try {
+            return new BigDecimal(value.asText().trim());
+        } catch (NumberFormatException e) {
+            throw new ProductImportRowException(line, field + " is not a number");
+        }
+    }
+
+    private Integer integer(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (value.canConvertToInt() && value.isIntegralNumber()) {
+            return value.intValue();
+        }
+        try {
+            return Integer.valueOf(value.asText().trim());
+        } catch (NumberFormatException e) {
+            throw new ProductImportRowException(line, field + " is not a whole number");
+        }
+    }
+
+    private List<String> categories(JsonNode node) {
+        JsonNode value = node.get("categories");
+        if (value == null || value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            throw new ProductImportRowException(line, "categories must be an array of names");
+        }
+        List<String> names = new ArrayList<>(value.size());
+        value.forEach(element -> names.add(element.asText()));
+        return names;
+    }
+}
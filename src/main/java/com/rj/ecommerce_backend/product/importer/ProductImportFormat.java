@@ -0,0 +1,37 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.product.exceptions.InvalidProductImportException;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public enum ProductImportFormat {
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+                return NDJSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+                return CSV;
+            }
+        }
+        throw new InvalidProductImportException(
+                "Unsupported import content type: " + contentType + ". Use " + NDJSON_MEDIA_TYPE + " or " + CSV_MEDIA_TYPE);
+    }
+
+    public ProductImportReader open(InputStream input, ObjectMapper objectMapper) {
+        return switch (this) {
+            case NDJSON -> new NdjsonProductImportReader(input, StandardCharsets.UTF_8, objectMapper);
+            case CSV -> new CsvProductImportReader(input, StandardCharsets.UTF_8);
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads products one at a time from a stream, so an import never holds more than the current chunk in memory.
+ */
+public interface ProductImportReader extends Closeable {
+
+    /**
+     * Returns the next row, or {@code null} at the end of the input.
+     *
+     * @throws ProductImportRowException if the row cannot be parsed; the reader is positioned after it
+     */
+    ProductImportRow next() throws IOException;
+}
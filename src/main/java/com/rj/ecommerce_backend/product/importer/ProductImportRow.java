@@ -0,0 +1,18 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One product as read from an import file. {@code line} is where the row starts, for error reporting.
+ */
+public record ProductImportRow(
+        long line,
+        String name,
+        String description,
+        BigDecimal price,
+        String currencyCode,
+        Integer quantity,
+        List<String> categories
+) {
+}
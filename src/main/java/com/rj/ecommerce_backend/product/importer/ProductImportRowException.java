@@ -0,0 +1,17 @@
+package com.rj.ecommerce_backend.product.importer;
+
+import lombok.Getter;
+
+/**
+ * A single row that cannot be imported. The import skips it and carries on with the next one.
+ */
+@Getter
+public class ProductImportRowException extends RuntimeException {
+
+    private final long line;
+
+    public ProductImportRowException(long line, String message) {
+        super("Line " + line + ": " + message);
+        this.line = line;
+    }
+}
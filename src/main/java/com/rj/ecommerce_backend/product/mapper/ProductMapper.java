@@ -5,9 +5,11 @@ import com.rj.ecommerce_backend.product.domain.Image;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ImageDTO;
+import com.rj.ecommerce_backend.product.dtos.ImageVariantDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.repository.CategoryRepository;
+import com.rj.ecommerce_backend.product.service.ImageVariants;
 import com.rj.ecommerce_backend.product.valueobject.*;
 import org.springframework.stereotype.Component;
 
@@ -116,7 +118,11 @@ public class ProductMapper {
                 image.getId(),
                 image.getPath(),
                 image.getAltText(),
-                image.getMimeType()
+                image.getMimeType(),
+                ImageVariants.parseWidths(image.getVariantWidths()).stream()
+                        .flatMap(width -> ImageVariants.fileName(image.getPath(), width).stream()
+                                .map(path -> new ImageVariantDTO(width, path)))
+                        .toList()
         );
     }
 
@@ -0,0 +1,19 @@
+package com.rj.ecommerce_backend.product.repository;
+
+import com.rj.ecommerce_backend.product.domain.CatalogVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CatalogVersion c WHERE c.id = :id")
+    Optional<CatalogVersion> findForUpdate(@Param("id") Integer id);
+}
@@ -2,8 +2,26 @@ package com.rj.ecommerce_backend.product.repository;
 
 import com.rj.ecommerce_backend.product.domain.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
+
+    @Query("SELECT i.mimeType FROM Image i WHERE i.path = :path")
+    List<String> findMimeTypesByPath(@Param("path") String path);
+
+    List<Image> findAllByPath(String path);
+
+    @Query("SELECT i.variantWidths FROM Image i WHERE i.path = :path AND i.variantWidths IS NOT NULL")
+    List<String> findVariantWidthsByPath(@Param("path") String path);
+
+    long countByPath(String path);
+
+    @Query("SELECT DISTINCT i.path FROM Image i WHERE i.path IN :paths")
+    List<String> findExistingPaths(@Param("paths") Collection<String> paths);
 }
@@ -0,0 +1,163 @@
+package com.rj.ecommerce_backend.product.repository;
+
+import com.rj.ecommerce_backend.product.importer.ProductImportRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes products with plain JDBC batches. Product ids are {@code IDENTITY} columns, which stop Hibernate from
+ * batching inserts; here each batch is one statement execution and its generated ids come back together,
+ * so ids cost one round trip per batch instead of one per product. Stock updates are batched the same way
+ * instead of loading and dirty-checking every entity.
+ * <p>
+ * With MySQL, set {@code rewriteBatchedStatements=true} on the connection so a batch is sent as a multi-row insert.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Built once on first use; published in a single write so no caller sees half of it
+    private volatile Statements statements;
+
+    /**
+     * Inserts the rows, which must already be validated, and links them to the given categories.
+     * Must run inside a transaction. Returns the new product ids in row order.
+     */
+    public List<Long> insertAll(List<ProductImportRow> rows, Map<String, Long> categoryIdsByName,
+                                String defaultCurrencyCode, LocalDateTime now) {
+        Statements statements = statements();
+        Timestamp timestamp = Timestamp.valueOf(now);
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(statements.insertProduct(), Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ProductImportRow row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setString(2, row.description());
+                        ps.setBigDecimal(3, row.price());
+                        ps.setString(4, row.currencyCode() != null ? row.currencyCode() : defaultCurrencyCode);
+                        ps.setInt(5, row.quantity());
+                        ps.setTimestamp(6, timestamp);
+                        ps.setTimestamp(7, timestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+        if (ids.size() != rows.size()) {
+            throw new DataRetrievalFailureException(
+                    "Expected " + rows.size() + " generated product ids but the driver returned " + ids.size());
+        }
+
+        List<long[]> links = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            for (String category : rows.get(i).categories()) {
+                links.add(new long[]{ids.get(i), categoryIdsByName.get(category)});
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(statements.insertCategoryLink(), links, links.size(), (ps, link) -> {
+                ps.setLong(1, link[0]);
+                ps.setLong(2, link[1]);
+            });
+        }
+        return ids;
+    }
+
+    /**
+     * Locks the given products and returns their current stock by id; missing products are left out.
+     * Must run inside a transaction, which holds the locks until it ends. Rows are locked in id order,
+     * so two overlapping adjustments wait for each other instead of deadlocking.
+     */
+    public Map<Long, Integer> lockQuantities(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        String quote = statements().quote();
+        String sql = "SELECT " + quoted(quote, "id") + ", " + quoted(quote, "quantity")
+                + " FROM " + quoted(quote, "product")
+                + " WHERE " + quoted(quote, "id") + " IN (" + String.join(", ", Collections.nCopies(productIds.size(), "?"))
+                + ") ORDER BY " + quoted(quote, "id") + " FOR UPDATE";
+        Map<Long, Integer> quantities = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            quantities.put(rs.getLong(1), rs.getInt(2));
+        }, productIds.toArray());
+        return quantities;
+    }
+
+    /**
+     * Sets the stock of each product in one batch. Must run inside the transaction that locked the rows.
+     */
+    public void updateQuantities(Map<Long, Integer> quantitiesById, LocalDateTime now) {
+        if (quantitiesById.isEmpty()) {
+            return;
+        }
+        String updateQuantitySql = statements().updateQuantity();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Map.Entry<Long, Integer>> updates = List.copyOf(quantitiesById.entrySet());
+        jdbcTemplate.batchUpdate(updateQuantitySql, updates, updates.size(), (ps, update) -> {
+            ps.setInt(1, update.getValue());
+            ps.setTimestamp(2, timestamp);
+            ps.setLong(3, update.getKey());
+        });
+    }
+
+    // Identifiers are quoted because the price column is named "value", a keyword in some databases
+    private Statements statements() {
+        Statements prepared = statements;
+        if (prepared != null) {
+            return prepared;
+        }
+        String quote = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getIdentifierQuoteString().trim());
+        prepared = new Statements(
+                quote,
+                "INSERT INTO " + quoted(quote, "product") + " ("
+                        + String.join(", ", quoted(quote, "name"), quoted(quote, "description"),
+                        quoted(quote, "value"), quoted(quote, "code"), quoted(quote, "quantity"),
+                        quoted(quote, "created_at"), quoted(quote, "updated_at"))
+                        + ") VALUES (?, ?, ?, ?, ?, ?, ?)",
+                "INSERT INTO " + quoted(quote, "product_category") + " ("
+                        + quoted(quote, "product_id") + ", " + quoted(quote, "category_id") + ") VALUES (?, ?)",
+                "UPDATE " + quoted(quote, "product") + " SET " + quoted(quote, "quantity") + " = ?, "
+                        + quoted(quote, "updated_at") + " = ? WHERE " + quoted(quote, "id") + " = ?");
+        statements = prepared;
+        return prepared;
+    }
+
+    private static String quoted(String quote, String identifier) {
+        return quote + identifier + quote;
+    }
+
+    private record Statements(String quote, String insertProduct, String insertCategoryLink, String updateQuantity) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.rj.ecommerce_backend.product.repository;
 
 import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.search.ProductCategoryLink;
+import com.rj.ecommerce_backend.product.search.ProductFacetRow;
+import com.rj.ecommerce_backend.product.search.ProductSearchRow;
 import com.rj.ecommerce_backend.product.valueobject.StockQuantity;
 import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
@@ -12,6 +15,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,17 +26,62 @@ public interface ProductRepository extends
         JpaSpecificationExecutor<Product>
 {
 
-    @Query("SELECT p FROM Product p WHERE p.productName.value LIKE %:name%")
-    List<Product> findProductsByNameLike(@Param("name") String name);
     Page<Product> findByCategories_Id(Long categoryId, Pageable pageable);
 
     Page<Product> findByProductNameValueContainingIgnoreCase(String productName, Pageable pageable);
 
     Optional<Product> findById(Long id);
 
+    // Batch-fetch the lazy collections of a page of products already loaded into the persistence context.
+    // Each bag is fetched by its own query to avoid a categories x images cartesian product.
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.categories WHERE p.id IN :ids")
+    List<Product> findWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.imageList WHERE p.id IN :ids")
+    List<Product> findWithImagesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductSearchRow(" +
+            "p.id, p.productName.value) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductSearchRow(" +
+            "p.id, p.productName.value) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductSearchRow> findSearchRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductSearchRow(" +
+            "p.id, p.productName.value) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductSearchRow> findSearchRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductFacetRow(" +
+            "p.id, p.productPrice.amount.value, p.stockQuantity.value) " +
+            "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductFacetRow> findFacetRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductFacetRow(" +
+            "p.id, p.productPrice.amount.value, p.stockQuantity.value) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductFacetRow> findFacetRowById(@Param("id") Long id);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductFacetRow(" +
+            "p.id, p.productPrice.amount.value, p.stockQuantity.value) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductFacetRow> findFacetRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.rj.ecommerce_backend.product.search.ProductCategoryLink(p.id, c.id, c.name) " +
+            "FROM Product p JOIN p.categories c WHERE p.id IN :ids")
+    List<ProductCategoryLink> findCategoryLinks(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.updatedAt FROM Product p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Bulk updates bypass @UpdateTimestamp, so the caller supplies the modification time
     @Modifying
     @Transactional
-    @Query("UPDATE Product p SET p.stockQuantity = :newStockQuantity WHERE p.id = :productId")
+    @Query("UPDATE Product p SET p.stockQuantity = :newStockQuantity, p.updatedAt = :updatedAt WHERE p.id = :productId")
     void updateProductQuantity(@Param("productId") Long productId,
-                               @Param("newStockQuantity") StockQuantity newStockQuantity); // Pass the entire object
+                               @Param("newStockQuantity") StockQuantity newStockQuantity, // Pass the entire object
+                               @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,519 @@
+package com.rj.ecommerce_backend.product.search;
+
+import com.rj.ecommerce_backend.product.ProductFacetProperties;
+import com.rj.ecommerce_backend.product.domain.Category;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsImportedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import com.rj.ecommerce_backend.product.repository.CategoryRepository;
+import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar in-memory snapshot of the catalog for facet counts.
+ * <p>
+ * Every product gets an ordinal. Price (in cents) and stock live in primitive arrays indexed by ordinal,
+ * and each category keeps a {@link BitSet} of the ordinals of its products. One pass over the live
+ * ordinals applies the {@link ProductSearchCriteria} filters and collects the total, the price buckets and
+ * the set that category counts are taken from; category counts are then bitset intersections.
+ * <p>
+ * The same snapshot resolves listing filters to product ids without the database: price and stock ranges
+ * are binary searches in {@link SortedRangeIndex}es, intersected with the category bitset and the ids the
+ * search term matched.
+ * <p>
+ * Like {@link ProductSearchIndex}, the snapshot is built once the application is ready, follows
+ * committed {@link ProductChangedEvent}s and {@link CategoryChangedEvent}s, and is rebuilt every
+ * {@code rebuildIntervalMs} to pick up changes committed on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetIndex {
+
+    private static final String SNAPSHOT = "product-facets";
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProductFacetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ProductCatalogVersion catalogVersion;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final Map<Long, BitSet> productsByCategory = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final RebuildChanges changesDuringRebuild = new RebuildChanges();
+    private final SortedRangeIndex priceIndex = new SortedRangeIndex();
+    private final SortedRangeIndex stockIndex = new SortedRangeIndex();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private int[] stock = new int[INITIAL_CAPACITY];
+    // Categories each ordinal is set in, so moving a product touches its own bitsets and no others
+    private long[][] categoryIds = new long[INITIAL_CAPACITY][];
+
+    private volatile boolean ready;
+    private long[] bucketBoundsCents;
+    private Timer facetLatency;
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            catalogVersion.register(SNAPSHOT);
+        }
+        bucketBoundsCents = properties.getPriceBucketBounds().stream()
+                .mapToLong(bound -> toCents(bound, RoundingMode.CEILING))
+                .sorted()
+                .distinct()
+                .toArray();
+        facetLatency = Timer.builder("product.facets.latency")
+                .description("Time to filter the catalog snapshot and count its facets")
+                .register(meterRegistry);
+        Gauge.builder("product.facets.index.products", this, ProductFacetIndex::size)
+                .description("Products held in the in-memory facet snapshot")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    // Events only reach this node's snapshot; a periodic rebuild picks up what other nodes changed
+    @Scheduled(initialDelayString = "${product-facets.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product-facets.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding product facet snapshot", e);
+        }
+    }
+
+    private synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Every change up to this version has committed, so the scan below sees it
+        long version = catalogVersion.current();
+        Set<Long> seen = new HashSet<>();
+        changesDuringRebuild.start();
+        try {
+            long afterId = 0;
+            List<ProductFacetRow> batch;
+            do {
+                batch = productRepository.findFacetRowsAfter(afterId,
+                        PageRequest.of(0, properties.getBuildBatchSize()));
+                if (!batch.isEmpty()) {
+                    List<Long> batchIds = batch.stream().map(ProductFacetRow::id).toList();
+                    upsert(batch, productRepository.findCategoryLinks(batchIds));
+                    seen.addAll(batchIds);
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == properties.getBuildBatchSize());
+
+            // Products the scan did not see were deleted elsewhere, or created here after the scan passed them
+            Set<Long> unseen;
+            lock.readLock().lock();
+            try {
+                unseen = new HashSet<>(ordinalsById.keySet());
+            } finally {
+                lock.readLock().unlock();
+            }
+            unseen.removeAll(seen);
+            refresh(unseen);
+            for (Set<Long> changed = changesDuringRebuild.drain(); !changed.isEmpty();
+                 changed = changesDuringRebuild.drain()) {
+                refresh(changed);
+            }
+        } finally {
+            changesDuringRebuild.stop();
+        }
+
+        if (ready) {
+            catalogVersion.synced(SNAPSHOT, version);
+            log.info("Product facet snapshot rebuilt with {} products in {} ms",
+                    size(), System.currentTimeMillis() - started);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            int[] liveOrdinals = live.stream().toArray();
+            priceIndex.load(live.stream().filter(ordinal -> priceCents[ordinal] != NO_PRICE).toArray(), priceCents);
+            long[] stockKeys = new long[stock.length];
+            for (int ordinal : liveOrdinals) {
+                stockKeys[ordinal] = stock[ordinal];
+            }
+            stockIndex.load(liveOrdinals, stockKeys);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catalogVersion.synced(SNAPSHOT, version);
+        log.info("Product facet snapshot built with {} products and {} categories in {} ms",
+                size(), productsByCategory.size(), System.currentTimeMillis() - started);
+    }
+
+    // Reads the products again and drops those that no longer exist
+    private void refresh(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<ProductFacetRow> rows = productRepository.findFacetRowsByIdIn(productIds);
+        upsert(rows, productRepository.findCategoryLinks(productIds));
+        Set<Long> missing = new HashSet<>(productIds);
+        rows.forEach(row -> missing.remove(row.id()));
+        missing.forEach(this::remove);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changesDuringRebuild.record(event.productId());
+        if (event.change() == ProductChangedEvent.Change.DELETED) {
+            remove(event.productId());
+            return;
+        }
+        Optional<ProductFacetRow> row = productRepository.findFacetRowById(event.productId());
+        if (row.isEmpty()) {
+            remove(event.productId());
+            return;
+        }
+        upsert(List.of(row.get()), productRepository.findCategoryLinks(List.of(event.productId())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        changesDuringRebuild.record(event.productIds());
+        upsert(productRepository.findFacetRowsByIdIn(event.productIds()),
+                productRepository.findCategoryLinks(event.productIds()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsStockChanged(ProductsStockChangedEvent event) {
+        changesDuringRebuild.record(event.productIds());
+        upsert(productRepository.findFacetRowsByIdIn(event.productIds()),
+                productRepository.findCategoryLinks(event.productIds()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Optional<Category> category = categoryRepository.findById(event.categoryId());
+        lock.writeLock().lock();
+        try {
+            if (category.isPresent()) {
+                categoryNames.computeIfPresent(event.categoryId(), (id, name) -> category.get().getName());
+            } else {
+                productsByCategory.remove(event.categoryId());
+                categoryNames.remove(event.categoryId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the products matching {@code criteria} and its facets. {@code searchMatches} holds the ids
+     * the search term resolved to, or {@code null} when there is no search term. An empty optional means
+     * the snapshot is not built yet.
+     */
+    public Optional<ProductFacetsDTO> facets(ProductSearchCriteria criteria, Collection<Long> searchMatches) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        return Optional.of(facetLatency.record(() -> count(criteria, searchMatches)));
+    }
+
+    /**
+     * Returns the ids of products matching the filters of {@code criteria}, in the order of {@code searchMatches}
+     * when given and by ascending id otherwise. An empty optional means the snapshot is not built yet.
+     */
+    public Optional<List<Long>> filter(ProductSearchCriteria criteria, List<Long> searchMatches) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet matches = searchMatches == null ? (BitSet) live.clone() : ordinalsOf(searchMatches);
+            if (criteria.categoryId() != null) {
+                matches.and(categoryBits(criteria.categoryId()));
+            }
+            if (criteria.minPrice() != null || criteria.maxPrice() != null) {
+                matches.and(priceIndex.between(
+                        criteria.minPrice() == null ? Long.MIN_VALUE : toCents(criteria.minPrice(), RoundingMode.FLOOR),
+                        criteria.maxPrice() == null ? Long.MAX_VALUE : toCents(criteria.maxPrice(), RoundingMode.CEILING)));
+            }
+            if (criteria.minStockQuantity() != null || criteria.maxStockQuantity() != null) {
+                matches.and(stockIndex.between(
+                        criteria.minStockQuantity() == null ? Integer.MIN_VALUE : criteria.minStockQuantity(),
+                        criteria.maxStockQuantity() == null ? Integer.MAX_VALUE : criteria.maxStockQuantity()));
+            }
+
+            if (searchMatches != null) {
+                return Optional.of(searchMatches.stream()
+                        .filter(id -> {
+                            Integer ordinal = ordinalsById.get(id);
+                            return ordinal != null && matches.get(ordinal);
+                        })
+                        .toList());
+            }
+            long[] matchingIds = matches.stream().mapToLong(ordinal -> ids[ordinal]).sorted().toArray();
+            return Optional.of(Arrays.stream(matchingIds).boxed().toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(List<ProductFacetRow> rows, List<ProductCategoryLink> links) {
+        Map<Long, List<ProductCategoryLink>> linksByProduct = new HashMap<>();
+        links.forEach(link -> linksByProduct.computeIfAbsent(link.productId(), id -> new ArrayList<>()).add(link));
+
+        lock.writeLock().lock();
+        try {
+            for (ProductFacetRow row : rows) {
+                long price = row.price() == null ? NO_PRICE : toCents(row.price(), RoundingMode.HALF_UP);
+                int stockQuantity = row.stockQuantity() == null ? 0 : row.stockQuantity();
+                Integer existing = ordinalsById.get(row.id());
+                int ordinal;
+                // Only a product whose price or stock changed moves in the range indexes, so a periodic
+                // rebuild that finds most of the catalog unchanged does not shift their arrays for each one
+                boolean moved;
+                if (existing != null) {
+                    ordinal = existing;
+                    moved = priceCents[ordinal] != price || stock[ordinal] != stockQuantity;
+                    if (moved) {
+                        removeFromRangeIndexes(ordinal);
+                    }
+                    clearCategories(ordinal);
+                } else {
+                    ordinal = allocateOrdinal();
+                    ordinalsById.put(row.id(), ordinal);
+                    moved = true;
+                }
+                ids[ordinal] = row.id();
+                priceCents[ordinal] = price;
+                stock[ordinal] = stockQuantity;
+                if (moved) {
+                    addToRangeIndexes(ordinal);
+                }
+                List<ProductCategoryLink> productLinks = linksByProduct.getOrDefault(row.id(), List.of());
+                long[] productCategories = new long[productLinks.size()];
+                for (int i = 0; i < productLinks.size(); i++) {
+                    ProductCategoryLink link = productLinks.get(i);
+                    productsByCategory.computeIfAbsent(link.categoryId(), id -> new BitSet()).set(ordinal);
+                    categoryNames.put(link.categoryId(), link.categoryName());
+                    productCategories[i] = link.categoryId();
+                }
+                categoryIds[ordinal] = productCategories;
+                live.set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalsById.remove(productId);
+            if (ordinal != null) {
+                clearCategories(ordinal);
+                removeFromRangeIndexes(ordinal);
+                live.clear(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ProductFacetsDTO count(ProductSearchCriteria criteria, Collection<Long> searchMatches) {
+        long minPrice = criteria.minPrice() == null ? Long.MIN_VALUE : toCents(criteria.minPrice(), RoundingMode.FLOOR);
+        long maxPrice = criteria.maxPrice() == null ? Long.MAX_VALUE : toCents(criteria.maxPrice(), RoundingMode.CEILING);
+        boolean priceFiltered = criteria.minPrice() != null || criteria.maxPrice() != null;
+        int minStock = criteria.minStockQuantity() == null ? Integer.MIN_VALUE : criteria.minStockQuantity();
+        int maxStock = criteria.maxStockQuantity() == null ? Integer.MAX_VALUE : criteria.maxStockQuantity();
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = searchMatches == null ? (BitSet) live.clone() : ordinalsOf(searchMatches);
+            BitSet categoryFilter = criteria.categoryId() == null ? null : categoryBits(criteria.categoryId());
+
+            long total = 0;
+            long[] bucketCounts = new long[bucketBoundsCents.length + 1];
+            BitSet countedForCategories = new BitSet(candidates.length());
+
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                long price = priceCents[ordinal];
+                boolean stockMatches = stock[ordinal] >= minStock && stock[ordinal] <= maxStock;
+                boolean priceMatches = !priceFiltered || (price != NO_PRICE && price >= minPrice && price <= maxPrice);
+                boolean categoryMatches = categoryFilter == null || categoryFilter.get(ordinal);
+
+                if (stockMatches && categoryMatches && price != NO_PRICE) {
+                    bucketCounts[bucketOf(price)]++;
+                }
+                if (stockMatches && priceMatches) {
+                    countedForCategories.set(ordinal);
+                    if (categoryMatches) {
+                        total++;
+                    }
+                }
+            }
+
+            return new ProductFacetsDTO(total, categoryCounts(countedForCategories), priceBuckets(bucketCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ProductFacetsDTO.CategoryCount> categoryCounts(BitSet countedForCategories) {
+        List<ProductFacetsDTO.CategoryCount> counts = new ArrayList<>();
+        BitSet scratch = new BitSet(countedForCategories.length());
+        productsByCategory.forEach((categoryId, members) -> {
+            scratch.clear();
+            scratch.or(members);
+            scratch.and(countedForCategories);
+            int count = scratch.cardinality();
+            if (count > 0) {
+                counts.add(new ProductFacetsDTO.CategoryCount(categoryId, categoryNames.get(categoryId), count));
+            }
+        });
+        counts.sort(Comparator.comparingLong(ProductFacetsDTO.CategoryCount::count).reversed()
+                .thenComparing(ProductFacetsDTO.CategoryCount::categoryId));
+        return counts;
+    }
+
+    private List<ProductFacetsDTO.PriceBucket> priceBuckets(long[] bucketCounts) {
+        List<ProductFacetsDTO.PriceBucket> buckets = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            BigDecimal from = i == 0 ? BigDecimal.ZERO.setScale(2) : fromCents(bucketBoundsCents[i - 1]);
+            BigDecimal to = i == bucketBoundsCents.length ? null : fromCents(bucketBoundsCents[i]);
+            buckets.add(new ProductFacetsDTO.PriceBucket(from, to, bucketCounts[i]));
+        }
+        return buckets;
+    }
+
+    private int bucketOf(long price) {
+        int position = Arrays.binarySearch(bucketBoundsCents, price);
+        return position >= 0 ? position + 1 : -(position + 1);
+    }
+
+    private BitSet ordinalsOf(Collection<Long> productIds) {
+        BitSet ordinals = new BitSet();
+        for (Long productId : productIds) {
+            Integer ordinal = ordinalsById.get(productId);
+            if (ordinal != null) {
+                ordinals.set(ordinal);
+            }
+        }
+        return ordinals;
+    }
+
+    private BitSet categoryBits(String categoryId) {
+        try {
+            return productsByCategory.getOrDefault(Long.valueOf(categoryId.trim()), new BitSet());
+        } catch (NumberFormatException e) {
+            return new BitSet();
+        }
+    }
+
+    // While the snapshot is being built the range indexes are left alone and loaded in one go at the end
+    private void addToRangeIndexes(int ordinal) {
+        if (ready) {
+            if (priceCents[ordinal] != NO_PRICE) {
+                priceIndex.add(priceCents[ordinal], ordinal);
+            }
+            stockIndex.add(stock[ordinal], ordinal);
+        }
+    }
+
+    private void removeFromRangeIndexes(int ordinal) {
+        if (ready) {
+            if (priceCents[ordinal] != NO_PRICE) {
+                priceIndex.remove(priceCents[ordinal], ordinal);
+            }
+            stockIndex.remove(stock[ordinal], ordinal);
+        }
+    }
+
+    private void clearCategories(int ordinal) {
+        if (categoryIds[ordinal] == null) {
+            return;
+        }
+        for (long categoryId : categoryIds[ordinal]) {
+            BitSet members = productsByCategory.get(categoryId);
+            if (members != null) {
+                members.clear(ordinal);
+            }
+        }
+        categoryIds[ordinal] = null;
+    }
+
+    // Reuses the slot of a removed product before growing the columns
+    private int allocateOrdinal() {
+        int ordinal = live.nextClearBit(0);
+        if (ordinal >= stock.length) {
+            int capacity = Math.max(ordinal + 1, stock.length + (stock.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            stock = Arrays.copyOf(stock, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+        }
+        return ordinal;
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+}
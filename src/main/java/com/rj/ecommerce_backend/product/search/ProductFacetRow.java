@@ -0,0 +1,6 @@
+package com.rj.ecommerce_backend.product.search;
+
+import java.math.BigDecimal;
+
+public record ProductFacetRow(Long id, BigDecimal price, Integer stockQuantity) {
+}
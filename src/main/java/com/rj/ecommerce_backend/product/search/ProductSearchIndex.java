@@ -0,0 +1,444 @@
+package com.rj.ecommerce_backend.product.search;
+
+import com.rj.ecommerce_backend.product.ProductSearchProperties;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsImportedEvent;
+import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over product names, answering the same substring question as
+ * {@code lower(name) LIKE '%term%'} without scanning the product table. Descriptions are not indexed, since no
+ * listing searches them.
+ * <p>
+ * Text is case- and accent-folded, as the database collation does, and split into alphanumeric tokens. Every
+ * three-character window of every token maps to a sorted {@code long[]} posting list of product ids. A query
+ * intersects the posting lists of its own trigrams, confirms each candidate against the folded text, punctuation
+ * and spacing included, and ranks exact and prefix matches above word and substring matches.
+ * <p>
+ * The index is built once the application is ready and follows committed {@link ProductChangedEvent}s. It is
+ * rebuilt every {@code rebuildIntervalMs} to pick up changes committed on other nodes.
+ * Until it is built, or when a query has no token of at least {@value #GRAM_LENGTH} characters,
+ * {@link #search} returns empty and callers fall back to the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final String SNAPSHOT = "product-search";
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final int EXACT_NAME = 40;
+    private static final int NAME_PREFIX = 30;
+    private static final int NAME_WORD = 20;
+    private static final int NAME_SUBSTRING = 10;
+
+    private final ProductRepository productRepository;
+    private final ProductSearchProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ProductCatalogVersion catalogVersion;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, IndexedProduct> products = new HashMap<>();
+    private final RebuildChanges changesDuringRebuild = new RebuildChanges();
+
+    private volatile boolean ready;
+    private Timer searchLatency;
+
+    @PostConstruct
+    public void init() {
+        if (properties.isEnabled()) {
+            catalogVersion.register(SNAPSHOT);
+        }
+        searchLatency = Timer.builder("product.search.latency")
+                .description("Time to resolve a search term to ranked product ids")
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.products", this, ProductSearchIndex::size)
+                .description("Products held in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    // Events only reach this node's index; a periodic rebuild picks up what other nodes changed
+    @Scheduled(initialDelayString = "${product-search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${product-search.rebuild-interval-ms:600000}")
+    public void scheduledRebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding product search index", e);
+        }
+    }
+
+    private synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        // Every change up to this version has committed, so the scan below sees it
+        long version = catalogVersion.current();
+        Set<Long> seen = new HashSet<>();
+        changesDuringRebuild.start();
+        try {
+            long afterId = 0;
+            List<ProductSearchRow> batch;
+            do {
+                batch = productRepository.findSearchRowsAfter(afterId,
+                        PageRequest.of(0, properties.getBuildBatchSize()));
+                lock.writeLock().lock();
+                try {
+                    batch.forEach(this::indexLocked);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                batch.forEach(row -> seen.add(row.id()));
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).id();
+                }
+            } while (batch.size() == properties.getBuildBatchSize());
+
+            // Products the scan did not see were deleted elsewhere, or created here after the scan passed them
+            Set<Long> unseen;
+            lock.readLock().lock();
+            try {
+                unseen = new HashSet<>(products.keySet());
+            } finally {
+                lock.readLock().unlock();
+            }
+            unseen.removeAll(seen);
+            refresh(unseen);
+            for (Set<Long> changed = changesDuringRebuild.drain(); !changed.isEmpty();
+                 changed = changesDuringRebuild.drain()) {
+                refresh(changed);
+            }
+        } finally {
+            changesDuringRebuild.stop();
+        }
+
+        boolean rebuilt = ready;
+        ready = true;
+        catalogVersion.synced(SNAPSHOT, version);
+        log.info("Product search index {} with {} products and {} trigrams in {} ms", rebuilt ? "rebuilt" : "built",
+                size(), postings.size(), System.currentTimeMillis() - started);
+    }
+
+    // Reads the products again and drops those that no longer exist
+    private void refresh(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        List<ProductSearchRow> rows = productRepository.findSearchRowsByIdIn(productIds);
+        lock.writeLock().lock();
+        try {
+            Set<Long> missing = new HashSet<>(productIds);
+            for (ProductSearchRow row : rows) {
+                indexLocked(row);
+                missing.remove(row.id());
+            }
+            missing.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        changesDuringRebuild.record(event.productId());
+        switch (event.change()) {
+            case CREATED, UPDATED -> productRepository.findSearchRowById(event.productId())
+                    .ifPresentOrElse(this::index, () -> remove(event.productId()));
+            case DELETED -> remove(event.productId());
+            case STOCK_CHANGED -> {
+                // Stock is not searchable
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        changesDuringRebuild.record(event.productIds());
+        List<ProductSearchRow> rows = productRepository.findSearchRowsByIdIn(event.productIds());
+        lock.writeLock().lock();
+        try {
+            rows.forEach(this::indexLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The index answer to {@link ProductSpecifications#withSearchCriteria}: products whose name contains the
+     * query, preceded by the product whose id it is when the query is a number. Empty as for {@link #search}.
+     */
+    public Optional<List<Long>> searchNameOrId(String query) {
+        Optional<List<Long>> matches = search(query);
+        Long id = parseId(query);
+        if (matches.isEmpty() || id == null) {
+            return matches;
+        }
+        lock.readLock().lock();
+        try {
+            if (!products.containsKey(id)) {
+                return matches;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> withId = new ArrayList<>(matches.get().size() + 1);
+        withId.add(id);
+        matches.get().stream().filter(match -> !match.equals(id)).forEach(withId::add);
+        return Optional.of(withId);
+    }
+
+    /**
+     * Returns ids of products whose name contains the query, best match first.
+     * An empty optional means the index cannot answer and the caller should query the database instead.
+     */
+    public Optional<List<Long>> search(String query) {
+        if (!ready || query == null) {
+            return Optional.empty();
+        }
+        String phrase = fold(query);
+        long[] grams = gramsOf(normalize(phrase));
+        if (grams.length == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(searchLatency.record(() -> rankedMatches(phrase, grams)));
+    }
+
+    public void index(ProductSearchRow row) {
+        lock.writeLock().lock();
+        try {
+            indexLocked(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Long> rankedMatches(String phrase, long[] grams) {
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[grams.length];
+            for (int i = 0; i < grams.length; i++) {
+                lists[i] = postings.get(grams[i]);
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+            List<ScoredId> matches = new ArrayList<>();
+            PostingList smallest = lists[0];
+            candidates:
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                for (int j = 1; j < lists.length; j++) {
+                    if (!lists[j].contains(id)) {
+                        continue candidates;
+                    }
+                }
+                int score = score(products.get(id).name(), phrase);
+                if (score > 0) {
+                    matches.add(new ScoredId(id, score));
+                }
+            }
+
+            matches.sort(Comparator.comparingInt(ScoredId::score).reversed().thenComparingLong(ScoredId::id));
+            return matches.stream().map(ScoredId::id).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int score(String name, String phrase) {
+        if (name.equals(phrase)) {
+            return EXACT_NAME;
+        } else if (name.startsWith(phrase)) {
+            return NAME_PREFIX;
+        } else if (name.contains(" " + phrase)) {
+            return NAME_WORD;
+        } else if (name.contains(phrase)) {
+            return NAME_SUBSTRING;
+        }
+        return 0;
+    }
+
+    private void indexLocked(ProductSearchRow row) {
+        removeLocked(row.id());
+        String name = fold(row.name());
+        long[] grams = gramsOf(normalize(name));
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(row.id());
+        }
+        products.put(row.id(), new IndexedProduct(name, grams));
+    }
+
+    private void removeLocked(Long productId) {
+        IndexedProduct previous = products.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (long gram : previous.grams()) {
+            PostingList list = postings.get(gram);
+            if (list != null && list.remove(productId) && list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    // Case and accents only; candidates are confirmed against this form, so "t-shirt" does not find "T Shirt"
+    static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        return COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    // Folded text as space-separated alphanumeric tokens, the form trigrams are taken from
+    static String normalize(String folded) {
+        StringBuilder normalized = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            } else if (!normalized.isEmpty() && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int length = normalized.length();
+        return length > 0 && normalized.charAt(length - 1) == ' '
+                ? normalized.substring(0, length - 1)
+                : normalized.toString();
+    }
+
+    static long[] gramsOf(String normalized) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (String token : normalized.split(" ")) {
+            for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+                grams.add(((long) token.charAt(i) << 32) | ((long) token.charAt(i + 1) << 16) | token.charAt(i + 2));
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static Long parseId(String query) {
+        try {
+            return Long.parseLong(query);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record IndexedProduct(String name, long[] grams) {
+    }
+
+    private record ScoredId(long id, int score) {
+    }
+
+    /**
+     * Sorted, duplicate-free product ids. Ids mostly arrive in ascending order, so appends are the common case.
+     */
+    static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long get(int index) {
+            return ids[index];
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        void add(long id) {
+            int position = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -(position + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
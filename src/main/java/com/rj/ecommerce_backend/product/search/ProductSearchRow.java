@@ -0,0 +1,4 @@
+package com.rj.ecommerce_backend.product.search;
+
+public record ProductSearchRow(Long id, String name) {
+}
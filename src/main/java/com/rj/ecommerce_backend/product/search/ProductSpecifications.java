@@ -16,6 +16,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Collection;
 
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -44,6 +45,10 @@ public class ProductSpecifications {
         };
     }
 
+    public static Specification<Product> withIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
     public static Specification<Product> withCategory(String categoryId) {
         return (root, query, cb) -> {
             if (categoryId == null) {
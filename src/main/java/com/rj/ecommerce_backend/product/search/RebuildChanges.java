@@ -0,0 +1,47 @@
+package com.rj.ecommerce_backend.product.search;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Ids of products changed while an in-memory index is rebuilt from the database.
+ * <p>
+ * A batch read before such a change may be written into the index after the change was applied, which would
+ * bring a deleted or outdated row back. The rebuild therefore reads these products again once it has passed
+ * them, until no more changes arrive.
+ */
+final class RebuildChanges {
+
+    // Null while no rebuild runs
+    private Set<Long> changed;
+
+    synchronized void start() {
+        changed = new HashSet<>();
+    }
+
+    synchronized void record(Long productId) {
+        if (changed != null) {
+            changed.add(productId);
+        }
+    }
+
+    synchronized void record(Collection<Long> productIds) {
+        if (changed != null) {
+            changed.addAll(productIds);
+        }
+    }
+
+    /**
+     * Takes the ids recorded so far. Once there are none, recording stops and the rebuild is done.
+     */
+    synchronized Set<Long> drain() {
+        Set<Long> drained = changed == null ? Set.of() : changed;
+        changed = drained.isEmpty() ? null : new HashSet<>();
+        return drained;
+    }
+
+    synchronized void stop() {
+        changed = null;
+    }
+}
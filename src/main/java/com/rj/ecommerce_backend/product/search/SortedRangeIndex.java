@@ -0,0 +1,106 @@
+package com.rj.ecommerce_backend.product.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Snapshot ordinals sorted by a numeric key, as two parallel primitive arrays. A range predicate becomes two
+ * binary searches and a contiguous run of ordinals. Entries with equal keys are ordered by ordinal, so
+ * every entry has exactly one position and can be removed without a scan.
+ */
+final class SortedRangeIndex {
+
+    private long[] keys = new long[0];
+    private int[] ordinals = new int[0];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Replaces the content with the given ordinals, sorted in one go rather than inserted one at a time.
+     */
+    void load(int[] entries, long[] keysByOrdinal) {
+        int[] sorted = IntStream.of(entries)
+                .boxed()
+                .sorted((a, b) -> compare(keysByOrdinal[a], a, keysByOrdinal[b], b))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        keys = new long[Math.max(sorted.length, 16)];
+        ordinals = new int[keys.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = keysByOrdinal[sorted[i]];
+            ordinals[i] = sorted[i];
+        }
+        size = sorted.length;
+    }
+
+    void add(long key, int ordinal) {
+        int position = find(key, ordinal);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -(position + 1);
+        if (size == keys.length) {
+            int capacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, capacity);
+            ordinals = Arrays.copyOf(ordinals, capacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        ordinals[insertAt] = ordinal;
+        size++;
+    }
+
+    void remove(long key, int ordinal) {
+        int position = find(key, ordinal);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+        System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Ordinals whose key lies within {@code [min, max]}, both inclusive.
+     */
+    BitSet between(long min, long max) {
+        BitSet matches = new BitSet();
+        if (min > max) {
+            return matches;
+        }
+        int from = find(min, Integer.MIN_VALUE);
+        int to = find(max, Integer.MAX_VALUE);
+        // Neither probe can be present, so both are insertion points
+        for (int i = -(from + 1); i < -(to + 1); i++) {
+            matches.set(ordinals[i]);
+        }
+        return matches;
+    }
+
+    private int find(long key, int ordinal) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compare(keys[mid], ordinals[mid], key, ordinal);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(long keyA, int ordinalA, long keyB, int ordinalB) {
+        int byKey = Long.compare(keyA, keyB);
+        return byKey != 0 ? byKey : Integer.compare(ordinalA, ordinalB);
+    }
+}
@@ -0,0 +1,97 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.domain.Category;
+import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Immutable snapshot of all categories, loaded on first use and replaced after every committed category change.
+ * Changes committed on other nodes are picked up by a periodic reload.
+ * <p>
+ * The ETag is a digest of the content rather than of the version, so every node serving the same categories
+ * hands out the same tag and a restart does not invalidate what clients already hold.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryCatalog {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile Snapshot snapshot;
+    private long version;
+
+    public record Snapshot(long version, String etag, List<CategoryResponseDTO> categories, List<String> names) {
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Snapshot reloaded = reload();
+        log.debug("Category catalog reloaded as version {} after change of category ID: {}",
+                reloaded.version(), event.categoryId());
+    }
+
+    @Scheduled(initialDelayString = "${category-catalog.refresh-interval-ms:60000}",
+            fixedDelayString = "${category-catalog.refresh-interval-ms:60000}")
+    public void refresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            String previousEtag = snapshot.etag();
+            Snapshot reloaded = reload();
+            if (!reloaded.etag().equals(previousEtag)) {
+                log.debug("Category catalog reloaded as version {} after a change made elsewhere", reloaded.version());
+            }
+        } catch (Exception e) {
+            log.error("Error reloading category catalog", e);
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        List<CategoryResponseDTO> categories = categoryRepository.findAll().stream()
+                .sorted(Comparator.comparing(Category::getId, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(category -> new CategoryResponseDTO(category.getId(), category.getName()))
+                .toList();
+        List<String> names = categories.stream().map(CategoryResponseDTO::name).toList();
+
+        String etag = etagOf(categories);
+        Snapshot current = snapshot;
+        if (current != null && current.etag().equals(etag)) {
+            return current;
+        }
+        snapshot = new Snapshot(++version, etag, categories, names);
+        return snapshot;
+    }
+
+    private static String etagOf(List<CategoryResponseDTO> categories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (CategoryResponseDTO category : categories) {
+                digest.update((category.id() + "\t" + category.name() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -16,6 +16,7 @@ public interface CategoryService {
     Optional<CategoryResponseDTO> getCategoryById(Long id);
     Page<CategoryResponseDTO> getAllCategories(Pageable pageable, CategorySearchCriteria criteria);
     List<String> getCategoryNames();
+    String getCatalogETag();
     CategoryResponseDTO updateCategory(Long id, CategoryUpdateDTO updatedCategoryDTO);
     void deleteCategory(Long id);
 
@@ -5,17 +5,21 @@ import com.rj.ecommerce_backend.product.dtos.CategoryCreateDTO;
 import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.CategorySearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.CategoryUpdateDTO;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
 import com.rj.ecommerce_backend.product.exceptions.CategoryAlreadyExistsException;
 import com.rj.ecommerce_backend.product.exceptions.CategoryNotFoundException;
 import com.rj.ecommerce_backend.product.exceptions.InvalidCategoryDataException;
 import com.rj.ecommerce_backend.product.repository.CategoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +29,8 @@ import java.util.Optional;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryCatalog categoryCatalog;
 
     @Override
     public CategoryResponseDTO createCategory(CategoryCreateDTO categoryDTO) {
@@ -41,6 +47,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setName(categoryDTO.name());
 
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
         return mapToDTO(savedCategory);
     }
 
@@ -52,19 +59,27 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public Page<CategoryResponseDTO> getAllCategories(Pageable pageable, CategorySearchCriteria criteria) {
 
-        Specification<Category> spec = criteria.toSpecification();
-
-        Page<Category> categories = categoryRepository.findAll(spec, pageable);
+        List<CategoryResponseDTO> categories = categoryCatalog.current().categories().stream()
+                .filter(criteria::matches)
+                .sorted(comparatorFor(pageable.getSort()))
+                .toList();
 
-        return categories
-                .map(this::mapToDTO);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(categories, pageable, categories.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), categories.size());
+        int to = Math.min(from + pageable.getPageSize(), categories.size());
+        return new PageImpl<>(categories.subList(from, to), pageable, categories.size());
     }
 
     @Override
     public List<String> getCategoryNames() {
-        return categoryRepository.findAll().stream()
-                .map(Category::getName)
-                .toList();
+        return categoryCatalog.current().names();
+    }
+
+    @Override
+    public String getCatalogETag() {
+        return categoryCatalog.current().etag();
     }
 
     @Override
@@ -73,7 +88,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new CategoryNotFoundException(id));
 
         categoryToUpdate.setName(updatedCategoryDTO.name());
-        return mapToDTO(categoryRepository.save(categoryToUpdate));
+        Category savedCategory = categoryRepository.save(categoryToUpdate);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        return mapToDTO(savedCategory);
     }
 
     @Override
@@ -82,6 +99,18 @@ public class CategoryServiceImpl implements CategoryService {
             throw new CategoryNotFoundException(id); // Throw exception if not found
         }
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+    }
+
+    private static Comparator<CategoryResponseDTO> comparatorFor(Sort sort) {
+        Comparator<CategoryResponseDTO> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<CategoryResponseDTO> byField = "name".equals(order.getProperty())
+                    ? Comparator.comparing(CategoryResponseDTO::name, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER))
+                    : Comparator.comparing(CategoryResponseDTO::id, Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byField : byField.reversed());
+        }
+        return comparator;
     }
 
     // Helper method to map Category to CategoryResponseDTO
@@ -1,90 +1,251 @@
 package com.rj.ecommerce_backend.product.service;
 
-import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.ProductImageProperties;
 import com.rj.ecommerce_backend.product.domain.Image;
 import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.events.ImageReleasedEvent;
+import com.rj.ecommerce_backend.product.events.ImageStoredEvent;
 import com.rj.ecommerce_backend.product.exceptions.FileStorageException;
+import com.rj.ecommerce_backend.product.exceptions.ImageUploadRejectedException;
 import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+/**
+ * Stores uploaded images under the SHA-256 of their content, so uploading the same file again for another
+ * product reuses the stored one. Several {@link Image} rows may point to one file; it is deleted with the
+ * last of them. A name therefore always stands for the same bytes, and such images may be cached for good.
+ * <p>
+ * The files of one request are hashed and written in parallel on a small bounded pool, retries included. Each
+ * row is inserted as soon as its file is in place, so the database round trips overlap with the files still
+ * being written. When the pool is saturated the upload is rejected, so writes and their retry back-off never run
+ * on the request thread.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileStorageService {
-    private final StorageProperties storageProperties;
+    private static final int MAX_CACHED_CONTENT_TYPES = 10_000;
+
+    // A digest, an optional extension and, for resized copies, the width suffix
+    private static final Pattern CONTENT_ADDRESSED_NAME =
+            Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]{1,10})?(-w[0-9]+\\.[a-z]+)?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    // An upload reusing a file touches it; a release this soon after leaves the file for the orphan cleanup,
+    // because the upload's row may not be visible yet
+    private static final Duration RELEASE_GRACE = Duration.ofMinutes(1);
+
+    private final ImageStorageLayout storageLayout;
     private final ImageRepository imageRepository;
+    private final ImageVariantService imageVariantService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductImageProperties imageProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, MediaType> contentTypes = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_CONTENT_TYPES)
+            .build();
+
+    private ThreadPoolExecutor uploadExecutor;
+    private Timer storeTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        uploadExecutor = new ThreadPoolExecutor(
+                imageProperties.getUploadPoolSize(), imageProperties.getUploadPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(imageProperties.getUploadQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        storeTimer = Timer.builder("product.image.store")
+                .description("Time spent writing one uploaded image to storage, retries included")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("product.image.store.rejected")
+                .description("Uploads rejected because the upload queue was full")
+                .register(meterRegistry);
+        Gauge.builder("product.image.store.queue.depth", uploadExecutor, pool -> pool.getQueue().size())
+                .description("Uploaded images waiting to be written to storage")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        uploadExecutor.shutdown();
+    }
 
     public Image storeFile(MultipartFile file, String altText, Product product) {
-        log.debug("Storing file: {} with alt text: {}", file.getOriginalFilename(), altText);
+        return storeFiles(List.of(file), altText, product).get(0);
+    }
+
+    /**
+     * Writes the files in parallel and saves one {@link Image} row per file for {@code product}, in order.
+     * Fails as a whole if any file cannot be written: the rows already saved are deleted again, and the files
+     * that were written are left to the storage cleanup.
+     * Throws {@link ImageUploadRejectedException} when the upload pool has no room for all of them.
+     */
+    public List<Image> storeFiles(List<MultipartFile> files, String altText, Product product) {
+        log.debug("Storing {} file(s) with alt text: {}", files.size(), altText);
 
+        List<CompletableFuture<StoredContent>> writes = new ArrayList<>(files.size());
         try {
-            String fileName = generateUniqueFileName(file);
-            Path targetLocation = getTargetLocation(fileName);
+            for (MultipartFile file : files) {
+                writes.add(CompletableFuture.supplyAsync(() -> storeTimer.record(() -> storeFileWithRetry(file)),
+                        uploadExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            awaitAll(writes);
+            rejectedCounter.increment();
+            throw new ImageUploadRejectedException("Too many concurrent image uploads, please retry",
+                    imageProperties.getUploadRetryAfterSeconds());
+        }
 
-            // Store file with proper error handling
-            storeFileWithRetry(file, targetLocation);
+        List<Image> savedImages = new ArrayList<>(files.size());
+        Set<String> created = new LinkedHashSet<>();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                StoredContent stored = written(writes.get(i), file);
 
-            // Create relative URL path - only store the filename in the database
-            String urlPath = fileName;
+                // Create image entity - only the filename is stored in the database
+                Image image = buildImageEntity(stored.fileName(), altText, file.getContentType());
+                image.setProduct(product);
 
-            // Create and save image entity
-            Image image = buildImageEntity(urlPath, altText, file.getContentType());
-            image.setProduct(product);
+                // A reused file already has its resized copies, unless they are still being made
+                if (stored.created()) {
+                    created.add(stored.fileName());
+                } else {
+                    imageRepository.findVariantWidthsByPath(stored.fileName()).stream()
+                            .findFirst()
+                            .ifPresent(image::setVariantWidths);
+                }
+                // Inserted while the pool is still hashing the files after this one
+                savedImages.add(imageRepository.save(image));
+            }
+        } catch (RuntimeException e) {
+            awaitAll(writes);
+            // Callers may carry on without the images, so their rows must not outlive the failure
+            imageRepository.deleteAll(savedImages);
+            throw e;
+        }
 
-            Image savedImage = imageRepository.save(image);
+        savedImages.stream()
+                .filter(image -> image.getVariantWidths() == null)
+                .map(Image::getPath)
+                .distinct()
+                .forEach(fileName -> eventPublisher.publishEvent(new ImageStoredEvent(fileName)));
 
-            log.info("Successfully stored file: {} with ID: {} and associated with product ID: {}",
-                    fileName, savedImage.getId(), product.getId());
-            return savedImage;
+        log.info("Successfully stored {} file(s), {} new, for product ID: {}",
+                savedImages.size(), created.size(), product.getId());
+        return savedImages;
+    }
 
-        } catch (IOException ex) {
-            log.error("Failed to store file: {}", file.getOriginalFilename(), ex);
-            throw new FileStorageException("Could not store file " + file.getOriginalFilename(), ex);
+    // Every write is waited for, so none is still running once the request has failed
+    private static void awaitAll(List<CompletableFuture<StoredContent>> writes) {
+        CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+    }
+
+    private static StoredContent written(CompletableFuture<StoredContent> write, MultipartFile file) {
+        try {
+            return write.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof FileStorageException storageException) {
+                throw storageException;
+            }
+            throw new FileStorageException("Could not store file " + file.getOriginalFilename(), ex.getCause());
         }
     }
 
-    private String generateUniqueFileName(MultipartFile file) {
-        String originalFileName = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileExtension = StringUtils.getFilenameExtension(originalFileName);
-        return UUID.randomUUID() + (fileExtension != null ? "." + fileExtension : "");
+    /**
+     * Whether a file name was derived from the file's content, which means it never points to other bytes.
+     */
+    public static boolean isContentAddressed(String fileName) {
+        return CONTENT_ADDRESSED_NAME.matcher(fileName).matches();
     }
 
-    private Path getTargetLocation(String fileName) {
-        return Paths.get(storageProperties.getLocation()).resolve(fileName).normalize();
+    private static String extensionOf(MultipartFile file) {
+        String originalFileName = StringUtils.cleanPath(String.valueOf(file.getOriginalFilename()));
+        String fileExtension = StringUtils.getFilenameExtension(originalFileName);
+        if (fileExtension == null) {
+            return "";
+        }
+        String extension = fileExtension.toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
     }
 
-    private void storeFileWithRetry(MultipartFile file, Path targetLocation) throws IOException {
-        int maxRetries = 3;
+    // Runs on the upload pool, which is where a failed attempt waits before the next one
+    private StoredContent storeFileWithRetry(MultipartFile file) {
+        int maxAttempts = imageProperties.getUploadMaxAttempts();
         int attempts = 0;
 
-        while (attempts < maxRetries) {
+        while (true) {
             try {
-                Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-                return;
+                return storeContent(file);
             } catch (IOException e) {
                 attempts++;
-                if (attempts == maxRetries) {
-                    throw e;
+                if (attempts >= maxAttempts) {
+                    log.error("Failed to store file: {}", file.getOriginalFilename(), e);
+                    throw new FileStorageException("Could not store file " + file.getOriginalFilename(), e);
                 }
-                log.warn("Retry {} of {} for storing file {}",
-                        attempts, maxRetries, file.getOriginalFilename());
+                long backoffMs = imageProperties.getUploadRetryBackoffMs() << (attempts - 1);
+                log.warn("Retry {} of {} for storing file {} in {} ms",
+                        attempts, maxAttempts - 1, file.getOriginalFilename(), backoffMs);
                 try {
-                    Thread.sleep(1000); // Wait before retry
+                    Thread.sleep(backoffMs);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     throw new FileStorageException("Storage interrupted", ie);
@@ -93,6 +254,41 @@ public class FileStorageService {
         }
     }
 
+    // The upload is hashed while it is copied to a temporary file, which then takes the name of its digest
+    private StoredContent storeContent(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(storageLayout.root(), ".upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String fileName = HexFormat.of().formatHex(digest.digest()) + extensionOf(file);
+            Optional<Path> existing = storageLayout.find(fileName);
+            if (existing.isPresent()) {
+                Files.setLastModifiedTime(existing.get(), FileTime.from(Instant.now()));
+                return new StoredContent(fileName, false);
+            }
+            // Two uploads of the same bytes may race here; either one replacing the other is harmless
+            Path targetLocation = storageLayout.locate(fileName);
+            Files.createDirectories(targetLocation.getParent());
+            Files.move(temp, targetLocation, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredContent(fileName, true);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record StoredContent(String fileName, boolean created) {
+    }
+
     private Image buildImageEntity(String path, String altText, String mimeType) {
         return Image.builder()
                 .path(path)
@@ -102,51 +298,138 @@ public class FileStorageService {
                 .build();
     }
 
-    public Resource loadFileAsResource(String fileName) {
-        try {
-            Path filePath = Paths.get(storageProperties.getLocation())
-                    .resolve(fileName)
-                    .normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if(resource.exists()) {
-                return resource;
-            } else {
-                log.warn("File not found: {}", fileName);
-                throw new FileNotFoundException("File not found: " + fileName);
+    /**
+     * Looks up a stored image by file name. Empty when the file does not exist or the name is not a plain
+     * file name in storage.
+     */
+    public Optional<StoredImage> loadStoredImage(String fileName) {
+        if (!ImageStorageLayout.isValidName(fileName)) {
+            log.warn("Rejected image path outside storage: {}", fileName);
+            return Optional.empty();
+        }
+
+        // The file may be moved into its sharded directory between the two lookups; the last one then finds it
+        List<Path> candidates = storageLayout.candidates(fileName);
+        for (Path filePath : List.of(candidates.get(0), candidates.get(1), candidates.get(0))) {
+            Optional<BasicFileAttributes> attributes = readAttributes(filePath, fileName);
+            if (attributes.isPresent()) {
+                return attributes.filter(BasicFileAttributes::isRegularFile)
+                        .map(found -> describe(filePath, found));
             }
-        } catch (MalformedURLException | FileNotFoundException ex) {
-            throw new FileStorageException("File not found: " + fileName, ex);
+        }
+        log.warn("File not found: {}", fileName);
+        return Optional.empty();
+    }
+
+    private static Optional<BasicFileAttributes> readAttributes(Path filePath, String fileName) {
+        try {
+            return Optional.of(Files.readAttributes(filePath, BasicFileAttributes.class));
+        } catch (NoSuchFileException ex) {
+            return Optional.empty();
+        } catch (IOException ex) {
+            throw new FileStorageException("Could not read file " + fileName, ex);
+        }
+    }
+
+    private StoredImage describe(Path filePath, BasicFileAttributes attributes) {
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String name = filePath.getFileName().toString();
+        String etag = isContentAddressed(name)
+                ? "\"" + name + "\""
+                : "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        return new StoredImage(filePath, length, lastModified, etag, contentTypeOf(filePath));
+    }
+
+    /**
+     * Looks up the image to serve at {@code width} pixels: the best fitting resized copy, or the original when
+     * none of the copies made is wide enough or none are made of its format. When the copies have not been made
+     * yet, asks for them and returns empty, so the caller can fall back to the original meanwhile.
+     */
+    public Optional<StoredImage> loadImageVariant(String fileName, int width) {
+        if (ImageVariants.formatOf(fileName).isEmpty()) {
+            return loadStoredImage(fileName);
+        }
+        Optional<List<Integer>> widths = imageVariantService.recordedWidths(fileName);
+        if (widths.isEmpty()) {
+            requestVariants(fileName);
+            return Optional.empty();
+        }
+        Optional<String> variant = ImageVariantService.variantFileName(fileName, width, widths.get());
+        if (variant.isEmpty()) {
+            return loadStoredImage(fileName);
+        }
+        Optional<StoredImage> stored = loadStoredImage(variant.get());
+        if (stored.isEmpty()) {
+            requestVariants(fileName);
+        }
+        return stored;
+    }
+
+    private void requestVariants(String fileName) {
+        if (loadStoredImage(fileName).isPresent()) {
+            imageVariantService.request(fileName);
+        }
+    }
+
+    // Only image types are served as such; the stored type came from the uploading client
+    private MediaType contentTypeOf(Path filePath) {
+        return contentTypes.get(filePath.getFileName().toString(), fileName -> Stream.concat(
+                        imageRepository.findMimeTypesByPath(fileName).stream()
+                                .map(FileStorageService::parseMediaType)
+                                .flatMap(Optional::stream),
+                        MediaTypeFactory.getMediaType(fileName).stream())
+                .filter(type -> "image".equals(type.getType()) && !type.isWildcardSubtype())
+                .findFirst()
+                .orElse(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    private static Optional<MediaType> parseMediaType(String mimeType) {
+        try {
+            return Optional.of(MediaType.parseMediaType(mimeType));
+        } catch (InvalidMediaTypeException ex) {
+            return Optional.empty();
         }
     }
 
+    /**
+     * Deletes the image row. Its file goes once the transaction has committed, if no other row points to it.
+     */
     public void deleteImage(Image image) {
         log.debug("Deleting image with ID: {} and path: {}", image.getId(), image.getPath());
 
-        try {
-            // The path stored in the database is now just the filename
-            String fileName = image.getPath();
-
-            // Get the full path to the file
-            Path filePath = Paths.get(storageProperties.getLocation())
-                    .resolve(fileName)
-                    .normalize();
-
-            // Delete the physical file
-            if (Files.exists(filePath)) {
-                Files.delete(filePath);
-                log.info("Successfully deleted file: {}", fileName);
-            } else {
-                log.warn("File not found for deletion: {}", fileName);
-            }
+        imageRepository.delete(image);
+        eventPublisher.publishEvent(new ImageReleasedEvent(image.getPath()));
+        log.info("Successfully deleted image entity with ID: {}", image.getId());
+    }
 
-            // Delete the image entity from database
-            imageRepository.delete(image);
-            log.info("Successfully deleted image entity with ID: {}", image.getId());
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageReleased(ImageReleasedEvent event) {
+        String fileName = event.path();
+        long references = imageRepository.countByPath(fileName);
+        if (references > 0) {
+            log.debug("Keeping file {} still used by {} image(s)", fileName, references);
+            return;
+        }
 
+        Optional<Path> found = storageLayout.find(fileName);
+        if (found.isEmpty()) {
+            log.warn("File not found for deletion: {}", fileName);
+            return;
+        }
+        Path filePath = found.get();
+        try {
+            Instant touched = Files.getLastModifiedTime(filePath).toInstant();
+            if (touched.isAfter(Instant.now().minus(RELEASE_GRACE))) {
+                log.info("Leaving recently reused file {} to the orphan cleanup", fileName);
+                return;
+            }
+            imageVariantService.deleteVariants(fileName);
+            Files.delete(filePath);
+            log.info("Successfully deleted file: {}", fileName);
         } catch (IOException ex) {
-            log.error("Error deleting image file for image ID: {}", image.getId(), ex);
-            throw new FileStorageException("Could not delete file for image: " + image.getId(), ex);
+            // The row is gone already; the file is left to the orphan cleanup
+            log.error("Error deleting image file: {}", fileName, ex);
         }
     }
 }
@@ -0,0 +1,101 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.StorageProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Where image files live under {@code storage.location}: two directory levels down, as {@code ab/cd/<name>},
+ * so that no directory grows past a few thousand entries however many images there are. The levels are the
+ * first characters of the name's SHA-256, which is the name itself for content-addressed files, and a resized copy
+ * goes next to its original. The location follows from the name alone, so {@code Image.path} stays the bare file
+ * name and image URLs do not change.
+ * <p>
+ * Files stored before this layout sit directly under the root until {@link ImageStorageMigrator} has moved them.
+ * Lookups try both places meanwhile.
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageStorageLayout {
+
+    public static final int SHARD_LEVELS = 2;
+
+    private static final Pattern SHARD_DIRECTORY = Pattern.compile("[0-9a-f]{2}");
+
+    private final StorageProperties storageProperties;
+
+    public Path root() {
+        return Paths.get(storageProperties.getLocation()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Where a file of this name is written.
+     */
+    public Path locate(String fileName) {
+        String owner = ImageVariants.originalOf(fileName).orElse(fileName);
+        String digest = FileStorageService.isContentAddressed(owner) ? owner : sha256Hex(owner);
+        Path directory = root();
+        for (int level = 0; level < SHARD_LEVELS; level++) {
+            directory = directory.resolve(digest.substring(2 * level, 2 * level + 2));
+        }
+        return directory.resolve(fileName);
+    }
+
+    /**
+     * Where a file of this name was written before files were spread over directories.
+     */
+    public Path legacyLocation(String fileName) {
+        return root().resolve(fileName);
+    }
+
+    /**
+     * The places a file of this name may be found, most likely first. A file moves from the second to the first
+     * while it is migrated, never back.
+     */
+    public List<Path> candidates(String fileName) {
+        return List.of(locate(fileName), legacyLocation(fileName));
+    }
+
+    /**
+     * The file of this name, wherever it is.
+     */
+    public Optional<Path> find(String fileName) {
+        return candidates(fileName).stream().filter(Files::exists).findFirst();
+    }
+
+    /**
+     * Whether a name can be that of a stored image: a single path segment, and not one of the hidden
+     * temporary files uploads and resizing write before moving them into place.
+     */
+    public static boolean isValidName(String fileName) {
+        return fileName != null
+                && !fileName.isEmpty()
+                && !fileName.startsWith(".")
+                && fileName.indexOf('/') < 0
+                && fileName.indexOf('\\') < 0;
+    }
+
+    public static boolean isShardDirectory(Path path) {
+        return SHARD_DIRECTORY.matcher(path.getFileName().toString()).matches() && Files.isDirectory(path);
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.StorageProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Moves image files stored directly under {@code storage.location} into the directories
+ * {@link ImageStorageLayout} puts them in, {@code migrationBatchSize} files per run, while the application keeps
+ * serving them from either place. Once a run finds no such file left it stops looking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageStorageMigrator {
+
+    private final StorageProperties storageProperties;
+    private final ImageStorageLayout storageLayout;
+    private final MeterRegistry meterRegistry;
+
+    // Nothing writes to the root any more, so once it is empty it stays empty
+    private volatile boolean finished;
+
+    private Counter migratedCounter;
+
+    @PostConstruct
+    public void init() {
+        migratedCounter = Counter.builder("product.image.storage.migrated")
+                .description("Image files moved from the storage root into their shard directory")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${storage.migration-interval-ms:60000}",
+            fixedDelayString = "${storage.migration-interval-ms:60000}")
+    public void migrate() {
+        if (finished || !storageProperties.isMigrationEnabled()) {
+            return;
+        }
+        try {
+            int moved = migrateBatch();
+            if (moved > 0) {
+                log.info("Moved {} image file(s) into shard directories", moved);
+            }
+            if (finished) {
+                log.info("All image files are in shard directories");
+            }
+        } catch (Exception e) {
+            log.error("Error moving image files into shard directories", e);
+        }
+    }
+
+    synchronized int migrateBatch() throws IOException {
+        int batchSize = storageProperties.getMigrationBatchSize();
+        int moved = 0;
+        boolean failed = false;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(storageLayout.root(), this::isLegacyFile)) {
+            for (Path file : entries) {
+                if (moved >= batchSize) {
+                    return moved;
+                }
+                switch (move(file)) {
+                    case MOVED -> moved++;
+                    case FAILED -> failed = true;
+                    default -> { }
+                }
+            }
+        }
+        // A file that could not be moved is tried again by the next run
+        finished = !failed;
+        return moved;
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    private boolean isLegacyFile(Path entry) {
+        return ImageStorageLayout.isValidName(entry.getFileName().toString()) && Files.isRegularFile(entry);
+    }
+
+    private Outcome move(Path file) {
+        String fileName = file.getFileName().toString();
+        Path target = storageLayout.locate(fileName);
+        try {
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Uploaded again since the sharded layout; the bytes are the same
+                Files.deleteIfExists(file);
+                return Outcome.SKIPPED;
+            }
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            migratedCounter.increment();
+            return Outcome.MOVED;
+        } catch (NoSuchFileException e) {
+            // Deleted meanwhile
+            return Outcome.SKIPPED;
+        } catch (IOException e) {
+            log.warn("Could not move image file {} into its shard directory", fileName, e);
+            return Outcome.FAILED;
+        }
+    }
+
+    private enum Outcome { MOVED, SKIPPED, FAILED }
+}
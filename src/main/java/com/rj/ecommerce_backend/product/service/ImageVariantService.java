@@ -0,0 +1,331 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rj.ecommerce_backend.product.ProductImageProperties;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.events.ImageStoredEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Makes resized copies of uploaded product images so listings do not download full-size originals.
+ * <p>
+ * Copies are rendered on a small dedicated pool once the upload commits. When the queue is full the upload
+ * is not held up; the copies are made later, the first time one of them is requested and found missing.
+ * The widths generated are recorded on the {@link Image} row, which is what the API exposes and what requests
+ * for a width are served from.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageVariantService {
+
+    // How long a file whose copies could not all be made is left alone before a request may retry it
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(10);
+
+    private final ProductImageProperties properties;
+    private final ImageStorageLayout storageLayout;
+    private final ImageRepository imageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Cache<String, Boolean> recentlyAttempted = Caffeine.newBuilder()
+            .expireAfterWrite(RETRY_AFTER)
+            .maximumSize(10_000)
+            .build();
+    // Widths once recorded; a file is never rewritten, so they only change when its copies are made again
+    private final Cache<String, List<Integer>> recordedWidths = Caffeine.newBuilder()
+            .expireAfterWrite(RETRY_AFTER)
+            .maximumSize(10_000)
+            .build();
+
+    private ThreadPoolExecutor executor;
+    private Timer renderTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                properties.getPoolSize(), properties.getPoolSize(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        renderTimer = Timer.builder("product.image.variants.render")
+                .description("Time spent decoding an image and writing all of its resized copies")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("product.image.variants.rejected")
+                .description("Images left for lazy resizing because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("product.image.variants.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Images waiting to be resized")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImageStored(ImageStoredEvent event) {
+        request(event.path());
+    }
+
+    /**
+     * Queues the resized copies of an image unless they are already queued or were attempted recently.
+     * Returns whether they are queued.
+     */
+    public boolean request(String fileName) {
+        if (ImageVariants.formatOf(fileName).isEmpty() || recentlyAttempted.getIfPresent(fileName) != null) {
+            return false;
+        }
+        if (!inFlight.add(fileName)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    renderTimer.record(() -> generate(fileName));
+                } finally {
+                    inFlight.remove(fileName);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(fileName);
+            rejectedCounter.increment();
+            log.warn("Image resize queue is full, {} will be resized when first requested", fileName);
+            return false;
+        }
+    }
+
+    /**
+     * Widths of the copies made of {@code fileName}, which may be none when the original is narrower than all of
+     * them. Empty while they have not been made.
+     */
+    public Optional<List<Integer>> recordedWidths(String fileName) {
+        List<Integer> cached = recordedWidths.getIfPresent(fileName);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<List<Integer>> recorded = imageRepository.findVariantWidthsByPath(fileName).stream()
+                .findFirst()
+                .map(ImageVariants::parseWidths);
+        recorded.ifPresent(widths -> recordedWidths.put(fileName, widths));
+        return recorded;
+    }
+
+    /**
+     * File name of the copy of {@code fileName} best suited to display at {@code width} pixels: the narrowest of
+     * the given widths at least that wide. Empty when there is none, in which case the original fits best.
+     */
+    public static Optional<String> variantFileName(String fileName, int width, List<Integer> widths) {
+        return widths.stream()
+                .filter(candidate -> candidate >= width)
+                .min(Comparator.naturalOrder())
+                .flatMap(chosen -> ImageVariants.fileName(fileName, chosen));
+    }
+
+    public void deleteVariants(String fileName) {
+        for (int width : properties.getVariantWidths()) {
+            ImageVariants.fileName(fileName, width).ifPresent(variant -> {
+                try {
+                    for (Path location : storageLayout.candidates(variant)) {
+                        Files.deleteIfExists(location);
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete image variant {}: {}", variant, e.getMessage());
+                }
+            });
+        }
+    }
+
+    void generate(String fileName) {
+        recentlyAttempted.put(fileName, Boolean.TRUE);
+        String format = ImageVariants.formatOf(fileName).orElseThrow();
+        Optional<Path> originalPath = storageLayout.find(fileName);
+        if (originalPath.isEmpty()) {
+            log.warn("Image {} to resize is not in storage", fileName);
+            return;
+        }
+
+        BufferedImage original;
+        try {
+            original = read(originalPath.get(), fileName);
+        } catch (IOException e) {
+            log.warn("Could not read image {} to resize it: {}", fileName, e.getMessage());
+            return;
+        }
+        if (original == null) {
+            // Recorded without copies, so requests serve the original instead of asking again
+            record(fileName, List.of());
+            return;
+        }
+
+        // Widest first, so each copy is scaled down from the previous one rather than from the original
+        List<Integer> widths = properties.getVariantWidths().stream()
+                .filter(width -> width < original.getWidth())
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        List<Integer> generated = new ArrayList<>();
+        BufferedImage current = original;
+        for (int width : widths) {
+            current = scaleToWidth(current, width, "png".equals(format));
+            String variant = ImageVariants.fileName(fileName, width).orElseThrow();
+            try {
+                write(current, format, storageLayout.locate(variant));
+                generated.add(width);
+            } catch (IOException e) {
+                log.warn("Could not write image variant {}: {}", variant, e.getMessage());
+            }
+        }
+
+        record(fileName, generated);
+        log.debug("Generated {} resized copies of image {}", generated.size(), fileName);
+    }
+
+    /**
+     * Decodes the image, unless it cannot be or it has more than {@code maxPixels}: the header is checked first,
+     * since a small file can declare dimensions whose decoded pixels would not fit in memory.
+     */
+    private BufferedImage read(Path path, String fileName) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                log.warn("Image {} is not in a format that can be resized", fileName);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.getMaxPixels()) {
+                    log.warn("Image {} has {} pixels, more than the {} that are resized", fileName, pixels,
+                            properties.getMaxPixels());
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void record(String fileName, List<Integer> widths) {
+        String variantWidths = ImageVariants.formatWidths(widths);
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Image image : imageRepository.findAllByPath(fileName)) {
+                image.setVariantWidths(variantWidths);
+                if (image.getProduct() != null) {
+                    // The widths are part of the product's representation, so its validators must move with them
+                    image.getProduct().setUpdatedAt(now);
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(image.getProduct().getId()));
+                }
+            }
+        });
+        recordedWidths.invalidate(fileName);
+    }
+
+    // Halving with bilinear filtering until close to the target keeps detail that a single big step would alias
+    static BufferedImage scaleToWidth(BufferedImage source, int width, boolean keepAlpha) {
+        BufferedImage current = source;
+        do {
+            int stepWidth = Math.max(width, current.getWidth() / 2);
+            int stepHeight = Math.max(1, (int) Math.round((double) source.getHeight() * stepWidth / source.getWidth()));
+            BufferedImage step = new BufferedImage(stepWidth, stepHeight,
+                    keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, stepWidth, stepHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (current.getWidth() > width);
+        return current;
+    }
+
+    // Written beside the target and moved into place, so a reader never sees a half-written copy
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            if ("jpg".equals(format)) {
+                writeJpeg(image, temp);
+            } else if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("No ImageIO writer for " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.rj.ecommerce_backend.product.service;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Naming of resized image copies. A copy lives next to its original as {@code <original>-w<width>.<format>},
+ * so its file name follows from the original's and only the list of generated widths is stored.
+ */
+public final class ImageVariants {
+
+    private static final Pattern VARIANT_NAME = Pattern.compile("(.+)-w([0-9]{1,5})\\.(jpg|png)");
+
+    private ImageVariants() {
+    }
+
+    /**
+     * The format copies of the given file are written in: JPEG stays JPEG, other formats ImageIO reads well
+     * become PNG. Empty when copies cannot be made.
+     */
+    public static Optional<String> formatOf(String fileName) {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        if (extension == null) {
+            return Optional.empty();
+        }
+        return switch (extension.toLowerCase(Locale.ROOT)) {
+            case "jpg", "jpeg" -> Optional.of("jpg");
+            case "png", "gif", "bmp" -> Optional.of("png");
+            default -> Optional.empty();
+        };
+    }
+
+    public static Optional<String> fileName(String original, int width) {
+        return formatOf(original).map(format -> original + "-w" + width + "." + format);
+    }
+
+    /**
+     * The original a file name is a copy of. Empty when the name is not one {@link #fileName} would produce.
+     */
+    public static Optional<String> originalOf(String fileName) {
+        Matcher matcher = VARIANT_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String original = matcher.group(1);
+        return fileName(original, Integer.parseInt(matcher.group(2)))
+                .filter(fileName::equals)
+                .map(variant -> original);
+    }
+
+    public static List<Integer> parseWidths(String widths) {
+        if (widths == null || widths.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(widths.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .toList();
+    }
+
+    public static String formatWidths(Collection<Integer> widths) {
+        return widths.stream()
+                .sorted()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+}
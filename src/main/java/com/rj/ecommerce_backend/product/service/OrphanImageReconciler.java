@@ -0,0 +1,239 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes image files that no {@link Image} row points to: files whose release did not get to remove them and
+ * uploads whose transaction rolled back.
+ * <p>
+ * A run walks the storage directory and its shard directories {@code cleanupBatchSize} entries at a time and
+ * looks up the names of those older than {@code cleanupThresholdDays} in one query per batch. The age limit also
+ * keeps uploads still in flight safe. A run stops after {@code cleanupMaxBatchesPerRun} batches or
+ * {@code cleanupMaxDeletesPerRun} deletions, and the next one continues from about where it stopped.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanImageReconciler {
+
+    private final StorageProperties storageProperties;
+    private final ImageStorageLayout storageLayout;
+    private final ImageRepository imageRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Directory entries to skip on the next run; the order of a directory holds as long as it changes little
+    private long resumeAt;
+
+    private Counter scannedCounter;
+    private Counter deletedCounter;
+    private Counter reclaimedCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    public void init() {
+        String dryRun = String.valueOf(storageProperties.isCleanupDryRun());
+        scannedCounter = Counter.builder("product.image.orphans.scanned")
+                .description("Files in image storage checked for a referencing image row")
+                .register(meterRegistry);
+        deletedCounter = Counter.builder("product.image.orphans.deleted")
+                .description("Image files deleted, or found deletable in a dry run, because nothing referenced them")
+                .tag("dry_run", dryRun)
+                .register(meterRegistry);
+        reclaimedCounter = Counter.builder("product.image.orphans.reclaimed")
+                .description("Storage freed, or freeable in a dry run, by deleting orphaned image files")
+                .baseUnit("bytes")
+                .tag("dry_run", dryRun)
+                .register(meterRegistry);
+        runTimer = Timer.builder("product.image.orphans.run")
+                .description("Duration of one orphaned image cleanup run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${storage.cleanup-schedule:-}")
+    public void reconcile() {
+        if (!Boolean.TRUE.equals(storageProperties.getCleanupEnabled())) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Result result = run();
+            log.info("Image cleanup {}: scanned {} file(s), {} {} orphan(s), {} bytes{}",
+                    result.isComplete() ? "finished" : "paused", result.getScanned(),
+                    storageProperties.isCleanupDryRun() ? "found" : "deleted", result.getDeleted(),
+                    result.getReclaimedBytes(), storageProperties.isCleanupDryRun() ? " (dry run)" : "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error cleaning up orphaned image files", e);
+        } finally {
+            sample.stop(runTimer);
+        }
+    }
+
+    synchronized Result run() throws IOException, InterruptedException {
+        Walk walk = new Walk(Instant.now().minus(Duration.ofDays(storageProperties.getCleanupThresholdDays())),
+                resumeAt, storageProperties.getCleanupBatchSize());
+        if (walkDirectory(storageLayout.root(), 0, walk)) {
+            if (!walk.batch.isEmpty()) {
+                reconcileBatch(walk);
+            }
+            resumeAt = 0;
+            walk.result.complete = true;
+        } else {
+            // Deleted files no longer take up a place in the directory
+            resumeAt = walk.visited - (storageProperties.isCleanupDryRun() ? 0 : walk.result.getDeleted());
+        }
+        return walk.result;
+    }
+
+    // Files sit in the root until they have been migrated, and in the shard directories below it afterwards
+    private boolean walkDirectory(Path directory, int depth, Walk walk) throws IOException, InterruptedException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                boolean carryOn = depth < ImageStorageLayout.SHARD_LEVELS
+                        && ImageStorageLayout.isShardDirectory(entry)
+                        ? walkDirectory(entry, depth + 1, walk)
+                        : visit(entry, walk);
+                if (!carryOn) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean visit(Path entry, Walk walk) throws InterruptedException {
+        if (++walk.visited <= walk.skip) {
+            return true;
+        }
+        walk.batch.add(entry);
+        if (walk.batch.size() < storageProperties.getCleanupBatchSize()) {
+            return true;
+        }
+        reconcileBatch(walk);
+        return walk.batches < storageProperties.getCleanupMaxBatchesPerRun()
+                && walk.result.getDeleted() < storageProperties.getCleanupMaxDeletesPerRun();
+    }
+
+    private void reconcileBatch(Walk walk) throws InterruptedException {
+        if (walk.batches > 0 && storageProperties.getCleanupPauseBetweenBatchesMs() > 0) {
+            Thread.sleep(storageProperties.getCleanupPauseBetweenBatchesMs());
+        }
+        reconcileBatch(walk.batch, walk.cutoff, walk.result);
+        walk.batch.clear();
+        walk.batches++;
+    }
+
+    private void reconcileBatch(List<Path> batch, Instant cutoff, Result result) {
+        scannedCounter.increment(batch.size());
+        result.scanned += batch.size();
+
+        // Only files left alone long enough are looked up; a copy is kept as long as its original is
+        List<Path> candidates = new ArrayList<>();
+        Set<String> referencedNames = new HashSet<>();
+        for (Path file : batch) {
+            if (isOlderThan(file, cutoff)) {
+                candidates.add(file);
+                referencedNames.add(referencedName(file));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(imageRepository.findExistingPaths(referencedNames));
+
+        for (Path file : candidates) {
+            if (existing.contains(referencedName(file))) {
+                continue;
+            }
+            if (result.getDeleted() >= storageProperties.getCleanupMaxDeletesPerRun()) {
+                return;
+            }
+            delete(file, cutoff, result);
+        }
+    }
+
+    private void delete(Path file, Instant cutoff, Result result) {
+        try {
+            long size = Files.size(file);
+            if (storageProperties.isCleanupDryRun()) {
+                log.info("Would delete orphaned image file {} ({} bytes)", file.getFileName(), size);
+            } else {
+                // An upload may have reused the file since it was looked up
+                if (!isOlderThan(file, cutoff) || !Files.deleteIfExists(file)) {
+                    return;
+                }
+                log.debug("Deleted orphaned image file {} ({} bytes)", file.getFileName(), size);
+            }
+            result.deleted++;
+            result.reclaimedBytes += size;
+            deletedCounter.increment();
+            reclaimedCounter.increment(size);
+        } catch (NoSuchFileException e) {
+            // Deleted by someone else meanwhile
+        } catch (IOException e) {
+            log.warn("Could not delete orphaned image file {}", file.getFileName(), e);
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String referencedName(Path file) {
+        String fileName = file.getFileName().toString();
+        return ImageVariants.originalOf(fileName).orElse(fileName);
+    }
+
+    private static final class Walk {
+        private final Instant cutoff;
+        private final long skip;
+        private final List<Path> batch;
+        private final Result result = new Result();
+        private long visited;
+        private int batches;
+
+        private Walk(Instant cutoff, long skip, int batchSize) {
+            this.cutoff = cutoff;
+            this.skip = skip;
+            this.batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    @Getter
+    static final class Result {
+        private int scanned;
+        private int deleted;
+        private long reclaimedBytes;
+        private boolean complete;
+    }
+}
@@ -0,0 +1,129 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rj.ecommerce_backend.product.ProductCacheProperties;
+import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
+import com.rj.ecommerce_backend.product.dtos.ImageDTO;
+import com.rj.ecommerce_backend.product.dtos.ImageVariantDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of mapped product views, bounded by their estimated heap size.
+ * <p>
+ * Entries are dropped after the transaction that changed the product commits. A category change drops
+ * everything, because every cached view embeds its category names. Changes made on other nodes do not reach this
+ * cache, so a reader that knows the product's current date passes it and older entries are loaded again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCache {
+
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int REFERENCE_SIZE = 8;
+
+    private final ProductCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<Long, VersionedProduct> productsById;
+
+    @PostConstruct
+    public void init() {
+        productsById = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumWeightBytes())
+                .weigher((Long id, VersionedProduct product) -> estimateSize(product.product()))
+                .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, productsById, "product.details");
+    }
+
+    public Optional<VersionedProduct> get(Long productId, Instant notModifiedBefore,
+                                          Function<Long, Optional<VersionedProduct>> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(productId);
+        }
+        VersionedProduct cached = productsById.get(productId, id -> loader.apply(id).orElse(null));
+        if (cached == null || !cached.lastModified().isBefore(notModifiedBefore)) {
+            return Optional.ofNullable(cached);
+        }
+        Optional<VersionedProduct> loaded = loader.apply(productId);
+        loaded.ifPresentOrElse(
+                product -> productsById.asMap().merge(productId, product,
+                        (current, fresh) -> current.lastModified().isAfter(fresh.lastModified()) ? current : fresh),
+                () -> productsById.invalidate(productId));
+        return loaded;
+    }
+
+    public void invalidate(Long productId) {
+        productsById.invalidate(productId);
+    }
+
+    public void invalidateAll() {
+        productsById.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.change() != ProductChangedEvent.Change.CREATED) {
+            invalidate(event.productId());
+            log.debug("Evicted cached product view for product ID: {}", event.productId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsStockChanged(ProductsStockChangedEvent event) {
+        productsById.invalidateAll(event.productIds());
+        log.debug("Evicted {} cached product views after bulk stock change", event.productIds().size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateAll();
+        log.debug("Evicted all cached product views after change of category ID: {}", event.categoryId());
+    }
+
+    static int estimateSize(ProductResponseDTO product) {
+        int size = OBJECT_OVERHEAD + 7 * REFERENCE_SIZE + 64 // id, price and quantity boxes
+                + sizeOf(product.name())
+                + sizeOf(product.description());
+        if (product.categories() != null) {
+            for (CategoryResponseDTO category : product.categories()) {
+                size += OBJECT_OVERHEAD + 2 * REFERENCE_SIZE + 24 + sizeOf(category.name());
+            }
+        }
+        if (product.imageList() != null) {
+            for (ImageDTO image : product.imageList()) {
+                size += OBJECT_OVERHEAD + 5 * REFERENCE_SIZE + 24
+                        + sizeOf(image.path()) + sizeOf(image.altText()) + sizeOf(image.mimeType());
+                if (image.variants() != null) {
+                    for (ImageVariantDTO variant : image.variants()) {
+                        size += OBJECT_OVERHEAD + REFERENCE_SIZE + 4 + sizeOf(variant.path());
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int sizeOf(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,183 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.domain.CatalogVersion;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsImportedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import com.rj.ecommerce_backend.product.repository.CatalogVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the product catalog, used as the validator for public product responses.
+ * <p>
+ * The version is a millisecond timestamp kept in the {@code catalog_version} row. It moves forward on every
+ * committed product or category change, so it doubles as the Last-Modified date of listings, and every node reads
+ * the same value across restarts. The listeners run last, after the caches and indexes the listings are built from
+ * have caught up.
+ * <p>
+ * Listings are served from in-memory snapshots that follow other nodes' changes only when they are rebuilt, so
+ * they are tagged with the {@link ListingVersion} this node has applied rather than with the shared row.
+ */
+@Component
+@Slf4j
+public class ProductCatalogVersion {
+
+    private static final long NOT_SYNCED = -1;
+
+    private final CatalogVersionRepository catalogVersionRepository;
+    // The listeners run after the transaction that published the event has committed
+    private final TransactionTemplate transactionTemplate;
+
+    // Version each snapshot was last rebuilt from; NOT_SYNCED until its first build
+    private final Map<String, Long> snapshotVersions = new ConcurrentHashMap<>();
+    // Every change up to this version is reflected in all snapshots
+    private final AtomicLong applied = new AtomicLong();
+    // Latest change made on this node, reflected in the snapshots even when older ones made elsewhere are not
+    private final AtomicLong localHead = new AtomicLong();
+
+    public ProductCatalogVersion(CatalogVersionRepository catalogVersionRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long current() {
+        return read().getVersion();
+    }
+
+    public Instant lastModified() {
+        return Instant.ofEpochMilli(current());
+    }
+
+    public Instant productLastModified(LocalDateTime updatedAt) {
+        return productLastModified(updatedAt, categoriesVersion());
+    }
+
+    // A product's response embeds its category names, so renaming a category modifies it as well
+    public static Instant productLastModified(LocalDateTime updatedAt, long categoriesVersion) {
+        long updated = updatedAt == null ? 0 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Instant.ofEpochMilli(Math.max(updated, categoriesVersion));
+    }
+
+    public long categoriesVersion() {
+        return read().getCategoriesVersion();
+    }
+
+    /**
+     * Declares a snapshot listings are served from. Until each declared snapshot has been built, listings are
+     * tagged with the shared version, as their answers then come from the database.
+     */
+    public void register(String snapshot) {
+        snapshotVersions.putIfAbsent(snapshot, NOT_SYNCED);
+    }
+
+    /**
+     * Records that {@code snapshot} was rebuilt from data read after {@code version}, which must have been taken
+     * from {@link #current()} before the rebuild started.
+     */
+    public void synced(String snapshot, long version) {
+        snapshotVersions.merge(snapshot, version, Math::max);
+        long synced = snapshotVersions.values().stream().mapToLong(Long::longValue).min().orElse(NOT_SYNCED);
+        applied.accumulateAndGet(synced, Math::max);
+    }
+
+    public ListingVersion listingVersion() {
+        if (snapshotVersions.isEmpty() || snapshotVersions.containsValue(NOT_SYNCED)) {
+            return new ListingVersion(current(), 0);
+        }
+        long appliedVersion = applied.get();
+        long local = localHead.get();
+        return new ListingVersion(appliedVersion, local > appliedVersion ? local : 0);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        advance(false);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        advance(false);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsStockChanged(ProductsStockChangedEvent event) {
+        advance(false);
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        advance(true);
+    }
+
+    private void advance(boolean categories) {
+        try {
+            long[] previousAndNext = transactionTemplate.execute(status -> {
+                CatalogVersion row = catalogVersionRepository.findForUpdate(CatalogVersion.ID)
+                        .orElseGet(() -> new CatalogVersion(CatalogVersion.ID, 0, 0));
+                long previous = row.getVersion();
+                row.setVersion(Math.max(previous + 1, System.currentTimeMillis()));
+                if (categories) {
+                    row.setCategoriesVersion(row.getVersion());
+                }
+                catalogVersionRepository.save(row);
+                return new long[]{previous, row.getVersion()};
+            });
+            localHead.accumulateAndGet(previousAndNext[1], Math::max);
+            // Nothing was changed elsewhere since the snapshots were complete, so they are complete again
+            if (previousAndNext[0] <= applied.get()) {
+                applied.accumulateAndGet(previousAndNext[1], Math::max);
+            }
+        } catch (RuntimeException e) {
+            // The change itself is committed; clients revalidate against the old version until the next change
+            log.warn("Could not advance the catalog version", e);
+        }
+    }
+
+    private CatalogVersion read() {
+        // The migration inserts the row; an empty schema behaves as if nothing had changed yet
+        return catalogVersionRepository.findById(CatalogVersion.ID)
+                .orElseGet(() -> new CatalogVersion(CatalogVersion.ID, 0, 0));
+    }
+
+    /**
+     * Validator of listings served from this node's snapshots. {@code applied} is the catalog version they
+     * reflect in full; {@code local}, when not zero, a later change made on this node that they reflect as well
+     * while some change made elsewhere before it is still missing.
+     */
+    public record ListingVersion(long applied, long local) {
+
+        // Nodes that have applied the same versions hand out the same tag
+        public String tag() {
+            return local > applied
+                    ? Long.toHexString(applied) + "." + Long.toHexString(local)
+                    : Long.toHexString(applied);
+        }
+
+        // A rebuild can change such a listing without moving the local change, so it has no date to compare
+        public long lastModified() {
+            return local > applied ? -1 : applied;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.dtos.ProductImportStatusDTO;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductImportService {
+
+    ProductImportStatusDTO importProducts(InputStream input, ProductImportFormat format);
+
+    Optional<ProductImportStatusDTO> getImport(String importId);
+
+    List<ProductImportStatusDTO> getImports();
+}
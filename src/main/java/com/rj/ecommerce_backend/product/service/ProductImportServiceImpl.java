@@ -0,0 +1,262 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rj.ecommerce_backend.product.ProductImportProperties;
+import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductImportStatusDTO;
+import com.rj.ecommerce_backend.product.events.ProductsImportedEvent;
+import com.rj.ecommerce_backend.product.exceptions.InvalidProductImportException;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
+import com.rj.ecommerce_backend.product.importer.ProductImportReader;
+import com.rj.ecommerce_backend.product.importer.ProductImportRow;
+import com.rj.ecommerce_backend.product.importer.ProductImportRowException;
+import com.rj.ecommerce_backend.product.repository.ProductBulkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams products from NDJSON or CSV into the database in chunks.
+ * <p>
+ * Rows are validated one at a time and buffered until a chunk is full; each chunk is inserted through
+ * {@link ProductBulkRepository} in its own transaction. Invalid rows are skipped and reported, so a bad line
+ * does not cost the rest of the file. Category names are resolved against the category snapshot taken
+ * when the import starts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final ProductBulkRepository productBulkRepository;
+    private final CategoryCatalog categoryCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ProductImportProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, ImportJob> imports;
+    private Counter importedRows;
+    private Counter rejectedRows;
+
+    @PostConstruct
+    public void init() {
+        imports = Caffeine.newBuilder()
+                .maximumSize(properties.getTrackedImports())
+                .build();
+        importedRows = Counter.builder("product.import.rows")
+                .description("Rows processed by bulk product imports")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        rejectedRows = Counter.builder("product.import.rows")
+                .description("Rows processed by bulk product imports")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ProductImportStatusDTO importProducts(InputStream input, ProductImportFormat format) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), format, LocalDateTime.now());
+        imports.put(job.id, job);
+        log.info("Starting product import {} from {}", job.id, format);
+
+        Map<String, Long> categoryIds = categoryIdsByName();
+        List<ProductImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+
+        try (ProductImportReader reader = format.open(input, objectMapper)) {
+            while (true) {
+                ProductImportRow row;
+                try {
+                    row = reader.next();
+                } catch (ProductImportRowException e) {
+                    job.rowsRead.incrementAndGet();
+                    reject(job, e);
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                job.rowsRead.incrementAndGet();
+
+                try {
+                    chunk.add(validate(row, categoryIds));
+                } catch (ProductImportRowException e) {
+                    reject(job, e);
+                    continue;
+                }
+                if (chunk.size() >= properties.getChunkSize()) {
+                    writeChunk(chunk, categoryIds, job);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, categoryIds, job);
+            }
+        } catch (IOException e) {
+            job.finish("FAILED");
+            throw new InvalidProductImportException("Could not read the product import: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            job.finish("FAILED");
+            job.addError(e.getMessage(), properties.getMaxReportedErrors());
+            throw e;
+        }
+
+        job.finish("COMPLETED");
+        log.info("Product import {} finished: {} rows read, {} imported, {} rejected",
+                job.id, job.rowsRead.get(), job.imported.get(), job.rejected.get());
+        return job.toDTO();
+    }
+
+    @Override
+    public Optional<ProductImportStatusDTO> getImport(String importId) {
+        return Optional.ofNullable(imports.getIfPresent(importId)).map(ImportJob::toDTO);
+    }
+
+    @Override
+    public List<ProductImportStatusDTO> getImports() {
+        return imports.asMap().values().stream()
+                .sorted(Comparator.comparing((ImportJob job) -> job.startedAt).reversed())
+                .map(ImportJob::toDTO)
+                .toList();
+    }
+
+    private void writeChunk(List<ProductImportRow> chunk, Map<String, Long> categoryIds, ImportJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = transactionTemplate.execute(status -> {
+            List<Long> inserted = new ArrayList<>(chunk.size());
+            for (int from = 0; from < chunk.size(); from += properties.getBatchSize()) {
+                List<ProductImportRow> batch = chunk.subList(from, Math.min(from + properties.getBatchSize(), chunk.size()));
+                inserted.addAll(productBulkRepository.insertAll(
+                        batch, categoryIds, properties.getDefaultCurrencyCode(), now));
+            }
+            eventPublisher.publishEvent(new ProductsImportedEvent(inserted));
+            return inserted;
+        });
+        int count = ids == null ? 0 : ids.size();
+        job.imported.addAndGet(count);
+        importedRows.increment(count);
+        log.debug("Product import {} committed a chunk of {} products", job.id, count);
+    }
+
+    private void reject(ImportJob job, ProductImportRowException e) {
+        job.rejected.incrementAndGet();
+        rejectedRows.increment();
+        job.addError(e.getMessage(), properties.getMaxReportedErrors());
+    }
+
+    private Map<String, Long> categoryIdsByName() {
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (CategoryResponseDTO category : categoryCatalog.current().categories()) {
+            categoryIds.put(category.name(), category.id());
+        }
+        return categoryIds;
+    }
+
+    private static ProductImportRow validate(ProductImportRow row, Map<String, Long> categoryIds) {
+        long line = row.line();
+        String name = row.name() == null ? null : row.name().trim();
+        if (name == null || name.isEmpty()) {
+            throw new ProductImportRowException(line, "name is required");
+        }
+        if (name.length() > MAX_TEXT_LENGTH) {
+            throw new ProductImportRowException(line, "name is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (row.description() != null && row.description().length() > MAX_TEXT_LENGTH) {
+            throw new ProductImportRowException(line, "description is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+
+        BigDecimal price = row.price();
+        if (price == null) {
+            throw new ProductImportRowException(line, "price is required");
+        }
+        if (price.signum() < 0) {
+            throw new ProductImportRowException(line, "price must not be negative");
+        }
+        if (price.stripTrailingZeros().scale() > 2) {
+            throw new ProductImportRowException(line, "price has more than two decimal places");
+        }
+
+        if (row.quantity() == null) {
+            throw new ProductImportRowException(line, "quantity is required");
+        }
+        if (row.quantity() < 0) {
+            throw new ProductImportRowException(line, "quantity must not be negative");
+        }
+
+        if (row.currencyCode() != null) {
+            try {
+                Currency.getInstance(row.currencyCode());
+            } catch (IllegalArgumentException e) {
+                throw new ProductImportRowException(line, "invalid currency code: " + row.currencyCode());
+            }
+        }
+
+        List<String> categories = row.categories().stream().distinct().toList();
+        List<String> unknown = categories.stream().filter(category -> !categoryIds.containsKey(category)).toList();
+        if (!unknown.isEmpty()) {
+            throw new ProductImportRowException(line, "unknown categories: " + unknown);
+        }
+
+        return new ProductImportRow(line, name, row.description(), price.setScale(2), row.currencyCode(),
+                row.quantity(), categories);
+    }
+
+    private static final class ImportJob {
+
+        private final String id;
+        private final ProductImportFormat format;
+        private final LocalDateTime startedAt;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+        private volatile String status = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, ProductImportFormat format, LocalDateTime startedAt) {
+            this.id = id;
+            this.format = format;
+            this.startedAt = startedAt;
+        }
+
+        private synchronized void addError(String error, int maxErrors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+
+        private void finish(String finalStatus) {
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private synchronized ProductImportStatusDTO toDTO() {
+            return new ProductImportStatusDTO(id, format.name(), status, startedAt, finishedAt,
+                    rowsRead.get(), imported.get(), rejected.get(), List.copyOf(errors));
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.rj.ecommerce_backend.product.service;
 
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingSlice;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.ProductUpdateDTO;
@@ -9,6 +13,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +24,24 @@ public interface ProductService {
 
     Optional<ProductResponseDTO> getProductById(Long id);
 
+    /**
+     * The product as last modified at {@code notModifiedBefore} or later, with the date of the state returned.
+     */
+    Optional<VersionedProduct> getProductById(Long id, Instant notModifiedBefore);
+
     Optional<Product> getProductEntityForValidation(Long productId);
 
+    Optional<LocalDateTime> getProductLastModified(Long id);
+
     Page<ProductResponseDTO> getAllProducts(Pageable pageable, ProductSearchCriteria criteria);
 
+    ListingSlice<ProductResponseDTO> sliceProducts(Pageable pageable, ProductSearchCriteria criteria,
+                                                   boolean approximateTotal);
+
+    ProductFacetsDTO getProductFacets(ProductSearchCriteria criteria);
+
+    CursorPage<ProductResponseDTO> scrollProducts(KeysetRequest request, ProductSearchCriteria criteria);
+
     ProductResponseDTO updateProduct(Long id, ProductUpdateDTO productDTO, List<MultipartFile> newImages);
 
     void reduceProductQuantity(Long productId, int newQuantity);
@@ -1,34 +1,62 @@
 package com.rj.ecommerce_backend.product.service;
 
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetQueryExecutor;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingCountCache;
+import com.rj.ecommerce_backend.paging.ListingSlice;
+import com.rj.ecommerce_backend.paging.SliceQueryExecutor;
+import com.rj.ecommerce_backend.product.ProductSearchProperties;
 import com.rj.ecommerce_backend.product.domain.Category;
 import com.rj.ecommerce_backend.product.domain.Image;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.ProductUpdateDTO;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.exceptions.FacetsUnavailableException;
 import com.rj.ecommerce_backend.product.exceptions.FileStorageException;
 import com.rj.ecommerce_backend.product.exceptions.ImageNotFoundException;
 import com.rj.ecommerce_backend.product.exceptions.InsufficientStockException;
 import com.rj.ecommerce_backend.product.exceptions.ProductNotFoundException;
 import com.rj.ecommerce_backend.product.mapper.ProductMapper;
 import com.rj.ecommerce_backend.product.repository.CategoryRepository;
-import com.rj.ecommerce_backend.product.repository.ImageRepository;
 import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.search.ProductFacetIndex;
+import com.rj.ecommerce_backend.product.search.ProductSearchIndex;
+import com.rj.ecommerce_backend.product.search.ProductSpecifications;
 import com.rj.ecommerce_backend.product.valueobject.*;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -38,9 +66,17 @@ public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
-    private final ImageRepository imageRepository;
     private final FileStorageService fileStorageService;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ProductCatalogVersion catalogVersion;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductSearchProperties productSearchProperties;
+    private final KeysetQueryExecutor keysetQueryExecutor;
+    private final SliceQueryExecutor sliceQueryExecutor;
+    private final ListingCountCache listingCountCache;
+    private final ApplicationEventPublisher eventPublisher;
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -51,18 +87,33 @@ public class ProductServiceImpl implements ProductService {
         Product savedProduct = productRepository.save(product);
 
         if (images != null && !images.isEmpty()) {
-            List<Image> savedImages = images.stream()
-                    .map(file -> fileStorageService.storeFile(file, "Product Image", savedProduct))
-                    .toList();
-            product.setImageList(savedImages);
+            product.setImageList(fileStorageService.storeFiles(images, "Product Image", savedProduct));
         }
 
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct.getId()));
         return productMapper.mapToDTO(savedProduct);
     }
 
     @Override
     public Optional<ProductResponseDTO> getProductById(Long id) {
-        return productRepository.findById(id).map(productMapper::mapToDTO);
+        return getProductById(id, Instant.MIN).map(VersionedProduct::product);
+    }
+
+    @Override
+    public Optional<VersionedProduct> getProductById(Long id, Instant notModifiedBefore) {
+        return productCache.get(id, notModifiedBefore, this::loadVersioned);
+    }
+
+    // The categories version is read first, so the date is never later than the state that is mapped
+    private Optional<VersionedProduct> loadVersioned(Long id) {
+        long categoriesVersion = catalogVersion.categoriesVersion();
+        return productRepository.findById(id).map(product -> new VersionedProduct(productMapper.mapToDTO(product),
+                ProductCatalogVersion.productLastModified(product.getUpdatedAt(), categoriesVersion)));
+    }
+
+    @Override
+    public Optional<LocalDateTime> getProductLastModified(Long id) {
+        return productRepository.findUpdatedAtById(id);
     }
 
     @Override
@@ -73,10 +124,69 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public Page<ProductResponseDTO> getAllProducts(Pageable pageable, ProductSearchCriteria criteria) {
 
+        Optional<Page<ProductResponseDTO>> indexed = findInMemory(criteria, pageable);
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
         Specification<Product> spec = criteria.toSpecification();
 
         Page<Product> products = productRepository.findAll(spec, pageable);
 
+        return mapPageToDTO(products);
+    }
+
+    @Override
+    public ListingSlice<ProductResponseDTO> sliceProducts(Pageable pageable, ProductSearchCriteria criteria,
+                                                          boolean approximateTotal) {
+
+        // An index answer already knows its match count, so it costs nothing to pass on
+        Optional<Page<ProductResponseDTO>> indexed = findInMemory(criteria, pageable);
+        if (indexed.isPresent()) {
+            Page<ProductResponseDTO> page = indexed.get();
+            return ListingSlice.of(page, approximateTotal ? page.getTotalElements() : null);
+        }
+
+        Specification<Product> spec = criteria.toSpecification();
+        Slice<Product> products = sliceQueryExecutor.findSlice(Product.class, spec, pageable);
+        fetchAssociations(products.getContent());
+
+        Long total = approximateTotal
+                ? listingCountCache.count("products", criteria, () -> productRepository.count(spec))
+                : null;
+        return ListingSlice.of(products.map(productMapper::mapToDTO), total);
+    }
+
+    @Override
+    public ProductFacetsDTO getProductFacets(ProductSearchCriteria criteria) {
+        if (!productFacetIndex.isReady()) {
+            throw new FacetsUnavailableException();
+        }
+
+        Collection<Long> searchMatches = null;
+        if (criteria.search() != null && !criteria.search().isBlank()) {
+            searchMatches = productSearchIndex.searchNameOrId(criteria.search())
+                    .orElseGet(() -> findIdsMatching(ProductSpecifications.withSearchCriteria(criteria.search())));
+        }
+
+        return productFacetIndex.facets(criteria, searchMatches)
+                .orElseThrow(FacetsUnavailableException::new);
+    }
+
+    @Override
+    public CursorPage<ProductResponseDTO> scrollProducts(KeysetRequest request, ProductSearchCriteria criteria) {
+        Optional<List<Long>> matches = productSearchIndex.searchNameOrId(criteria.search())
+                .filter(ids -> ids.size() <= productSearchProperties.getMaxFilteredMatches());
+        if (matches.isPresent() && matches.get().isEmpty()) {
+            return new CursorPage<>(List.of(), request.size(), null, false);
+        }
+
+        Specification<Product> spec = matches.isPresent()
+                ? criteria.toSpecification(matches.get())
+                : criteria.toSpecification();
+
+        CursorPage<Product> products = keysetQueryExecutor.findSlice(Product.class, spec, request);
+        fetchAssociations(products.content());
         return products.map(productMapper::mapToDTO);
     }
 
@@ -104,21 +214,17 @@ public class ProductServiceImpl implements ProductService {
 
         // Handle new images
         if (newImages != null && !newImages.isEmpty()) {
-            for (MultipartFile file : newImages) {
-                try {
-                    Image savedImage = fileStorageService.storeFile(file, "Product Image", product);
-                    if (savedImage != null) {
-                        savedImage.setProduct(product);
-                        product.getImageList().add(savedImage);
-                        imageRepository.save(savedImage);
-                    }
-                } catch (FileStorageException e) {
-                    log.error("Failed to store image for product {}: {}", id, e.getMessage());
-                }
+            try {
+                product.getImageList().addAll(fileStorageService.storeFiles(newImages, "Product Image", product));
+            } catch (FileStorageException e) {
+                log.error("Failed to store images for product {}: {}", id, e.getMessage());
             }
         }
 
+        // Added images alone do not make the product dirty, but they change its representation
+        product.setUpdatedAt(LocalDateTime.now());
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id));
         return productMapper.mapToDTO(savedProduct);
     }
 
@@ -133,7 +239,9 @@ public class ProductServiceImpl implements ProductService {
             throw new InsufficientStockException("Cannot reduce stock below zero");
         }
 
-        productRepository.updateProductQuantity(productId, new StockQuantity(currentStock - quantityToReduce));
+        productRepository.updateProductQuantity(
+                productId, new StockQuantity(currentStock - quantityToReduce), LocalDateTime.now());
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(productId));
     }
 
 
@@ -143,18 +251,25 @@ public class ProductServiceImpl implements ProductService {
             throw new ProductNotFoundException(id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Override
     public Page<ProductResponseDTO> findProductsByCategory(Long categoryId, Pageable pageable) {
         Page<Product> products = productRepository.findByCategories_Id(categoryId, pageable);
-        return products.map(productMapper::mapToDTO);
+        return mapPageToDTO(products);
     }
 
     @Override
     public Page<ProductResponseDTO> searchProductsByName(String productName, Pageable pageable) {
+        Optional<Page<ProductResponseDTO>> indexed = productSearchIndex.search(productName)
+                .flatMap(matches -> findIndexedMatches(matches, pageable, null));
+        if (indexed.isPresent()) {
+            return indexed.get();
+        }
+
         Page<Product> products = productRepository.findByProductNameValueContainingIgnoreCase(productName, pageable);
-        return products.map(productMapper::mapToDTO);
+        return mapPageToDTO(products);
     }
 
     @Override
@@ -174,9 +289,106 @@ public class ProductServiceImpl implements ProductService {
         fileStorageService.deleteImage(imageToDelete);
 
         // Save the updated product
+        product.setUpdatedAt(LocalDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(productId));
     }
-}
 
+    private Page<ProductResponseDTO> mapPageToDTO(Page<Product> products) {
+        fetchAssociations(products.getContent());
+        return products.map(productMapper::mapToDTO);
+    }
+
+    // Loads categories and images for the whole page up front, so mapping costs two queries
+    // instead of two per product.
+    private void fetchAssociations(List<Product> products) {
+        if (!products.isEmpty()) {
+            List<Long> ids = products.stream().map(Product::getId).toList();
+            productRepository.findWithCategoriesByIdIn(ids);
+            productRepository.findWithImagesByIdIn(ids);
+        }
+    }
+
+    // Resolves the search term from the trigram index and the filters from the catalog snapshot, as far as
+    // they can answer. Empty means the database has to run the whole query.
+    private Optional<Page<ProductResponseDTO>> findInMemory(ProductSearchCriteria criteria, Pageable pageable) {
+        Optional<List<Long>> searchMatches = productSearchIndex.searchNameOrId(criteria.search());
+        boolean searching = criteria.search() != null && !criteria.search().isBlank();
+        if (searching && searchMatches.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (criteria.hasFilters()) {
+            Optional<List<Long>> filtered = productFacetIndex.filter(criteria, searchMatches.orElse(null));
+            if (filtered.isPresent()) {
+                return findIndexedMatches(filtered.get(), pageable, null);
+            }
+            return searchMatches.flatMap(matches -> findIndexedMatches(matches, pageable, criteria));
+        }
+        return searchMatches.flatMap(matches -> findIndexedMatches(matches, pageable, null));
+    }
+
+    // Serves a listing from ids resolved in memory, ranked or ascending. When no filters remain the page is cut
+    // from the id list itself, ordered by relevance or id; otherwise, or for other sort orders, the ids become an
+    // id filter on the database query, as long as there are few enough of them. Empty means the database has
+    // to run the query.
+    private Optional<Page<ProductResponseDTO>> findIndexedMatches(List<Long> rankedIds, Pageable pageable,
+                                                                  ProductSearchCriteria remainingFilters) {
+        if (pageable.isUnpaged()) {
+            return Optional.empty();
+        }
+        if (rankedIds.isEmpty()) {
+            return Optional.of(Page.empty(pageable));
+        }
+
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        boolean sortableInMemory = sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1);
+        if (remainingFilters == null && sortableInMemory) {
+            List<Long> orderedIds = rankedIds;
+            if (idOrder != null) {
+                orderedIds = new ArrayList<>(rankedIds);
+                orderedIds.sort(idOrder.isAscending() ? Comparator.naturalOrder() : Comparator.reverseOrder());
+            }
+            return Optional.of(mapMatchesToDTO(orderedIds, pageable));
+        }
 
+        if (rankedIds.size() <= productSearchProperties.getMaxFilteredMatches()) {
+            Specification<Product> spec = remainingFilters == null
+                    ? ProductSpecifications.withIdIn(rankedIds)
+                    : remainingFilters.toSpecification(rankedIds);
+            return Optional.of(mapPageToDTO(productRepository.findAll(spec, pageable)));
+        }
+        return Optional.empty();
+    }
 
+    // Read only when the search index cannot answer; more matches than are pushed into a listing are not counted
+    private List<Long> findIdsMatching(Specification<Product> spec) {
+        int limit = productSearchProperties.getMaxFilteredMatches();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(root.get("id")).where(spec.toPredicate(root, query, cb));
+        List<Long> ids = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        if (ids.size() > limit) {
+            throw new FacetsUnavailableException("Too many products match the search to count its facets");
+        }
+        return ids;
+    }
+
+    // Loads one page of already ordered ids in a single query and keeps that order.
+    private Page<ProductResponseDTO> mapMatchesToDTO(List<Long> orderedIds, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), orderedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), orderedIds.size());
+        List<Long> pageIds = orderedIds.subList(from, to);
+
+        Map<Long, Product> productsById = productRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = pageIds.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return mapPageToDTO(new PageImpl<>(products, pageable, orderedIds.size()));
+    }
+}
@@ -0,0 +1,11 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO;
+
+import java.util.List;
+
+public interface ProductStockService {
+
+    List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments);
+}
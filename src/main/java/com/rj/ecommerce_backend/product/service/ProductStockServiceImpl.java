@@ -0,0 +1,125 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.ProductStockProperties;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO.Status;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import com.rj.ecommerce_backend.product.exceptions.InvalidStockAdjustmentException;
+import com.rj.ecommerce_backend.product.repository.ProductBulkRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies stock adjustments in chunks, each in its own transaction.
+ * <p>
+ * A chunk locks its products with one query, applies the adjustments in request order in memory and writes
+ * the resulting quantities with one batched update, instead of a full product update per SKU. Adjustments
+ * that cannot be applied are reported and skipped; the rest of the chunk still commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private final ProductBulkRepository productBulkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductStockProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public List<StockAdjustmentResultDTO> adjustStock(List<StockAdjustmentDTO> adjustments) {
+        if (adjustments.size() > properties.getMaxAdjustments()) {
+            throw new InvalidStockAdjustmentException("At most " + properties.getMaxAdjustments()
+                    + " stock adjustments are accepted per request, got " + adjustments.size());
+        }
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(adjustments.size());
+        for (int from = 0; from < adjustments.size(); from += properties.getChunkSize()) {
+            List<StockAdjustmentDTO> chunk =
+                    adjustments.subList(from, Math.min(from + properties.getChunkSize(), adjustments.size()));
+            results.addAll(Objects.requireNonNull(transactionTemplate.execute(status -> applyChunk(chunk))));
+        }
+
+        results.forEach(result ->
+                meterRegistry.counter("product.stock.adjustments", "status", result.status().name()).increment());
+        log.info("Applied {} of {} stock adjustments", results.stream()
+                .filter(result -> result.status() == Status.APPLIED)
+                .count(), results.size());
+        return results;
+    }
+
+    private List<StockAdjustmentResultDTO> applyChunk(List<StockAdjustmentDTO> chunk) {
+        Set<Long> productIds = new HashSet<>();
+        for (StockAdjustmentDTO adjustment : chunk) {
+            if (adjustment != null && adjustment.productId() != null) {
+                productIds.add(adjustment.productId());
+            }
+        }
+        Map<Long, Integer> quantities = productBulkRepository.lockQuantities(productIds);
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>(chunk.size());
+        Map<Long, Integer> changed = new LinkedHashMap<>();
+        for (StockAdjustmentDTO adjustment : chunk) {
+            StockAdjustmentResultDTO result = apply(adjustment, quantities);
+            if (result.status() == Status.APPLIED) {
+                quantities.put(result.productId(), result.quantity());
+                changed.put(result.productId(), result.quantity());
+            }
+            results.add(result);
+        }
+
+        if (!changed.isEmpty()) {
+            productBulkRepository.updateQuantities(changed, LocalDateTime.now());
+            eventPublisher.publishEvent(new ProductsStockChangedEvent(List.copyOf(changed.keySet())));
+        }
+        log.debug("Stock adjustment chunk of {} changed {} products", chunk.size(), changed.size());
+        return results;
+    }
+
+    private static StockAdjustmentResultDTO apply(StockAdjustmentDTO adjustment, Map<Long, Integer> quantities) {
+        if (adjustment == null || adjustment.productId() == null) {
+            return StockAdjustmentResultDTO.rejected(null, Status.INVALID, "productId is required");
+        }
+        Long productId = adjustment.productId();
+        if ((adjustment.delta() == null) == (adjustment.quantity() == null)) {
+            return StockAdjustmentResultDTO.rejected(productId, Status.INVALID,
+                    "Exactly one of delta and quantity is required");
+        }
+        if (adjustment.quantity() != null && adjustment.quantity() < 0) {
+            return StockAdjustmentResultDTO.rejected(productId, Status.INVALID, "quantity must not be negative");
+        }
+
+        Integer current = quantities.get(productId);
+        if (current == null) {
+            return StockAdjustmentResultDTO.rejected(productId, Status.NOT_FOUND, "Product not found");
+        }
+        if (adjustment.quantity() != null) {
+            return StockAdjustmentResultDTO.applied(productId, adjustment.quantity());
+        }
+
+        long updated = (long) current + adjustment.delta();
+        if (updated < 0) {
+            return StockAdjustmentResultDTO.rejected(productId, Status.INSUFFICIENT_STOCK,
+                    "Only " + current + " in stock");
+        }
+        if (updated > Integer.MAX_VALUE) {
+            return StockAdjustmentResultDTO.rejected(productId, Status.INVALID, "quantity would overflow");
+        }
+        return StockAdjustmentResultDTO.applied(productId, (int) updated);
+    }
+}
@@ -0,0 +1,18 @@
+package com.rj.ecommerce_backend.product.service;
+
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+
+/**
+ * An image file on disk with what is needed to serve it: its size and modification time, a strong
+ * ETag derived from both, and the content type it should be sent with.
+ */
+public record StoredImage(
+        Path path,
+        long length,
+        long lastModified,
+        String etag,
+        MediaType contentType
+) {
+}
@@ -0,0 +1,15 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
+
+import java.time.Instant;
+
+/**
+ * A product view with the Last-Modified date of the state it was mapped from, which its HTTP validators are
+ * built from.
+ */
+public record VersionedProduct(
+        ProductResponseDTO product,
+        Instant lastModified
+) {
+}
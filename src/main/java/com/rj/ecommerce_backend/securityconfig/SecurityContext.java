@@ -5,5 +5,6 @@ import com.rj.ecommerce_backend.user.domain.User;
 public interface SecurityContext {
     void checkAccess(Long userId);
     User getCurrentUser();
+    Long getCurrentUserId();
     boolean isAdmin();
 }
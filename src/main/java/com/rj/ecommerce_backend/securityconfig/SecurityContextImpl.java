@@ -1,39 +1,67 @@
 package com.rj.ecommerce_backend.securityconfig;
 
+import com.rj.ecommerce_backend.user.UserDetailsImpl;
 import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.repositories.UserRepository;
 import com.rj.ecommerce_backend.user.valueobject.Email;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 @Component
 @RequiredArgsConstructor
 public class SecurityContextImpl implements SecurityContext{
 
+    // The current user is resolved at most once per HTTP request and kept as a request attribute
+    private static final String CURRENT_USER_ATTRIBUTE = SecurityContextImpl.class.getName() + ".CURRENT_USER";
+
     private final UserRepository userRepository;
 
     @Override
     public void checkAccess(Long userId) {
-        User currentUser = getCurrentUser();
-        if (!currentUser.getId().equals(userId) && isAdmin()) {
+        if (!getCurrentUserId().equals(userId) && isAdmin()) {
             throw new AccessDeniedException("You don't have permission to access this resource");
         }
     }
 
     public User getCurrentUser() {
-        String username = SecurityContextHolder.getContext()
-                .getAuthentication()
-                .getName();
+        String username = getAuthentication().getName();
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null
+                && requestAttributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached
+                && username.equals(cached.getEmail().value())) {
+            return cached;
+        }
 
-        return userRepository.findUserByEmail(new Email(username))
+        User user = userRepository.findUserByEmail(new Email(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    @Override
+    public Long getCurrentUserId() {
+        if (getAuthentication().getPrincipal() instanceof UserDetailsImpl principal && principal.getId() != null) {
+            return principal.getId();
+        }
+        return getCurrentUser().getId();
     }
 
     public boolean isAdmin() {
-        return getCurrentUser().getAuthorities().stream()
-                .noneMatch(authority -> authority.getName().equals("ROLE_ADMIN"));
+        return getAuthentication().getAuthorities().stream()
+                .noneMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    private Authentication getAuthentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
     }
 }
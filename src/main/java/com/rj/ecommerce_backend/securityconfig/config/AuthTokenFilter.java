@@ -1,7 +1,10 @@
 package com.rj.ecommerce_backend.securityconfig.config;
 
 import com.rj.ecommerce_backend.securityconfig.services.JwtBlacklistService;
+import com.rj.ecommerce_backend.securityconfig.services.UserStatusCache;
 import com.rj.ecommerce_backend.securityconfig.utils.JwtUtils;
+import com.rj.ecommerce_backend.user.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +12,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,6 +24,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -30,6 +37,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtBlacklistService jwtBlacklistService;
 
+    private final UserStatusCache userStatusCache;
+
+    private final JwtConfig jwtConfig;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
@@ -45,9 +56,10 @@ public class AuthTokenFilter extends OncePerRequestFilter {
             }
 
             if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
+                UserDetails userDetails = jwtConfig.getStateless().isEnabled()
+                        ? buildUserDetailsFromClaims(jwtUtils.getVerifiedClaims(jwt))
+                        : userDetailsService.loadUserByUsername(jwtUtils.getUsernameFromJwtToken(jwt));
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -57,6 +69,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
+        } catch (DisabledException e) {
+            // A valid token of a disabled or deleted account; the request goes on unauthenticated
+            log.debug("Skipping authentication: {}", e.getMessage());
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e);
         }
@@ -64,5 +79,19 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails buildUserDetailsFromClaims(Claims claims) {
+        Long userId = Long.valueOf(claims.getSubject());
+        if (!userStatusCache.isActive(userId)) {
+            throw new DisabledException("User account is disabled or deleted: " + userId);
+        }
 
+        List<?> authorityNames = claims.get("authorities", List.class);
+        List<GrantedAuthority> authorities = authorityNames == null
+                ? List.of()
+                : authorityNames.stream()
+                        .<GrantedAuthority>map(name -> new SimpleGrantedAuthority(name.toString()))
+                        .toList();
+
+        return new UserDetailsImpl(userId, claims.get("username", String.class), null, authorities);
+    }
 }
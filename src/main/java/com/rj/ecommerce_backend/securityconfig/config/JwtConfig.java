@@ -19,10 +19,43 @@ public class JwtConfig {
 
     private Cleanup cleanup = new Cleanup();
 
+    private Blacklist blacklist = new Blacklist();
+
+    private ClaimsCache claimsCache = new ClaimsCache();
+
+    private Stateless stateless = new Stateless();
+
     @Getter
     @Setter
     public static class Cleanup {
-        private String cron = "0 0 * * * *"; // Default: every hour
+        private long intervalMs = 60_000;
         private int batchSize = 1000;
+        private int maxBatchesPerRun = 20; // Remaining backlog is picked up by the next run
+        private long pauseBetweenBatchesMs = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Blacklist {
+        private boolean inMemoryEnabled = true;
+        private long expectedInsertions = 100_000;
+        private double falsePositiveProbability = 0.001;
+        private long syncIntervalMs = 10_000; // Pick up tokens blacklisted on other nodes
+    }
+
+    @Getter
+    @Setter
+    public static class ClaimsCache {
+        private boolean enabled = true;
+        private long maximumSize = 50_000;
+        private long maxTtlMs = 300_000; // Never longer than the token's own expiry
+    }
+
+    @Getter
+    @Setter
+    public static class Stateless {
+        private boolean enabled = false; // Build the principal from token claims instead of loading the user
+        private long userStatusTtlMs = 30_000;
+        private long userStatusMaximumSize = 10_000;
     }
 }
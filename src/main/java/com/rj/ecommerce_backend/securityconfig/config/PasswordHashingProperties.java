@@ -0,0 +1,18 @@
+package com.rj.ecommerce_backend.securityconfig.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+    private int strength = 10; // BCrypt log rounds; hashes with a lower cost are upgraded on next login
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private long maxWaitMs = 2_000;
+    private int retryAfterSeconds = 1;
+}
@@ -5,6 +5,7 @@ import com.rj.ecommerce_backend.user.dtos.UserResponseDto;
 import com.rj.ecommerce_backend.user.services.AdminServiceImpl;
 import com.rj.ecommerce_backend.user.services.UserService;
 import com.rj.ecommerce_backend.securityconfig.dto.*;
+import com.rj.ecommerce_backend.securityconfig.exceptions.PasswordHashingRejectedException;
 import com.rj.ecommerce_backend.securityconfig.exceptions.UserAuthenticationException;
 import com.rj.ecommerce_backend.securityconfig.services.AuthService;
 import com.rj.ecommerce_backend.securityconfig.services.JwtBlacklistService;
@@ -51,6 +52,9 @@ public class AuthController {
                             .success(false)
                             .message(e.getMessage())
                             .build());
+        } catch (PasswordHashingRejectedException e) {
+            // Handled by GlobalExceptionHandler as 503 with Retry-After
+            throw e;
         } catch (Exception e) {
             log.error("Unexpected error during authentication", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -19,8 +19,12 @@ public class RefreshToken {
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
+    // Only the SHA-256 digest is stored; a leaked table cannot be replayed
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
-    @Column(nullable = false, unique = true)
+    // Raw token, available only on the instance returned when the token is issued
+    @Transient
     private String token;
 
     @Column(nullable = false)
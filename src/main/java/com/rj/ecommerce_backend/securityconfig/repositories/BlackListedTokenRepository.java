@@ -1,5 +1,6 @@
 package com.rj.ecommerce_backend.securityconfig.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,9 +17,18 @@ public interface BlackListedTokenRepository extends JpaRepository<BlacklistedTok
     @Query("SELECT b FROM BlacklistedToken b WHERE b.expiresAt <= :expiryDate")
     List<BlacklistedToken> findExpiredTokens(@Param("expiryDate") LocalDateTime expiryDate);
 
+    @Query("SELECT b.id FROM BlacklistedToken b WHERE b.expiresAt <= :expiryDate ORDER BY b.expiresAt")
+    List<Long> findExpiredTokenIds(@Param("expiryDate") LocalDateTime expiryDate, Pageable pageable);
+
     @Modifying
-    @Query("DELETE FROM BlacklistedToken b WHERE b.expiresAt <= :expiryDate")
-    int deleteExpiredTokens(@Param("expiryDate") LocalDateTime expiryDate);
+    @Query("DELETE FROM BlacklistedToken b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    long countByExpiresAtLessThanEqual(LocalDateTime expiryDate);
 
     List<BlacklistedToken> findByUserId(Long userId);
+
+    List<BlacklistedToken> findByExpiresAtAfter(LocalDateTime now);
+
+    List<BlacklistedToken> findByBlacklistedAtAfterAndExpiresAtAfter(LocalDateTime blacklistedSince, LocalDateTime now);
 }
@@ -1,24 +1,47 @@
 package com.rj.ecommerce_backend.securityconfig.repositories;
 
 import com.rj.ecommerce_backend.securityconfig.domain.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // One statement per login or refresh: refresh_tokens has a unique key on user_id
+    @Modifying
+    @Query(value = """
+            INSERT INTO refresh_tokens (user_id, token_hash, expiry_date, created_at, created_by_ip)
+            VALUES (:userId, :tokenHash, :expiryDate, :createdAt, :createdByIp)
+            ON DUPLICATE KEY UPDATE token_hash = VALUES(token_hash), expiry_date = VALUES(expiry_date),
+                created_at = VALUES(created_at), created_by_ip = VALUES(created_by_ip)
+            """, nativeQuery = true)
+    int upsertForUser(@Param("userId") Long userId,
+                      @Param("tokenHash") String tokenHash,
+                      @Param("expiryDate") Instant expiryDate,
+                      @Param("createdAt") Instant createdAt,
+                      @Param("createdByIp") String createdByIp);
 
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.token = :token")
-    Optional<RefreshToken> findByTokenWithUser(@Param("token") String token);
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate <= :expiryDate ORDER BY rt.expiryDate")
+    List<Long> findExpiredTokenIds(@Param("expiryDate") Instant expiryDate, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    long countByExpiryDateLessThanEqual(Instant expiryDate);
 
 }
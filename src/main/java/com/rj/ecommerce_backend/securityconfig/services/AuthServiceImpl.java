@@ -7,6 +7,7 @@ import com.rj.ecommerce_backend.securityconfig.dto.AuthResponse;
 import com.rj.ecommerce_backend.securityconfig.dto.JwtResponse;
 import com.rj.ecommerce_backend.securityconfig.dto.LoginRequest;
 import com.rj.ecommerce_backend.securityconfig.dto.TokenRefreshRequest;
+import com.rj.ecommerce_backend.securityconfig.exceptions.PasswordHashingRejectedException;
 import com.rj.ecommerce_backend.securityconfig.exceptions.TokenRefreshException;
 import com.rj.ecommerce_backend.securityconfig.exceptions.UserAuthenticationException;
 import com.rj.ecommerce_backend.securityconfig.utils.JwtUtils;
@@ -153,6 +154,8 @@ public class AuthServiceImpl implements AuthService {
         } catch (BadCredentialsException e) {
             log.warn("Invalid credentials provided for user: {}", loginRequest.getEmail());
             throw new UserAuthenticationException("Invalid email or password");
+        } catch (PasswordHashingRejectedException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Authentication failed for user: {}", loginRequest.getEmail(), e);
             throw new UserAuthenticationException("Authentication failed: " + e.getMessage());
@@ -0,0 +1,120 @@
+package com.rj.ecommerce_backend.securityconfig.services;
+
+import com.rj.ecommerce_backend.securityconfig.config.JwtConfig;
+import com.rj.ecommerce_backend.securityconfig.repositories.BlackListedTokenRepository;
+import com.rj.ecommerce_backend.securityconfig.repositories.RefreshTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deletes expired blacklist and refresh-token rows in small batches, oldest expiry first.
+ * <p>
+ * Each batch selects at most {@code batchSize} ids through the expiry index and deletes them by primary key
+ * in its own transaction, so row locks are held briefly. A run stops after {@code maxBatchesPerRun}
+ * batches and the remaining backlog is picked up by the next run.
+ */
+@Component
+@Slf4j
+public class ExpiredTokenReaper {
+
+    private final JwtConfig jwtConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final List<ExpiringTable> tables;
+
+    public ExpiredTokenReaper(BlackListedTokenRepository blackListedTokenRepository,
+                              RefreshTokenRepository refreshTokenRepository,
+                              JwtConfig jwtConfig,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry) {
+        this.jwtConfig = jwtConfig;
+        this.transactionTemplate = transactionTemplate;
+        this.tables = List.of(
+                new ExpiringTable("blacklisted_tokens", meterRegistry,
+                        pageable -> blackListedTokenRepository.findExpiredTokenIds(LocalDateTime.now(), pageable),
+                        blackListedTokenRepository::deleteByIdIn,
+                        () -> blackListedTokenRepository.countByExpiresAtLessThanEqual(LocalDateTime.now())),
+                new ExpiringTable("refresh_tokens", meterRegistry,
+                        pageable -> refreshTokenRepository.findExpiredTokenIds(Instant.now(), pageable),
+                        refreshTokenRepository::deleteByIdIn,
+                        () -> refreshTokenRepository.countByExpiryDateLessThanEqual(Instant.now()))
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.cleanup.interval-ms:60000}")
+    public void reapExpiredTokens() {
+        for (ExpiringTable table : tables) {
+            try {
+                int deleted = reap(table);
+                if (deleted > 0) {
+                    log.info("Deleted {} expired rows from {}", deleted, table.name());
+                }
+                table.backlog().set(table.countExpired().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error deleting expired rows from {}", table.name(), e);
+            }
+        }
+    }
+
+    private int reap(ExpiringTable table) throws InterruptedException {
+        JwtConfig.Cleanup config = jwtConfig.getCleanup();
+        Pageable firstBatch = PageRequest.of(0, config.getBatchSize());
+        int deleted = 0;
+
+        for (int batch = 0; batch < config.getMaxBatchesPerRun(); batch++) {
+            if (batch > 0 && config.getPauseBetweenBatchesMs() > 0) {
+                Thread.sleep(config.getPauseBetweenBatchesMs());
+            }
+
+            Integer batchDeleted = table.deleteLatency().record(() -> transactionTemplate.execute(status -> {
+                List<Long> ids = table.findExpiredIds().apply(firstBatch);
+                return ids.isEmpty() ? 0 : table.deleteByIds().apply(ids);
+            }));
+
+            deleted += batchDeleted == null ? 0 : batchDeleted;
+            if (batchDeleted == null || batchDeleted < config.getBatchSize()) {
+                break;
+            }
+        }
+        return deleted;
+    }
+
+    private record ExpiringTable(String name,
+                                 Function<Pageable, List<Long>> findExpiredIds,
+                                 Function<List<Long>, Integer> deleteByIds,
+                                 Supplier<Long> countExpired,
+                                 AtomicLong backlog,
+                                 Timer deleteLatency) {
+
+        ExpiringTable(String name, MeterRegistry meterRegistry,
+                      Function<Pageable, List<Long>> findExpiredIds,
+                      Function<List<Long>, Integer> deleteByIds,
+                      Supplier<Long> countExpired) {
+            this(name, findExpiredIds, deleteByIds, countExpired, new AtomicLong(),
+                    Timer.builder("jwt.tokens.expired.delete")
+                            .description("Latency of one expired-token delete batch")
+                            .tag("table", name)
+                            .register(meterRegistry));
+            Gauge.builder("jwt.tokens.expired.backlog", backlog, AtomicLong::get)
+                    .description("Expired rows still waiting to be deleted")
+                    .tag("table", name)
+                    .register(meterRegistry);
+        }
+    }
+}
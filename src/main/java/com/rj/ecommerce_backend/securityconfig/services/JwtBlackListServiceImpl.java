@@ -9,7 +9,6 @@ import io.jsonwebtoken.Claims;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -26,6 +25,7 @@ public class JwtBlackListServiceImpl implements JwtBlacklistService {
 
     private final BlackListedTokenRepository blackListedTokenRepository;
     private final JwtUtils jwtUtils;
+    private final TokenBlacklistCache tokenBlacklistCache;
 
     @Override
     public void blacklistToken(String token, String username) {
@@ -42,6 +42,7 @@ public class JwtBlackListServiceImpl implements JwtBlacklistService {
             );
 
             blackListedTokenRepository.save(blacklistedToken);
+            tokenBlacklistCache.add(token, expirationDate.toInstant());
             log.info("Token blacklisted successfully for user: {}", username);
 
         } catch (Exception e) {
@@ -51,9 +52,14 @@ public class JwtBlackListServiceImpl implements JwtBlacklistService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public boolean isTokenBlacklisted(String token) {
         try {
-            return blackListedTokenRepository.existsByTokenString(token);
+            return switch (tokenBlacklistCache.lookup(token)) {
+                case BLACKLISTED -> true;
+                case NOT_BLACKLISTED -> false;
+                case UNKNOWN -> blackListedTokenRepository.existsByTokenString(token);
+            };
         } catch (Exception e) {
             log.error("Error checking blacklisted token", e);
             // For security, consider token blacklisted if there's a database error
@@ -61,17 +67,6 @@ public class JwtBlackListServiceImpl implements JwtBlacklistService {
         }
     }
 
-    @Scheduled(cron = "${token.cleanup.cron:0 0 * * * *}") // Default: Run every hour
-    public void cleanupExpiredTokens() {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            int deletedCount = blackListedTokenRepository.deleteExpiredTokens(now);
-            log.info("Cleaned up {} expired tokens", deletedCount);
-        } catch (Exception e) {
-            log.error("Error during token cleanup", e);
-        }
-    }
-
     @Override
     public List<TokenInfo> getUserTokens(Long userId) {
         return blackListedTokenRepository.findByUserId(userId).stream()
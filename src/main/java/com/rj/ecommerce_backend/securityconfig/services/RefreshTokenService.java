@@ -6,4 +6,5 @@ public interface RefreshTokenService {
 
     RefreshToken createRefreshToken(Long userId);
     RefreshToken verifyRefreshToken(String token);
+    void deleteUserTokens(Long userId);
 }
@@ -1,10 +1,10 @@
 package com.rj.ecommerce_backend.securityconfig.services;
 
-import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.repositories.UserRepository;
 import com.rj.ecommerce_backend.securityconfig.domain.RefreshToken;
 import com.rj.ecommerce_backend.securityconfig.repositories.RefreshTokenRepository;
 import com.rj.ecommerce_backend.securityconfig.exceptions.TokenRefreshException;
+import com.rj.ecommerce_backend.securityconfig.utils.TokenDigests;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -31,35 +31,45 @@ public class RefreshTokenServiceImpl implements RefreshTokenService{
     @Transactional
     public RefreshToken createRefreshToken(Long userId) {
         log.debug("Creating new refresh token for user: {}", userId);
-        RefreshToken refreshToken = new RefreshToken();
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
 
-        // Remove existing refresh token
-        refreshTokenRepository.deleteByUserId(user.getId());
+        String token = generateRefreshToken();
+        String tokenHash = TokenDigests.sha256Hex(token);
+        Instant now = Instant.now();
+        Instant expiryDate = now.plusMillis(refreshTokenDurationMs);
+        String createdByIp = getClientIp();
 
-        refreshToken.setUser(user);
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(generateRefreshToken());
-        refreshToken.setCreatedByIp(getClientIp());
+        // Replaces the user's previous token in place
+        refreshTokenRepository.upsertForUser(userId, tokenHash, expiryDate, now, createdByIp);
 
-        return refreshTokenRepository.save(refreshToken);
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUser(userRepository.getReferenceById(userId));
+        refreshToken.setToken(token);
+        refreshToken.setTokenHash(tokenHash);
+        refreshToken.setExpiryDate(expiryDate);
+        refreshToken.setCreatedAt(now);
+        refreshToken.setCreatedByIp(createdByIp);
+        return refreshToken;
     }
 
     @Override
     @Transactional
     public RefreshToken verifyRefreshToken(String token) {
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenWithUser(token)
+        // Every token is verified once and then rotated, so it is always read from the database
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenDigests.sha256Hex(token))
                 .orElseThrow(() -> new TokenRefreshException("Invalid refresh token"));
 
         if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
             throw new TokenRefreshException("Refresh token was expired");
         }
-
         return refreshToken;
     }
 
+    @Override
+    @Transactional
+    public void deleteUserTokens(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
     private String generateRefreshToken() {
         // Using UUID for refresh token
         return UUID.randomUUID().toString();
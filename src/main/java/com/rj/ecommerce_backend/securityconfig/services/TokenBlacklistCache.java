@@ -0,0 +1,178 @@
+package com.rj.ecommerce_backend.securityconfig.services;
+
+import com.rj.ecommerce_backend.securityconfig.config.JwtConfig;
+import com.rj.ecommerce_backend.securityconfig.repositories.BlackListedTokenRepository;
+import com.rj.ecommerce_backend.securityconfig.repositories.BlacklistedToken;
+import com.rj.ecommerce_backend.securityconfig.utils.BloomFilter;
+import com.rj.ecommerce_backend.securityconfig.utils.TokenDigests;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local tier in front of the {@code blacklisted_tokens} table.
+ * <p>
+ * A Bloom filter answers "definitely not blacklisted" without touching the database; an exact
+ * digest-to-expiry map confirms positives. Bloom false positives and lookups made before the
+ * warm-up finishes are reported as {@link Lookup#UNKNOWN} so the caller falls back to the database.
+ * Entries stop matching once the token's {@code exp} has passed and are swept on the next sync.
+ * <p>
+ * Tokens blacklisted on other nodes only reach this one on {@link #sync}. Until then they miss the Bloom
+ * filter and are reported as {@link Lookup#NOT_BLACKLISTED}, so such a token stays usable here for up to
+ * {@code jwt.blacklist.sync-interval-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBlacklistCache {
+
+    public enum Lookup {
+        BLACKLISTED,
+        NOT_BLACKLISTED,
+        UNKNOWN
+    }
+
+    private final BlackListedTokenRepository blackListedTokenRepository;
+    private final JwtConfig jwtConfig;
+
+    private final Map<String, Instant> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+    private volatile boolean warmedUp;
+    private volatile LocalDateTime lastSync;
+    private long bloomCapacity;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        if (!isEnabled()) {
+            log.info("In-memory token blacklist disabled, every lookup goes to the database");
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BlacklistedToken> activeTokens = blackListedTokenRepository.findByExpiresAtAfter(now);
+
+        activeTokens.forEach(token -> entries.put(
+                TokenDigests.sha256Hex(token.getTokenString()), toInstant(token.getExpiresAt())));
+        rebuildBloomFilter(activeTokens.size());
+
+        lastSync = now;
+        warmedUp = true;
+        log.info("In-memory token blacklist warmed up with {} active tokens", activeTokens.size());
+    }
+
+    public Lookup lookup(String token) {
+        if (!warmedUp) {
+            return Lookup.UNKNOWN;
+        }
+
+        byte[] digest = TokenDigests.sha256(token);
+        if (!bloomFilter.mightContain(TokenDigests.longAt(digest, 0), TokenDigests.longAt(digest, 8))) {
+            return Lookup.NOT_BLACKLISTED;
+        }
+
+        Instant expiresAt = entries.get(TokenDigests.toHex(digest));
+        if (expiresAt == null) {
+            // Bloom false positive
+            return Lookup.UNKNOWN;
+        }
+
+        // An expired token is rejected by signature validation anyway
+        return expiresAt.isAfter(Instant.now()) ? Lookup.BLACKLISTED : Lookup.NOT_BLACKLISTED;
+    }
+
+    public void add(String token, Instant expiresAt) {
+        if (!warmedUp) {
+            return;
+        }
+        addDigest(TokenDigests.sha256(token), expiresAt);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Pulls tokens blacklisted by other nodes, drops expired entries and resizes the Bloom filter
+     * once enough of it refers to tokens that are gone.
+     */
+    @Scheduled(fixedDelayString = "${jwt.blacklist.sync-interval-ms:10000}")
+    public void sync() {
+        if (!warmedUp) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            // Overlap the previous window so clock skew between nodes does not lose rows
+            LocalDateTime since = lastSync.minus(Duration.ofMillis(jwtConfig.getBlacklist().getSyncIntervalMs() * 2));
+            blackListedTokenRepository.findByBlacklistedAtAfterAndExpiresAtAfter(since, now)
+                    .forEach(token -> addDigest(
+                            TokenDigests.sha256(token.getTokenString()), toInstant(token.getExpiresAt())));
+            lastSync = now;
+        } catch (Exception e) {
+            log.error("Error syncing in-memory token blacklist", e);
+        }
+
+        evictExpired();
+    }
+
+    private synchronized void evictExpired() {
+        int before = entries.size();
+        Instant now = Instant.now();
+        entries.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        int removed = before - entries.size();
+
+        if (removed > 0 && removed >= entries.size()) {
+            // Bloom filters cannot forget; rebuild once stale bits outnumber live ones
+            rebuildBloomFilter(entries.size());
+            log.debug("Rebuilt token blacklist Bloom filter after removing {} expired entries", removed);
+        }
+    }
+
+    private synchronized void addDigest(byte[] digest, Instant expiresAt) {
+        if (!expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        entries.put(TokenDigests.toHex(digest), expiresAt);
+        bloomFilter.put(TokenDigests.longAt(digest, 0), TokenDigests.longAt(digest, 8));
+
+        if (entries.size() > bloomCapacity) {
+            // Grow before the false positive rate degrades
+            rebuildBloomFilter(entries.size() * 2L);
+        }
+    }
+
+    private void rebuildBloomFilter(long expectedEntries) {
+        JwtConfig.Blacklist config = jwtConfig.getBlacklist();
+        long capacity = Math.max(config.getExpectedInsertions(), expectedEntries);
+        BloomFilter rebuilt = BloomFilter.create(capacity, config.getFalsePositiveProbability());
+
+        entries.keySet().forEach(key -> {
+            byte[] digest = HexFormat.of().parseHex(key);
+            rebuilt.put(TokenDigests.longAt(digest, 0), TokenDigests.longAt(digest, 8));
+        });
+
+        bloomCapacity = capacity;
+        bloomFilter = rebuilt;
+    }
+
+    private boolean isEnabled() {
+        return jwtConfig.getBlacklist().isInMemoryEnabled();
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
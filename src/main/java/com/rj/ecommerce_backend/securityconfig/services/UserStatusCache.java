@@ -0,0 +1,64 @@
+package com.rj.ecommerce_backend.securityconfig.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rj.ecommerce_backend.securityconfig.config.JwtConfig;
+import com.rj.ecommerce_backend.user.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Short-lived answer to "may this user still authenticate?" for the stateless JWT mode.
+ * <p>
+ * Deleted users are reported as inactive. Writes that change the status call {@link #invalidate(Long)},
+ * which takes effect after the surrounding transaction commits; other nodes see the change within the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final JwtConfig jwtConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<Long, Boolean> activeByUserId;
+
+    @PostConstruct
+    public void init() {
+        JwtConfig.Stateless config = jwtConfig.getStateless();
+        activeByUserId = Caffeine.newBuilder()
+                .maximumSize(config.getUserStatusMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(config.getUserStatusTtlMs()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, activeByUserId, "user.status");
+    }
+
+    public boolean isActive(Long userId) {
+        return activeByUserId.get(userId,
+                id -> userRepository.findActiveStatusById(id).orElse(false));
+    }
+
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activeByUserId.invalidate(userId);
+                }
+            });
+        } else {
+            activeByUserId.invalidate(userId);
+        }
+        log.debug("Invalidated cached account status for user ID: {}", userId);
+    }
+}
@@ -1,10 +1,16 @@
 package com.rj.ecommerce_backend.securityconfig.utils;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.rj.ecommerce_backend.user.UserDetailsImpl;
 import com.rj.ecommerce_backend.securityconfig.config.JwtConfig;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +21,7 @@ import org.springframework.util.StringUtils;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.List;
 
 @Component
@@ -25,6 +32,29 @@ public class JwtUtils {
     private final Long jwtExpirationTime = 900000L;
 
     private final JwtConfig jwtConfig;
+    private final MeterRegistry meterRegistry;
+
+    private Key signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(getJwtSecret()));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+
+        JwtConfig.ClaimsCache config = jwtConfig.getClaimsCache();
+        if (config.isEnabled()) {
+            verifiedClaims = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumSize())
+                    .expireAfter(new ClaimsExpiry(TimeUnit.MILLISECONDS.toNanos(config.getMaxTtlMs())))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaims, "jwt.claims");
+        }
+    }
 
     private String getJwtSecret() {
         return jwtConfig.getSecret();
@@ -34,15 +64,10 @@ public class JwtUtils {
         return jwtConfig.getExpirationMs();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(getJwtSecret()));
-    }
-
     public String generateJwtToken(Authentication authentication) {
         UserDetailsImpl userPrincipal = (UserDetailsImpl) authentication.getPrincipal();
 
         log.info(Integer.toString(getJwtExpirationMs()));
-        log.info(getJwtSecret());
 
         // Extract authorities from the user principal
         List<String> authorities = userPrincipal.getAuthorities().stream()
@@ -55,25 +80,28 @@ public class JwtUtils {
                 .claim("authorities", authorities) // Add authorities as a claim
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationTime))
-                .signWith(key(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
+    /**
+     * Returns the claims of a token whose signature and expiry have been verified.
+     * Verified tokens are cached by digest, so repeated calls for the same token skip the HMAC check.
+     * Tokens that fail verification are never cached and the parser exception is rethrown.
+     */
+    public Claims getVerifiedClaims(String token) {
+        if (verifiedClaims == null) {
+            return parseClaims(token);
+        }
+        return verifiedClaims.get(TokenDigests.sha256Hex(token), digest -> parseClaims(token));
+    }
+
     public Claims getTokenClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getVerifiedClaims(token);
     }
 
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .get("username", String.class);
+        return getVerifiedClaims(token).get("username", String.class);
     }
 
     public String parseJwt(HttpServletRequest request) {
@@ -88,10 +116,7 @@ public class JwtUtils {
 
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key())
-                    .build()
-                    .parseClaimsJws(authToken);
+            getVerifiedClaims(authToken);
             return true;
         } catch (SecurityException e) {
             log.error("Invalid JWT signature: {}", e.getMessage());
@@ -106,4 +131,31 @@ public class JwtUtils {
         }
         return false;
     }
+
+    private Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    private record ClaimsExpiry(long maxTtlNanos) implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long untilExpiry = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+            return Math.max(0, Math.min(maxTtlNanos, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -1,20 +1,27 @@
 package com.rj.ecommerce_backend.sorting;
 
 public enum ProductSortField implements SortableField {
-    ID("id"),
-    CATEGORIES("categories"),
-    QUANTITY("stockQuantity"),
-    PRICE("productPrice"),
-    NAME("productName");
+    ID("id", "id"),
+    CATEGORIES("categories", null),
+    QUANTITY("stockQuantity", "stockQuantity.value"),
+    PRICE("productPrice", "productPrice.amount.value"),
+    NAME("productName", "productName.value");
 
     private final String fieldName;
+    private final String keyPath;
 
-    ProductSortField(String fieldName) {
+    ProductSortField(String fieldName, String keyPath) {
         this.fieldName = fieldName;
+        this.keyPath = keyPath;
     }
 
     @Override
     public String getFieldName() {
         return fieldName;
     }
+
+    @Override
+    public String getKeyPath() {
+        return keyPath;
+    }
 }
@@ -6,6 +6,12 @@ import java.util.Arrays;
 
 public interface SortableField {
     String getFieldName();
+
+    // Attribute path compared in cursor mode, or null when the field cannot serve as a keyset sort key
+    default String getKeyPath() {
+        return getFieldName();
+    }
+
     static SortableField fromString(String field, Class<? extends SortableField> enumClass) {
         return Arrays.stream(enumClass.getEnumConstants())
                 .filter(sortableField -> sortableField.getFieldName().equals(field))
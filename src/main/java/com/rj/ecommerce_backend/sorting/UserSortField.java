@@ -1,22 +1,29 @@
 package com.rj.ecommerce_backend.sorting;
 
 public enum UserSortField implements SortableField {
-    ID("id"),
-    EMAIL("email"),
-    FIRST_NAME("firstName"),
-    LAST_NAME("lastName"),
-    IS_ACTIVE("isActive"),
-    AUTHORITIES("authorities"),
-    CREATED_AT("createdAt");
+    ID("id", "id"),
+    EMAIL("email", "email.value"),
+    FIRST_NAME("firstName", "firstName"),
+    LAST_NAME("lastName", "lastName"),
+    IS_ACTIVE("isActive", "isActive"),
+    AUTHORITIES("authorities", null),
+    CREATED_AT("createdAt", "createdAt");
 
     private final String fieldName;
+    private final String keyPath;
 
-    UserSortField(String fieldName) {
+    UserSortField(String fieldName, String keyPath) {
         this.fieldName = fieldName;
+        this.keyPath = keyPath;
     }
 
     @Override
     public String getFieldName() {
         return fieldName;
     }
+
+    @Override
+    public String getKeyPath() {
+        return keyPath;
+    }
 }
@@ -1,5 +1,9 @@
 package com.rj.ecommerce_backend.user.controllers;
 
+import com.rj.ecommerce_backend.paging.CountMode;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.KeysetRequestFactory;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import com.rj.ecommerce_backend.sorting.UserSortField;
 import com.rj.ecommerce_backend.user.dtos.*;
@@ -24,6 +28,7 @@ public class AdminUserController {
 
     private final AdminService adminService;
     private final SortValidator sortValidator;
+    private final KeysetRequestFactory keysetRequestFactory;
 
 
     @GetMapping("/{userId}")
@@ -40,17 +45,19 @@ public class AdminUserController {
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<UserResponseDto>> getAllUsers(
+    public ResponseEntity<?> getAllUsers(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Boolean isActive,
             @RequestParam(required = false) String authority,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "id:asc") String sort
+            @RequestParam(defaultValue = "id:asc") String sort,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         log.info("Received request to retrieve users with filters. search={}, isActive={}, role={}",
                 search, isActive, authority);
 
+        CountMode countMode = CountMode.fromParameter(count);
         Sort validatedSort = sortValidator.validateAndBuildSort(sort, UserSortField.class);
         Pageable pageable = PageRequest.of(page, size, validatedSort);
         UserSearchCriteria criteria = new UserSearchCriteria(
@@ -59,6 +66,12 @@ public class AdminUserController {
                 authority
         );
 
+        if (countMode != CountMode.EXACT) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(adminService.sliceUsers(pageable, criteria, countMode == CountMode.APPROXIMATE));
+        }
+
         Page<UserResponseDto> users = adminService.getAllUsers(pageable, criteria);
 
         log.info("Successfully retrieved filtered users. Total elements: {}", users.getTotalElements());
@@ -67,6 +80,28 @@ public class AdminUserController {
                 .body(users);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<UserResponseDto>> scrollUsers(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) String authority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id:asc") String sort
+    ) {
+        KeysetRequest request = keysetRequestFactory.create(sort, cursor, size, UserSortField.class);
+        UserSearchCriteria criteria = new UserSearchCriteria(
+                search,
+                isActive,
+                authority
+        );
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(adminService.scrollUsers(request, criteria));
+    }
+
     @PostMapping()
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserResponseDto> createUser(
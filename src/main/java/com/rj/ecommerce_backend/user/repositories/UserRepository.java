@@ -38,4 +38,7 @@ public interface UserRepository extends
 
     @Transactional
     boolean existsByEmail(Email email);
+
+    @Query("SELECT u.isActive FROM User u WHERE u.id = :userId")
+    Optional<Boolean> findActiveStatusById(@Param("userId") Long userId);
 }
@@ -1,5 +1,8 @@
 package com.rj.ecommerce_backend.user.services;
 
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingSlice;
 import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.dtos.*;
 import org.springframework.data.domain.Page;
@@ -12,6 +15,10 @@ public interface AdminService {
 
     // User management
     public Page<UserResponseDto> getAllUsers(Pageable pageable, UserSearchCriteria criteria);
+
+    ListingSlice<UserResponseDto> sliceUsers(Pageable pageable, UserSearchCriteria criteria, boolean approximateTotal);
+
+    CursorPage<UserResponseDto> scrollUsers(KeysetRequest request, UserSearchCriteria criteria);
     UserResponseDto getUserById(Long userId);
     UserResponseDto createUser(CreateUserRequest request);
     UserResponseDto updateUser(Long userId, AdminUpdateUserRequest request);
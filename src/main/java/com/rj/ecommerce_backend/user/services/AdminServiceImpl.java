@@ -1,6 +1,13 @@
 package com.rj.ecommerce_backend.user.services;
 
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetQueryExecutor;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingCountCache;
+import com.rj.ecommerce_backend.paging.ListingSlice;
+import com.rj.ecommerce_backend.paging.SliceQueryExecutor;
 import com.rj.ecommerce_backend.securityconfig.SecurityContextImpl;
+import com.rj.ecommerce_backend.securityconfig.services.UserStatusCache;
 import com.rj.ecommerce_backend.user.domain.Authority;
 import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.dtos.*;
@@ -15,6 +22,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -39,6 +47,10 @@ public class AdminServiceImpl implements AdminService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final SecurityContextImpl securityContext;
+    private final UserStatusCache userStatusCache;
+    private final KeysetQueryExecutor keysetQueryExecutor;
+    private final SliceQueryExecutor sliceQueryExecutor;
+    private final ListingCountCache listingCountCache;
 
 
     @Override
@@ -51,7 +63,7 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public Page<UserResponseDto> getAllUsers(Pageable pageable, UserSearchCriteria criteria) {
         log.info("Retrieving users with search criteria: {}", criteria);
-        securityContext.checkAccess(securityContext.getCurrentUser().getId());
+        securityContext.checkAccess(securityContext.getCurrentUserId());
 
         Specification<User> spec = criteria.toSpecification();
 
@@ -59,9 +71,32 @@ public class AdminServiceImpl implements AdminService {
         return users.map(userMapper::mapToUserResponseDto);
     }
 
+    @Override
+    public ListingSlice<UserResponseDto> sliceUsers(Pageable pageable, UserSearchCriteria criteria,
+                                                    boolean approximateTotal) {
+        securityContext.checkAccess(securityContext.getCurrentUserId());
+
+        Specification<User> spec = criteria.toSpecification();
+        Slice<UserResponseDto> users = sliceQueryExecutor.findSlice(User.class, spec, pageable)
+                .map(userMapper::mapToUserResponseDto);
+
+        Long total = approximateTotal
+                ? listingCountCache.count("users", criteria, () -> userRepository.count(spec))
+                : null;
+        return ListingSlice.of(users, total);
+    }
+
+    @Override
+    public CursorPage<UserResponseDto> scrollUsers(KeysetRequest request, UserSearchCriteria criteria) {
+        securityContext.checkAccess(securityContext.getCurrentUserId());
+
+        return keysetQueryExecutor.findSlice(User.class, criteria.toSpecification(), request)
+                .map(userMapper::mapToUserResponseDto);
+    }
+
     @Override
     public UserResponseDto getUserById(Long userId) {
-        securityContext.checkAccess(securityContext.getCurrentUser().getId());
+        securityContext.checkAccess(securityContext.getCurrentUserId());
         return userMapper.mapToUserResponseDto(userRepository.findUserById(userId)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND + userId)));
     }
@@ -111,7 +146,7 @@ public class AdminServiceImpl implements AdminService {
         Objects.requireNonNull(userId, "User ID cannot be null");
         Objects.requireNonNull(request, "Update request cannot be null");
 
-        Long currentUserId = securityContext.getCurrentUser().getId();
+        Long currentUserId = securityContext.getCurrentUserId();
         securityContext.checkAccess(currentUserId);
         log.debug("Access verified for admin user: {}", currentUserId);
 
@@ -138,12 +173,13 @@ public class AdminServiceImpl implements AdminService {
     public void deleteUser(Long userId) {
         log.debug("Deleting user for id: {}", userId);
         // securityCheck
-        securityContext.checkAccess(securityContext.getCurrentUser().getId());
+        securityContext.checkAccess(securityContext.getCurrentUserId());
 
         User user = userRepository.findUserById(userId)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND + userId));
 
         userRepository.delete(user);
+        userStatusCache.invalidate(userId);
         log.info("Successfully deleted user with id: {}", userId);
     }
 
@@ -151,13 +187,14 @@ public class AdminServiceImpl implements AdminService {
     public UserResponseDto updateAccountStatus(Long userId, AccountStatusRequest request) {
         log.debug("Updating account status for user ID: {} to {}", userId, request.active());
 
-        securityContext.checkAccess(securityContext.getCurrentUser().getId());
+        securityContext.checkAccess(securityContext.getCurrentUserId());
 
         User user = userRepository.findUserById(userId)
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND + userId));
 
         user.setActive(request.active());
         User savedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
 
         log.info("Successfully updated account status for user ID: {} to {}",
                 userId, request.active() ? "active" : "inactive");
@@ -170,7 +207,7 @@ public class AdminServiceImpl implements AdminService {
         log.debug("Updating authorities for user ID: {}", userId);
 
         // Security check
-        securityContext.checkAccess(securityContext.getCurrentUser().getId());
+        securityContext.checkAccess(securityContext.getCurrentUserId());
 
         // Fetch user
         User user = userRepository.findUserById(userId)
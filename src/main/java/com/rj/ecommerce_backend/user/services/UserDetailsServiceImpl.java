@@ -1,17 +1,22 @@
 package com.rj.ecommerce_backend.user.services;
 
 import com.rj.ecommerce_backend.user.UserDetailsImpl;
+import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.repositories.UserRepository;
 import com.rj.ecommerce_backend.user.valueobject.Email;
+import com.rj.ecommerce_backend.user.valueobject.Password;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @RequiredArgsConstructor
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -22,4 +27,16 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .map(UserDetailsImpl::build)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + email.value()));
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findUserByEmail(Email.of(userDetails.getUsername()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + userDetails.getUsername()));
+
+        user.setPassword(new Password(newPassword));
+        User savedUser = userRepository.save(user);
+        log.info("Upgraded password hash for user ID: {}", savedUser.getId());
+
+        return UserDetailsImpl.build(savedUser);
+    }
 }
@@ -2,8 +2,9 @@ package com.rj.ecommerce_backend.user.services;
 
 import com.rj.ecommerce_backend.securityconfig.SecurityContextImpl;
 import com.rj.ecommerce_backend.securityconfig.dto.AuthResponse;
-import com.rj.ecommerce_backend.securityconfig.repositories.RefreshTokenRepository;
 import com.rj.ecommerce_backend.securityconfig.services.AuthService;
+import com.rj.ecommerce_backend.securityconfig.services.RefreshTokenService;
+import com.rj.ecommerce_backend.securityconfig.services.UserStatusCache;
 import com.rj.ecommerce_backend.user.domain.User;
 import com.rj.ecommerce_backend.user.dtos.*;
 import com.rj.ecommerce_backend.user.exceptions.UserNotFoundException;
@@ -33,7 +34,8 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final SecurityContextImpl securityContext;
     private final AuthService authService;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenService refreshTokenService;
+    private final UserStatusCache userStatusCache;
 
 
     @Override
@@ -121,6 +123,7 @@ public class UserServiceImpl implements UserService {
 
         user.setActive(request.active());
         User savedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
 
         log.info("Successfully updated account status for user ID: {} to {}",
                 userId, request.active() ? "active" : "inactive");
@@ -148,9 +151,10 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException(USER_NOT_FOUND + userId));
 
         // remove refresh tokens before user account delete
-        refreshTokenRepository.deleteByUserId(user.getId());
+        refreshTokenService.deleteUserTokens(user.getId());
 
         userRepository.delete(user);
+        userStatusCache.invalidate(userId);
         log.info("Successfully deleted account for user with id: {}", userId);
     }
 
@@ -0,0 +1,3 @@
+-- Expired tokens are deleted oldest first in small batches; both scans need an index on the expiry column
+CREATE INDEX idx_blacklisted_tokens_expires_at ON blacklisted_tokens (expires_at);
+CREATE INDEX idx_refresh_tokens_expiry_date ON refresh_tokens (expiry_date);
@@ -0,0 +1,10 @@
+-- Store only a SHA-256 digest of refresh tokens; existing tokens keep working because they are hashed in place
+ALTER TABLE refresh_tokens ADD COLUMN token_hash CHAR(64) NULL;
+
+UPDATE refresh_tokens SET token_hash = SHA2(token, 256);
+
+ALTER TABLE refresh_tokens
+    MODIFY token_hash CHAR(64) NOT NULL,
+    ADD CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    DROP INDEX UKghpmfn23vmxfu3spu3lfg4r2d,
+    DROP COLUMN token;
@@ -0,0 +1,7 @@
+-- Range filters of the product listing when they are not answered in memory. InnoDB appends the primary key
+-- to every secondary index, so each one also covers the id ordering and the id lookup that follows.
+CREATE INDEX idx_product_value ON product (`value`);
+CREATE INDEX idx_product_quantity ON product (quantity);
+
+-- The existing foreign key index starts with category_id but does not hold product_id
+CREATE INDEX idx_product_category_category_product ON product_category (category_id, product_id);
@@ -0,0 +1,2 @@
+-- Widths of the resized copies generated for an image, e.g. '128,400,1200'. NULL until they are generated.
+ALTER TABLE image ADD COLUMN variant_widths VARCHAR(64) NULL;
@@ -0,0 +1,3 @@
+-- Image files are named after their content and shared between rows, so deleting a row counts the others
+-- pointing at the same file. The image endpoint also looks rows up by path for their content type.
+CREATE INDEX idx_image_path ON image (path);
@@ -0,0 +1,10 @@
+-- Single row versioning the public product catalog, so every node hands out the same HTTP validators and a
+-- restart does not invalidate them. Both columns are millisecond timestamps.
+CREATE TABLE catalog_version (
+    id                 INT    NOT NULL PRIMARY KEY,
+    version            BIGINT NOT NULL,
+    categories_version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (id, version, categories_version)
+VALUES (1, CAST(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000 AS UNSIGNED), 0);
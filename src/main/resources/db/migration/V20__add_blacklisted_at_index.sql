@@ -0,0 +1,2 @@
+-- Every node pulls the tokens blacklisted since its last sync every few seconds
+CREATE INDEX idx_blacklisted_tokens_blacklisted_at ON blacklisted_tokens (blacklisted_at);
@@ -0,0 +1,77 @@
+package com.rj.ecommerce_backend.paging;
+
+import com.rj.ecommerce_backend.sorting.ProductSortField;
+import com.rj.ecommerce_backend.sorting.SortValidator;
+import com.rj.ecommerce_backend.user.exceptions.InvalidSortParameterException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetRequestFactoryTest {
+
+    private final KeysetRequestFactory factory = new KeysetRequestFactory(new SortValidator());
+
+    @Test
+    void create_ShouldResolveKeyPath_AndStartFromBeginningWithoutCursor() {
+        // When
+        KeysetRequest request = factory.create("productPrice:desc", null, 20, ProductSortField.class);
+
+        // Then
+        assertEquals("productPrice.amount.value", request.keyPath());
+        assertEquals(Sort.Direction.DESC, request.direction());
+        assertNull(request.after());
+        assertEquals(20, request.size());
+    }
+
+    @Test
+    void create_ShouldAcceptCursorIssuedForSameSort() {
+        // Given
+        String cursor = new KeysetCursor("productName", Sort.Direction.ASC, 42L, "Desk: oak, 120cm").encode();
+
+        // When
+        KeysetRequest request = factory.create("productName:asc", cursor, 10, ProductSortField.class);
+
+        // Then
+        assertEquals(new KeysetCursor("productName", Sort.Direction.ASC, 42L, "Desk: oak, 120cm"), request.after());
+    }
+
+    @Test
+    void create_ShouldKeepNullSortKeys() {
+        // Given
+        String cursor = new KeysetCursor("productName", Sort.Direction.ASC, 7L, null).encode();
+
+        // When
+        KeysetRequest request = factory.create("productName:asc", cursor, 10, ProductSortField.class);
+
+        // Then
+        assertNull(request.after().key());
+        assertEquals(7L, request.after().id());
+    }
+
+    @Test
+    void create_ShouldRejectCursorIssuedForDifferentSort() {
+        // Given
+        String cursor = new KeysetCursor("productName", Sort.Direction.ASC, 42L, "Desk").encode();
+
+        // When & Then
+        assertThrows(InvalidCursorException.class, () ->
+                factory.create("productName:desc", cursor, 10, ProductSortField.class));
+    }
+
+    @Test
+    void create_ShouldRejectTamperedCursor() {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () ->
+                factory.create("id:asc", "not-a-cursor", 10, ProductSortField.class));
+    }
+
+    @Test
+    void create_ShouldRejectFieldsWithoutKeyPath_AndOversizedSlices() {
+        // When & Then
+        assertThrows(InvalidSortParameterException.class, () ->
+                factory.create("categories:asc", null, 10, ProductSortField.class));
+        assertThrows(InvalidCursorException.class, () ->
+                factory.create("id:asc", null, KeysetRequestFactory.MAX_SIZE + 1, ProductSortField.class));
+    }
+}
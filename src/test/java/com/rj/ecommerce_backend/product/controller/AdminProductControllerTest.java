@@ -1,13 +1,21 @@
 package com.rj.ecommerce_backend.product.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.product.ProductHttpCacheProperties;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductImportStatusDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.ProductUpdateDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
 import com.rj.ecommerce_backend.product.service.FileStorageService;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import com.rj.ecommerce_backend.product.service.ProductImportService;
 import com.rj.ecommerce_backend.product.service.ProductService;
+import com.rj.ecommerce_backend.product.service.ProductStockService;
 import com.rj.ecommerce_backend.sorting.ProductSortField;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import com.rj.ecommerce_backend.testutil.ProductTestDataFactory;
@@ -16,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -27,7 +36,10 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -43,6 +55,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -61,6 +75,18 @@ class AdminProductControllerTest {
     @Mock
     private SortValidator sortValidator;
 
+    @Mock
+    private ProductCatalogVersion catalogVersion;
+
+    @Spy
+    private ProductHttpCacheProperties httpCacheProperties = new ProductHttpCacheProperties();
+
+    @Mock
+    private ProductImportService productImportService;
+
+    @Mock
+    private ProductStockService productStockService;
+
     @InjectMocks
     private AdminProductController adminProductController;
 
@@ -83,6 +109,46 @@ class AdminProductControllerTest {
         testProduct = ProductTestDataFactory.createValidProduct();
     }
 
+    @Test
+    void importProducts_ShouldStreamBodyInDetectedFormat() throws Exception {
+        // Given
+        ProductImportStatusDTO result = new ProductImportStatusDTO("import-1", "CSV", "COMPLETED",
+                LocalDateTime.now(), LocalDateTime.now(), 2, 2, 0, List.of());
+        when(productImportService.importProducts(any(InputStream.class), eq(ProductImportFormat.CSV)))
+                .thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/admin/products/import")
+                        .contentType("text/csv;charset=UTF-8")
+                        .content("name,price,quantity\nLamp,10.00,1\nDesk,99.00,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is("import-1")))
+                .andExpect(jsonPath("$.imported", is(2)));
+
+        verify(productImportService).importProducts(any(InputStream.class), eq(ProductImportFormat.CSV));
+    }
+
+    @Test
+    void adjustStock_ShouldReturnResultPerAdjustment() throws Exception {
+        // Given
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(1L, -2, null),
+                new StockAdjustmentDTO(99L, null, 10));
+        when(productStockService.adjustStock(adjustments)).thenReturn(List.of(
+                StockAdjustmentResultDTO.applied(1L, 8),
+                StockAdjustmentResultDTO.rejected(99L, StockAdjustmentResultDTO.Status.NOT_FOUND, "Product not found")));
+
+        // When & Then
+        mockMvc.perform(patch("/api/v1/admin/products/stock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adjustments)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is("APPLIED")))
+                .andExpect(jsonPath("$[0].quantity", is(8)))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+
     @Test
     void getProductById_ShouldReturnProduct_WhenProductExists() throws Exception {
         // Given
@@ -116,6 +182,7 @@ class AdminProductControllerTest {
     @Test
     void getAllProducts_ShouldReturnPageOfProducts() throws Exception {
         // Given
+        when(catalogVersion.listingVersion()).thenReturn(new ProductCatalogVersion.ListingVersion(1000L, 0));
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Page<ProductResponseDTO> productPage = new PageImpl<>(
                 Collections.singletonList(testProductResponseDTO), pageable, 1);
@@ -1,12 +1,14 @@
 package com.rj.ecommerce_backend.product.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.GlobalExceptionHandler;
 import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.CategorySearchCriteria;
 import com.rj.ecommerce_backend.product.service.CategoryService;
 import com.rj.ecommerce_backend.sorting.CategorySortField;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import com.rj.ecommerce_backend.testutil.CategoryTestDataFactory;
+import com.rj.ecommerce_backend.user.exceptions.InvalidSortParameterException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +31,7 @@ import java.util.Optional;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -156,6 +159,7 @@ class PublicCategoryControllerTest {
     void getCategoryNames_ShouldReturnListOfCategoryNames() throws Exception {
         // Given
         List<String> categoryNames = Arrays.asList("Category 1", "Category 2");
+        when(categoryService.getCatalogETag()).thenReturn("\"v1\"");
         when(categoryService.getCategoryNames()).thenReturn(categoryNames);
 
         // When & Then
@@ -164,8 +168,54 @@ class PublicCategoryControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0]", is("Category 1")))
-                .andExpect(jsonPath("$[1]", is("Category 2")));
+                .andExpect(jsonPath("$[1]", is("Category 2")))
+                .andExpect(header().string("ETag", "\"v1\""));
 
         verify(categoryService).getCategoryNames();
     }
+
+    @Test
+    void getCategoryNames_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Given
+        when(categoryService.getCatalogETag()).thenReturn("\"v1\"");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/categories/names").header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(categoryService, never()).getCategoryNames();
+    }
+
+    @Test
+    void getAllCategories_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Given
+        when(sortValidator.validateAndBuildSort(anyString(), eq(CategorySortField.class)))
+                .thenReturn(Sort.by("id"));
+        when(categoryService.getCatalogETag()).thenReturn("\"v1\"");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/categories").header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified());
+
+        verify(categoryService, never()).getAllCategories(any(), any(CategorySearchCriteria.class));
+    }
+
+    @Test
+    void getAllCategories_ShouldRejectInvalidSort_EvenWhenETagMatches() throws Exception {
+        // Given
+        MockMvc mockMvcWithHandler = MockMvcBuilders.standaloneSetup(publicCategoryController)
+                .setControllerAdvice(new CategoryControllerAdvice(), new GlobalExceptionHandler())
+                .build();
+        when(sortValidator.validateAndBuildSort(eq("colour:asc"), eq(CategorySortField.class)))
+                .thenThrow(new InvalidSortParameterException("Invalid sort field: colour"));
+
+        // When & Then
+        mockMvcWithHandler.perform(get("/api/v1/public/categories")
+                        .param("sort", "colour:asc")
+                        .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isBadRequest());
+
+        verify(categoryService, never()).getCatalogETag();
+    }
 }
@@ -1,18 +1,25 @@
 package com.rj.ecommerce_backend.product.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.paging.ListingSlice;
+import com.rj.ecommerce_backend.product.ProductHttpCacheProperties;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.product.service.FileStorageService;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
 import com.rj.ecommerce_backend.product.service.ProductService;
+import com.rj.ecommerce_backend.product.service.StoredImage;
+import com.rj.ecommerce_backend.product.service.VersionedProduct;
 import com.rj.ecommerce_backend.sorting.ProductSortField;
 import com.rj.ecommerce_backend.sorting.SortValidator;
 import com.rj.ecommerce_backend.testutil.ProductTestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -20,25 +27,33 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
-import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -56,12 +71,23 @@ class PublicProductControllerTest {
     @Mock
     private SortValidator sortValidator;
 
+    @Mock
+    private ProductCatalogVersion catalogVersion;
+
+    @Spy
+    private ProductHttpCacheProperties httpCacheProperties = new ProductHttpCacheProperties();
+
     @InjectMocks
     private PublicProductController publicProductController;
 
     private ObjectMapper objectMapper;
     private ProductResponseDTO testProductResponseDTO;
 
+    @TempDir
+    private Path tempDir;
+
+    private byte[] imageBytes;
+
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(publicProductController).build();
@@ -72,11 +98,76 @@ class PublicProductControllerTest {
         testProductResponseDTO = ProductTestDataFactory.createValidProductResponseDTO();
     }
 
-    // Note: The getProductById endpoint is not defined in PublicProductController
+    @Test
+    void getProductById_ShouldReturnProductWithValidators() throws Exception {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Instant lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        when(productService.getProductLastModified(1L)).thenReturn(Optional.of(updatedAt));
+        when(catalogVersion.productLastModified(updatedAt)).thenReturn(lastModified);
+        when(productService.getProductById(1L, lastModified))
+                .thenReturn(Optional.of(new VersionedProduct(testProductResponseDTO, lastModified)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(testProductResponseDTO.id().intValue())))
+                .andExpect(header().string("ETag", "\"1-" + Long.toHexString(lastModified.toEpochMilli()) + "\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "max-age=30, public, s-maxage=300, stale-while-revalidate=60"));
+    }
+
+    @Test
+    void getProductById_ShouldSendValidatorsOfTheStateServed() throws Exception {
+        // Given: the database moved on while this node still had an older view
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Instant lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        Instant served = lastModified.plusSeconds(60);
+        when(productService.getProductLastModified(1L)).thenReturn(Optional.of(updatedAt));
+        when(catalogVersion.productLastModified(updatedAt)).thenReturn(lastModified);
+        when(productService.getProductById(1L, lastModified))
+                .thenReturn(Optional.of(new VersionedProduct(testProductResponseDTO, served)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-" + Long.toHexString(served.toEpochMilli()) + "\""));
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotModified_ForTheStateServed() throws Exception {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        Instant lastModified = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        when(productService.getProductLastModified(1L)).thenReturn(Optional.of(updatedAt));
+        when(catalogVersion.productLastModified(updatedAt)).thenReturn(lastModified);
+        when(productService.getProductById(1L, lastModified))
+                .thenReturn(Optional.of(new VersionedProduct(testProductResponseDTO, lastModified)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/{id}", 1L)
+                        .header("If-None-Match", "\"1-" + Long.toHexString(lastModified.toEpochMilli()) + "\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/public/products/{id}", 1L)
+                        .header("If-Modified-Since", DateTimeFormatter.RFC_1123_DATE_TIME
+                                .format(lastModified.atZone(ZoneOffset.UTC))))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getProductById_ShouldReturnNotFound_WhenProductDoesNotExist() throws Exception {
+        // Given
+        when(productService.getProductLastModified(999L)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/{id}", 999L))
+                .andExpect(status().isNotFound());
+    }
 
     @Test
     void getAllProducts_ShouldReturnPageOfProducts() throws Exception {
         // Given
+        when(catalogVersion.listingVersion()).thenReturn(new ProductCatalogVersion.ListingVersion(1000L, 0));
         Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
         Page<ProductResponseDTO> productPage = new PageImpl<>(
                 Collections.singletonList(testProductResponseDTO), pageable, 1);
@@ -100,22 +191,191 @@ class PublicProductControllerTest {
         verify(productService, times(1)).getAllProducts(any(Pageable.class), any(ProductSearchCriteria.class));
     }
 
+    @Test
+    void getAllProducts_ShouldReturnSliceWithoutTotal_WhenCountIsNone() throws Exception {
+        // Given
+        when(catalogVersion.listingVersion()).thenReturn(new ProductCatalogVersion.ListingVersion(1000L, 0));
+        ListingSlice<ProductResponseDTO> slice = new ListingSlice<>(
+                Collections.singletonList(testProductResponseDTO), 0, 10, true, null);
+
+        when(sortValidator.validateAndBuildSort(any(), eq(ProductSortField.class))).thenReturn(Sort.by("id").ascending());
+        when(productService.sliceProducts(any(Pageable.class), any(ProductSearchCriteria.class), eq(false)))
+                .thenReturn(slice);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products")
+                .param("size", "10")
+                .param("count", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(productService, never()).getAllProducts(any(Pageable.class), any(ProductSearchCriteria.class));
+    }
+
+    @Test
+    void getAllProducts_ShouldReturnNotModified_UntilCatalogVersionChanges() throws Exception {
+        // Given
+        when(sortValidator.validateAndBuildSort(any(), eq(ProductSortField.class))).thenReturn(Sort.by("id").ascending());
+        when(catalogVersion.listingVersion()).thenReturn(
+                new ProductCatalogVersion.ListingVersion(1000L, 0),
+                new ProductCatalogVersion.ListingVersion(1000L, 0),
+                new ProductCatalogVersion.ListingVersion(1000L, 2000L));
+        when(productService.getAllProducts(any(Pageable.class), any(ProductSearchCriteria.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testProductResponseDTO), PageRequest.of(0, 10), 1));
+        String etag = mockMvc.perform(get("/api/v1/public/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/public/products").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(productService, times(2)).getAllProducts(any(Pageable.class), any(ProductSearchCriteria.class));
+    }
+
+    @Test
+    void getAllProducts_ShouldOmitLastModified_WhileLocalChangesRunAheadOfTheSnapshots() throws Exception {
+        // Given
+        when(sortValidator.validateAndBuildSort(any(), eq(ProductSortField.class))).thenReturn(Sort.by("id").ascending());
+        when(catalogVersion.listingVersion()).thenReturn(new ProductCatalogVersion.ListingVersion(1000L, 2000L));
+        when(productService.getAllProducts(any(Pageable.class), any(ProductSearchCriteria.class)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(testProductResponseDTO), PageRequest.of(0, 10), 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"3e8.7d0-")))
+                .andExpect(header().doesNotExist("Last-Modified"));
+    }
+
     // Note: The findProductsByCategory endpoint is not defined in PublicProductController
 
     // Note: The searchProductsByName endpoint is not defined in PublicProductController
 
     @Test
-    void getProductImage_ShouldReturnImage() throws Exception {
+    void getProductImage_ShouldStreamWholeFile_WithStoredContentTypeAndValidators() throws Exception {
         // Given
-        String filename = "test-image.jpg";
-        Resource mockResource = mock(Resource.class);
+        StoredImage image = givenStoredImage();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(imageBytes))
+                .andExpect(header().string("Content-Length", "1000"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", image.etag()))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"));
+    }
 
-        when(fileStorageService.loadFileAsResource(anyString())).thenReturn(mockResource);
+    @Test
+    void getProductImage_ShouldServeSingleRange_WithPartialContent() throws Exception {
+        // Given
+        givenStoredImage();
 
         // When & Then
-        mockMvc.perform(get("/api/v1/public/products/images/{filename}", filename))
-                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png").header("Range", "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 100-199/1000"))
+                .andExpect(header().string("Content-Length", "100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(imageBytes, 100, 200)));
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png").header("Range", "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(imageBytes, 990, 1000)));
+    }
+
+    @Test
+    void getProductImage_ShouldRejectRangePastEnd_AndIgnoreRangeWhenIfRangeIsStale() throws Exception {
+        // Given
+        givenStoredImage();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png").header("Range", "bytes=1000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */1000"));
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png")
+                        .header("Range", "bytes=0-9")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(imageBytes));
+    }
+
+    @Test
+    void getProductImage_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Given
+        StoredImage image = givenStoredImage();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png")
+                        .header("If-None-Match", image.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getProductImage_ShouldServeResizedCopy_WhenWidthIsRequested() throws Exception {
+        // Given
+        when(fileStorageService.loadImageVariant("photo.png", 400)).thenReturn(Optional.of(storedImage()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png").param("width", "400"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(imageBytes))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public"));
+    }
+
+    @Test
+    void getProductImage_ShouldFallBackToOriginalWithoutCaching_WhenCopyIsNotReady() throws Exception {
+        // Given
+        givenStoredImage();
+        when(fileStorageService.loadImageVariant("photo.png", 400)).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "photo.png").param("width", "400"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(imageBytes))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getProductImage_ShouldCacheForGood_WhenNamedAfterContent() throws Exception {
+        // Given
+        String name = "ab".repeat(32) + ".png";
+        when(fileStorageService.loadStoredImage(name)).thenReturn(Optional.of(storedImage()));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", name))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    void getProductImage_ShouldReturnNotFound_WhenFileIsMissing() throws Exception {
+        // Given
+        when(fileStorageService.loadStoredImage("missing.png")).thenReturn(Optional.empty());
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/public/products/images/{filename}", "missing.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    private StoredImage givenStoredImage() throws Exception {
+        StoredImage image = storedImage();
+        when(fileStorageService.loadStoredImage("photo.png")).thenReturn(Optional.of(image));
+        return image;
+    }
 
-        verify(fileStorageService, times(1)).loadFileAsResource(filename);
+    private StoredImage storedImage() throws Exception {
+        imageBytes = new byte[1000];
+        for (int i = 0; i < imageBytes.length; i++) {
+            imageBytes[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve("photo.png"), imageBytes);
+        return new StoredImage(file, imageBytes.length, 1_714_564_800_000L, "\"3e8-18f34069e00\"",
+                MediaType.IMAGE_PNG);
     }
 }
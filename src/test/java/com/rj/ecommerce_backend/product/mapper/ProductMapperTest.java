@@ -5,6 +5,7 @@ import com.rj.ecommerce_backend.product.domain.Image;
 import com.rj.ecommerce_backend.product.domain.Product;
 import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ImageDTO;
+import com.rj.ecommerce_backend.product.dtos.ImageVariantDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.repository.CategoryRepository;
@@ -167,6 +168,22 @@ class ProductMapperTest {
         assertEquals(image.getAltText(), result.altText());
     }
 
+    @Test
+    void mapToImageDTO_ShouldExposeGeneratedVariants() {
+        // Given
+        Image image = testImage;
+        image.setPath("photo.png");
+        image.setVariantWidths("128,400");
+
+        // When
+        ImageDTO result = productMapper.mapToImageDTO(image);
+
+        // Then
+        assertEquals(List.of(
+                new ImageVariantDTO(128, "photo.png-w128.png"),
+                new ImageVariantDTO(400, "photo.png-w400.png")), result.variants());
+    }
+
     @Test
     void mapToImageEntity_ShouldMapDTOToEntity() {
         // Given
@@ -0,0 +1,295 @@
+package com.rj.ecommerce_backend.product.search;
+
+import com.rj.ecommerce_backend.product.ProductFacetProperties;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.repository.CategoryRepository;
+import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetIndexTest {
+
+    private static final Long PHONES = 10L;
+    private static final Long AUDIO = 20L;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductCatalogVersion catalogVersion;
+
+    private ProductFacetIndex facetIndex;
+
+    private final ProductSearchCriteria noCriteria = new ProductSearchCriteria(null, null, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        ProductFacetProperties properties = new ProductFacetProperties();
+        properties.setBuildBatchSize(2);
+        properties.setPriceBucketBounds(List.of(new BigDecimal("50"), new BigDecimal("100")));
+        facetIndex = new ProductFacetIndex(productRepository, categoryRepository, properties, new SimpleMeterRegistry(),
+                catalogVersion);
+        facetIndex.init();
+    }
+
+    @Test
+    void facets_ShouldReturnEmpty_UntilSnapshotIsBuilt() {
+        // When
+        Optional<ProductFacetsDTO> result = facetIndex.facets(noCriteria, null);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void build_ShouldReadAllBatches_AndCountEveryFacet() {
+        // Given
+        givenCatalog();
+
+        // When
+        facetIndex.build();
+        ProductFacetsDTO facets = facetIndex.facets(noCriteria, null).orElseThrow();
+
+        // Then
+        assertEquals(4, facetIndex.size());
+        assertEquals(4, facets.total());
+        assertEquals(List.of(
+                new ProductFacetsDTO.CategoryCount(PHONES, "Phones", 3),
+                new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 2)), facets.categories());
+        assertEquals(List.of(1L, 2L, 1L), facets.priceBuckets().stream().map(ProductFacetsDTO.PriceBucket::count).toList());
+        assertEquals(new BigDecimal("50.00"), facets.priceBuckets().get(1).from());
+        assertNull(facets.priceBuckets().get(2).to());
+    }
+
+    @Test
+    void facets_ShouldIgnoreOwnFilter_WhenCountingCategoriesAndPriceBuckets() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                null, String.valueOf(AUDIO), null, new BigDecimal("100"), 1, null);
+
+        // When
+        ProductFacetsDTO facets = facetIndex.facets(criteria, null).orElseThrow();
+
+        // Then
+        // Product 3 is out of stock. Of the rest, 1 and 2 are within the price limit and 2 and 4 are audio.
+        assertEquals(1, facets.total());
+        assertEquals(List.of(
+                new ProductFacetsDTO.CategoryCount(PHONES, "Phones", 2),
+                new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 1)), facets.categories());
+        assertEquals(List.of(0L, 1L, 1L), facets.priceBuckets().stream().map(ProductFacetsDTO.PriceBucket::count).toList());
+    }
+
+    @Test
+    void facets_ShouldRestrictToSearchMatches() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+
+        // When
+        ProductFacetsDTO facets = facetIndex.facets(noCriteria, List.of(3L, 4L, 99L)).orElseThrow();
+
+        // Then
+        assertEquals(2, facets.total());
+        assertEquals(List.of(
+                new ProductFacetsDTO.CategoryCount(PHONES, "Phones", 1),
+                new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 1)), facets.categories());
+    }
+
+    @Test
+    void onProductChanged_ShouldMoveUpdatedProduct_AndDropDeletedOne() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        when(productRepository.findFacetRowById(1L))
+                .thenReturn(Optional.of(new ProductFacetRow(1L, new BigDecimal("120.00"), 5)));
+        when(productRepository.findCategoryLinks(List.of(1L)))
+                .thenReturn(List.of(new ProductCategoryLink(1L, AUDIO, "Audio")));
+
+        // When
+        facetIndex.onProductChanged(ProductChangedEvent.updated(1L));
+        facetIndex.onProductChanged(ProductChangedEvent.deleted(3L));
+        ProductFacetsDTO facets = facetIndex.facets(noCriteria, null).orElseThrow();
+
+        // Then
+        assertEquals(3, facetIndex.size());
+        assertEquals(List.of(
+                new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 3),
+                new ProductFacetsDTO.CategoryCount(PHONES, "Phones", 1)), facets.categories());
+        assertEquals(List.of(0L, 1L, 2L), facets.priceBuckets().stream().map(ProductFacetsDTO.PriceBucket::count).toList());
+    }
+
+    @Test
+    void filter_ShouldIntersectPriceAndStockRanges_WithCategoryAndSearchMatches() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+
+        // When
+        Optional<List<Long>> byRanges = facetIndex.filter(
+                new ProductSearchCriteria(null, null, new BigDecimal("50"), new BigDecimal("149.50"), 1, null), null);
+        Optional<List<Long>> byCategory = facetIndex.filter(
+                new ProductSearchCriteria(null, String.valueOf(PHONES), null, new BigDecimal("79"), null, 4), null);
+        Optional<List<Long>> bySearch = facetIndex.filter(
+                new ProductSearchCriteria("x", null, null, null, 1, null), List.of(4L, 3L, 1L));
+
+        // Then
+        assertEquals(Optional.of(List.of(2L, 4L)), byRanges);
+        assertEquals(Optional.of(List.of(2L, 3L)), byCategory);
+        assertEquals(Optional.of(List.of(4L, 1L)), bySearch);
+    }
+
+    @Test
+    void filter_ShouldFollowPriceAndStockChanges() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        when(productRepository.findFacetRowById(3L))
+                .thenReturn(Optional.of(new ProductFacetRow(3L, new BigDecimal("9.99"), 12)));
+        when(productRepository.findCategoryLinks(List.of(3L))).thenReturn(List.of());
+        ProductSearchCriteria cheapInStock = new ProductSearchCriteria(null, null, null, new BigDecimal("20"), 1, null);
+
+        // When
+        facetIndex.onProductChanged(ProductChangedEvent.stockChanged(3L));
+        facetIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // Then
+        assertEquals(Optional.of(List.of(3L)), facetIndex.filter(cheapInStock, null));
+    }
+
+    @Test
+    void onCategoryChanged_ShouldDropDeletedCategory() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        when(categoryRepository.findById(PHONES)).thenReturn(Optional.empty());
+
+        // When
+        facetIndex.onCategoryChanged(new CategoryChangedEvent(PHONES));
+
+        // Then
+        assertEquals(List.of(new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 2)),
+                facetIndex.facets(noCriteria, null).orElseThrow().categories());
+    }
+
+    @Test
+    void build_ShouldNotBringBackProductDeletedWhileItsBatchWasRead() {
+        // Given
+        when(productRepository.findFacetRowsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            facetIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+            return List.of(new ProductFacetRow(1L, new BigDecimal("19.99"), 5),
+                    new ProductFacetRow(2L, new BigDecimal("79.00"), 2));
+        });
+        when(productRepository.findFacetRowsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findCategoryLinks(anyCollection())).thenReturn(List.of());
+        when(productRepository.findFacetRowsByIdIn(Set.of(1L))).thenReturn(List.of());
+
+        // When
+        facetIndex.build();
+
+        // Then
+        assertEquals(1, facetIndex.size());
+        assertEquals(1, facetIndex.facets(noCriteria, null).orElseThrow().total());
+    }
+
+    @Test
+    void scheduledRebuild_ShouldPickUpChangesMadeOnOtherNodes() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        when(productRepository.findFacetRowsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new ProductFacetRow(4L, new BigDecimal("20.00"), 7)));
+        when(productRepository.findFacetRowsByIdIn(Set.of(3L))).thenReturn(List.of());
+
+        // When
+        facetIndex.scheduledRebuild();
+        List<Long> cheap = facetIndex.filter(
+                new ProductSearchCriteria(null, null, null, new BigDecimal("30"), null, null), null).orElseThrow();
+
+        // Then
+        assertEquals(3, facetIndex.size());
+        assertEquals(List.of(1L, 4L), cheap);
+    }
+
+    @Test
+    void scheduledRebuild_ShouldMoveOnlyChangedProducts() {
+        // Given
+        givenCatalog();
+        facetIndex.build();
+        when(productRepository.findFacetRowsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new ProductFacetRow(3L, new BigDecimal("50.00"), 0),
+                new ProductFacetRow(4L, new BigDecimal("9.00"), 7)));
+        // Product 1 moves from phones to audio and product 4 gets cheaper; the others are unchanged
+        List<ProductCategoryLink> links = List.of(
+                new ProductCategoryLink(1L, AUDIO, "Audio"),
+                new ProductCategoryLink(2L, PHONES, "Phones"),
+                new ProductCategoryLink(2L, AUDIO, "Audio"),
+                new ProductCategoryLink(3L, PHONES, "Phones"),
+                new ProductCategoryLink(4L, AUDIO, "Audio"));
+        when(productRepository.findCategoryLinks(anyCollection())).thenAnswer(invocation -> links.stream()
+                .filter(link -> invocation.<Collection<Long>>getArgument(0).contains(link.productId()))
+                .toList());
+
+        // When
+        facetIndex.scheduledRebuild();
+        List<Long> cheap = facetIndex.filter(
+                new ProductSearchCriteria(null, null, null, new BigDecimal("60"), null, null), null).orElseThrow();
+        List<Long> inStock = facetIndex.filter(
+                new ProductSearchCriteria(null, null, null, null, 1, null), null).orElseThrow();
+
+        // Then
+        assertEquals(List.of(1L, 3L, 4L), cheap);
+        assertEquals(List.of(1L, 2L, 4L), inStock);
+        assertEquals(List.of(
+                new ProductFacetsDTO.CategoryCount(AUDIO, "Audio", 3),
+                new ProductFacetsDTO.CategoryCount(PHONES, "Phones", 2)),
+                facetIndex.facets(noCriteria, null).orElseThrow().categories());
+    }
+
+    private void givenCatalog() {
+        when(productRepository.findFacetRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new ProductFacetRow(1L, new BigDecimal("19.99"), 5),
+                new ProductFacetRow(2L, new BigDecimal("79.00"), 2)));
+        when(productRepository.findFacetRowsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new ProductFacetRow(3L, new BigDecimal("50.00"), 0),
+                new ProductFacetRow(4L, new BigDecimal("149.50"), 7)));
+        when(productRepository.findFacetRowsAfter(eq(4L), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findCategoryLinks(anyCollection())).thenAnswer(invocation -> {
+            List<ProductCategoryLink> links = List.of(
+                    new ProductCategoryLink(1L, PHONES, "Phones"),
+                    new ProductCategoryLink(2L, PHONES, "Phones"),
+                    new ProductCategoryLink(2L, AUDIO, "Audio"),
+                    new ProductCategoryLink(3L, PHONES, "Phones"),
+                    new ProductCategoryLink(4L, AUDIO, "Audio"));
+            return links.stream()
+                    .filter(link -> invocation.<Collection<Long>>getArgument(0).contains(link.productId()))
+                    .toList();
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package com.rj.ecommerce_backend.product.search;
+
+import com.rj.ecommerce_backend.product.ProductSearchProperties;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.service.ProductCatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCatalogVersion catalogVersion;
+
+    private ProductSearchProperties properties;
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductSearchProperties();
+        properties.setBuildBatchSize(2);
+        searchIndex = new ProductSearchIndex(productRepository, properties, new SimpleMeterRegistry(),
+                catalogVersion);
+        searchIndex.init();
+    }
+
+    @Test
+    void search_ShouldReturnEmpty_UntilIndexIsBuilt() {
+        // When
+        Optional<List<Long>> result = searchIndex.search("phone");
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void build_ShouldReadAllBatches_AndRankPrefixMatchesFirst() {
+        // Given
+        givenCatalog();
+
+        // When
+        searchIndex.build();
+
+        // Then
+        assertEquals(4, searchIndex.size());
+        assertEquals(Optional.of(List.of(2L, 1L)), searchIndex.search("Phone"));
+        assertEquals(Optional.of(List.of(3L)), searchIndex.search("earbuds"));
+    }
+
+    @Test
+    void build_ShouldReportTheCatalogVersionItWasBuiltFrom() {
+        // Given
+        givenCatalog();
+        when(catalogVersion.current()).thenReturn(1_000L);
+
+        // When
+        searchIndex.build();
+
+        // Then
+        verify(catalogVersion).register("product-search");
+        verify(catalogVersion).synced("product-search", 1_000L);
+    }
+
+    @Test
+    void search_ShouldFoldCaseAndAccents_AndMatchAcrossWords() {
+        // Given
+        givenCatalog();
+        searchIndex.build();
+
+        // When
+        Optional<List<Long>> result = searchIndex.search("CAFÉ TABLE");
+
+        // Then
+        assertEquals(Optional.of(List.of(4L)), result);
+    }
+
+    @Test
+    void search_ShouldKeepPunctuationAndSpacing_LikeTheDatabase() {
+        // Given
+        when(productRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new ProductSearchRow(1L, "Basic T-Shirt"),
+                new ProductSearchRow(2L, "T Shirt pack")));
+        searchIndex.build();
+
+        // When & Then
+        assertEquals(Optional.of(List.of(1L)), searchIndex.search("t-shirt"));
+        assertEquals(Optional.of(List.of(2L)), searchIndex.search("T SHIRT"));
+    }
+
+    @Test
+    void searchNameOrId_ShouldMatchNamesOnly_AndPutNumericIdFirst() {
+        // Given
+        givenCatalog();
+        searchIndex.build();
+
+        // When & Then
+        assertEquals(Optional.of(List.of(2L, 1L)), searchIndex.searchNameOrId("phone"));
+        assertEquals(Optional.of(List.of(4L)), searchIndex.searchNameOrId("004"));
+        assertEquals(Optional.of(List.of()), searchIndex.searchNameOrId("999"));
+    }
+
+    @Test
+    void search_ShouldFallBack_WhenQueryHasNoTrigram() {
+        // Given
+        givenCatalog();
+        searchIndex.build();
+
+        // When & Then
+        assertTrue(searchIndex.search("tv").isEmpty());
+        assertTrue(searchIndex.search("  ").isEmpty());
+    }
+
+    @Test
+    void onProductChanged_ShouldReindexUpdatedProducts_AndDropDeletedOnes() {
+        // Given
+        givenCatalog();
+        searchIndex.build();
+        when(productRepository.findSearchRowById(2L))
+                .thenReturn(Optional.of(new ProductSearchRow(2L, "Garden hose")));
+
+        // When
+        searchIndex.onProductChanged(ProductChangedEvent.updated(2L));
+        searchIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        // Then
+        assertEquals(Optional.of(List.of()), searchIndex.search("phone"));
+        assertEquals(Optional.of(List.of(2L)), searchIndex.search("hose"));
+        assertEquals(3, searchIndex.size());
+    }
+
+    @Test
+    void build_ShouldNotBringBackProductDeletedWhileItsBatchWasRead() {
+        // Given
+        when(productRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            searchIndex.onProductChanged(ProductChangedEvent.deleted(1L));
+            return List.of(new ProductSearchRow(1L, "Smartphone X1"));
+        });
+        when(productRepository.findSearchRowsByIdIn(Set.of(1L))).thenReturn(List.of());
+
+        // When
+        searchIndex.build();
+
+        // Then
+        assertEquals(0, searchIndex.size());
+        assertEquals(Optional.of(List.of()), searchIndex.search("phone"));
+    }
+
+    @Test
+    void scheduledRebuild_ShouldDropProductsDeletedOnOtherNodes() {
+        // Given
+        givenCatalog();
+        searchIndex.build();
+        when(productRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new ProductSearchRow(1L, "Smartphone X1"),
+                new ProductSearchRow(3L, "Wireless earbuds")));
+        when(productRepository.findSearchRowsAfter(eq(3L), any(Pageable.class))).thenReturn(List.of(
+                new ProductSearchRow(4L, "Café table")));
+        when(productRepository.findSearchRowsByIdIn(Set.of(2L))).thenReturn(List.of());
+
+        // When
+        searchIndex.scheduledRebuild();
+
+        // Then
+        assertEquals(3, searchIndex.size());
+        assertEquals(Optional.of(List.of(1L)), searchIndex.search("phone"));
+    }
+
+    @Test
+    void postingList_ShouldStaySortedAndUnique() {
+        // Given
+        ProductSearchIndex.PostingList list = new ProductSearchIndex.PostingList();
+
+        // When
+        for (long id : new long[]{5, 1, 9, 5, 3, 7, 1}) {
+            list.add(id);
+        }
+        list.remove(7);
+
+        // Then
+        assertEquals(4, list.size());
+        assertArrayEquals(new long[]{1, 3, 5, 9},
+                new long[]{list.get(0), list.get(1), list.get(2), list.get(3)});
+        assertTrue(list.contains(9));
+        assertFalse(list.contains(7));
+    }
+
+    private void givenCatalog() {
+        when(productRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new ProductSearchRow(1L, "Smartphone X1"),
+                new ProductSearchRow(2L, "Phone case")));
+        when(productRepository.findSearchRowsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(
+                new ProductSearchRow(3L, "Wireless earbuds"),
+                new ProductSearchRow(4L, "Café table")));
+        when(productRepository.findSearchRowsAfter(eq(4L), any(Pageable.class))).thenReturn(List.of());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rj.ecommerce_backend.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedRangeIndexTest {
+
+    @Test
+    void between_ShouldIncludeBothBounds_AndEveryOrdinalWithEqualKey() {
+        // Given
+        SortedRangeIndex index = new SortedRangeIndex();
+        index.load(new int[]{0, 1, 2, 3, 4}, new long[]{500, 100, 300, 300, 700});
+
+        // When
+        BitSet matches = index.between(300, 500);
+
+        // Then
+        assertEquals(BitSet.valueOf(new long[]{0b01101}), matches);
+        assertTrue(index.between(501, 699).isEmpty());
+        assertTrue(index.between(700, 100).isEmpty());
+    }
+
+    @Test
+    void addAndRemove_ShouldKeepEntriesSorted() {
+        // Given
+        SortedRangeIndex index = new SortedRangeIndex();
+        index.load(new int[0], new long[0]);
+
+        // When
+        index.add(50, 2);
+        index.add(10, 0);
+        index.add(50, 1);
+        index.add(50, 1);
+        index.remove(50, 2);
+        index.remove(99, 3);
+
+        // Then
+        assertEquals(2, index.size());
+        assertEquals(BitSet.valueOf(new long[]{0b010}), index.between(20, Long.MAX_VALUE));
+        assertEquals(BitSet.valueOf(new long[]{0b011}), index.between(Long.MIN_VALUE, 50));
+    }
+}
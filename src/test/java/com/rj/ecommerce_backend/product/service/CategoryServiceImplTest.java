@@ -5,6 +5,7 @@ import com.rj.ecommerce_backend.product.dtos.CategoryCreateDTO;
 import com.rj.ecommerce_backend.product.dtos.CategoryResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.CategorySearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.CategoryUpdateDTO;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
 import com.rj.ecommerce_backend.product.exceptions.CategoryAlreadyExistsException;
 import com.rj.ecommerce_backend.product.exceptions.CategoryNotFoundException;
 import com.rj.ecommerce_backend.product.exceptions.InvalidCategoryDataException;
@@ -13,14 +14,13 @@ import com.rj.ecommerce_backend.testutil.CategoryTestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -38,7 +38,9 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private CategoryServiceImpl categoryService;
 
     private Category testCategory;
@@ -48,6 +50,7 @@ class CategoryServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        categoryService = new CategoryServiceImpl(categoryRepository, eventPublisher, new CategoryCatalog(categoryRepository));
         testCategory = CategoryTestDataFactory.createTestCategory();
         testCategoryResponseDTO = CategoryTestDataFactory.createTestCategoryResponseDTO();
         testCategoryCreateDTO = CategoryTestDataFactory.createTestCategoryCreateDTO();
@@ -69,6 +72,7 @@ class CategoryServiceImplTest {
         assertEquals(testCategoryResponseDTO.name(), result.name());
         verify(categoryRepository).findByName(testCategoryCreateDTO.name());
         verify(categoryRepository).save(any(Category.class));
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(testCategory.getId()));
     }
 
     @Test
@@ -143,9 +147,8 @@ class CategoryServiceImplTest {
         // Given
         Pageable pageable = PageRequest.of(0, 10);
         CategorySearchCriteria criteria = CategoryTestDataFactory.createTestCategorySearchCriteria();
-        Page<Category> categoryPage = new PageImpl<>(Collections.singletonList(testCategory), pageable, 1);
 
-        when(categoryRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(categoryPage);
+        when(categoryRepository.findAll()).thenReturn(Collections.singletonList(testCategory));
 
         // When
         Page<CategoryResponseDTO> result = categoryService.getAllCategories(pageable, criteria);
@@ -155,7 +158,73 @@ class CategoryServiceImplTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(testCategoryResponseDTO.id(), result.getContent().get(0).id());
         assertEquals(testCategoryResponseDTO.name(), result.getContent().get(0).name());
-        verify(categoryRepository).findAll(any(Specification.class), eq(pageable));
+        verify(categoryRepository).findAll();
+    }
+
+    @Test
+    void getAllCategories_ShouldFilterSortAndPageSnapshot_WithoutQueryingAgain() {
+        // Given
+        when(categoryRepository.findAll()).thenReturn(Arrays.asList(
+                CategoryTestDataFactory.createTestCategory(3L, "phone cases"),
+                CategoryTestDataFactory.createTestCategory(1L, "Phones"),
+                CategoryTestDataFactory.createTestCategory(2L, "Audio"),
+                CategoryTestDataFactory.createTestCategory(12L, "Garden")));
+        Pageable firstPage = PageRequest.of(0, 1, Sort.by("name").descending());
+
+        // When
+        Page<CategoryResponseDTO> byName = categoryService.getAllCategories(
+                firstPage, CategoryTestDataFactory.createTestCategorySearchCriteria("PHONE", null));
+        Page<CategoryResponseDTO> byId = categoryService.getAllCategories(
+                PageRequest.of(0, 10), CategoryTestDataFactory.createTestCategorySearchCriteria("2", null));
+        Page<CategoryResponseDTO> byExactName = categoryService.getAllCategories(
+                PageRequest.of(0, 10), CategoryTestDataFactory.createTestCategorySearchCriteria(null, "audio"));
+
+        // Then
+        assertEquals(2, byName.getTotalElements());
+        assertEquals(List.of(1L), byName.map(CategoryResponseDTO::id).getContent());
+        assertEquals(List.of(2L), byId.map(CategoryResponseDTO::id).getContent());
+        assertEquals(List.of(2L), byExactName.map(CategoryResponseDTO::id).getContent());
+        verify(categoryRepository, times(1)).findAll();
+    }
+
+    @Test
+    void getCatalogETag_ShouldChangeOnlyWhenCategoriesChange() {
+        // Given
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(testCategory))
+                .thenReturn(List.of(testCategory))
+                .thenReturn(List.of(testCategory, CategoryTestDataFactory.createTestCategory(2L, "Audio")));
+        CategoryCatalog catalog = new CategoryCatalog(categoryRepository);
+
+        // When
+        CategoryCatalog.Snapshot first = catalog.current();
+        catalog.onCategoryChanged(new CategoryChangedEvent(testCategory.getId()));
+        CategoryCatalog.Snapshot unchanged = catalog.current();
+        catalog.onCategoryChanged(new CategoryChangedEvent(2L));
+        CategoryCatalog.Snapshot changed = catalog.current();
+
+        // Then
+        assertEquals(first.etag(), unchanged.etag());
+        assertNotEquals(first.etag(), changed.etag());
+        assertEquals(first, unchanged);
+        assertEquals(2, changed.version());
+        assertEquals(List.of(testCategory.getName(), "Audio"), changed.names());
+    }
+
+    @Test
+    void refresh_ShouldPickUpCategoriesChangedOnOtherNodes() {
+        // Given
+        when(categoryRepository.findAll())
+                .thenReturn(List.of(testCategory))
+                .thenReturn(List.of(testCategory, CategoryTestDataFactory.createTestCategory(2L, "Audio")));
+        CategoryCatalog catalog = new CategoryCatalog(categoryRepository);
+        catalog.current();
+
+        // When
+        catalog.refresh();
+
+        // Then
+        assertEquals(List.of(testCategory.getName(), "Audio"), catalog.current().names());
     }
 
     @Test
@@ -195,6 +264,7 @@ class CategoryServiceImplTest {
         assertEquals(testCategoryUpdateDTO.name(), result.name());
         verify(categoryRepository).findById(categoryId);
         verify(categoryRepository).save(categoryToUpdate);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(categoryId));
     }
 
     @Test
@@ -224,6 +294,7 @@ class CategoryServiceImplTest {
         // Then
         verify(categoryRepository).existsById(categoryId);
         verify(categoryRepository).deleteById(categoryId);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(categoryId));
     }
 
     @Test
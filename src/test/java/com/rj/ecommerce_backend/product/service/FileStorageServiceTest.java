@@ -0,0 +1,407 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.ProductImageProperties;
+import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.events.ImageReleasedEvent;
+import com.rj.ecommerce_backend.product.events.ImageStoredEvent;
+import com.rj.ecommerce_backend.product.exceptions.FileStorageException;
+import com.rj.ecommerce_backend.product.exceptions.ImageUploadRejectedException;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FileStorageServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path storageDir;
+
+    private ImageStorageLayout storageLayout;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setLocation(storageDir.resolve("images").toString());
+        storageProperties.init();
+        ProductImageProperties imageProperties = new ProductImageProperties();
+        imageProperties.setUploadRetryBackoffMs(10);
+        storageLayout = new ImageStorageLayout(storageProperties);
+        fileStorageService = new FileStorageService(storageLayout, imageRepository, imageVariantService,
+                eventPublisher, imageProperties, new SimpleMeterRegistry());
+        fileStorageService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    void loadStoredImage_ShouldDescribeFile_AndCacheStoredContentType() throws Exception {
+        // Given
+        Path file = Files.write(storageDir.resolve("images/a1b2.bin"), new byte[300]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_714_564_800_000L));
+        when(imageRepository.findMimeTypesByPath("a1b2.bin")).thenReturn(List.of("image/webp"));
+
+        // When
+        StoredImage first = fileStorageService.loadStoredImage("a1b2.bin").orElseThrow();
+        StoredImage second = fileStorageService.loadStoredImage("a1b2.bin").orElseThrow();
+
+        // Then
+        assertEquals(300, first.length());
+        assertEquals(1_714_564_800_000L, first.lastModified());
+        assertEquals("\"12c-18f34069e00\"", first.etag());
+        assertEquals(MediaType.parseMediaType("image/webp"), first.contentType());
+        assertEquals(first, second);
+        verify(imageRepository, times(1)).findMimeTypesByPath("a1b2.bin");
+    }
+
+    @Test
+    void storeFile_ShouldNameFileAfterItsContent_AndReuseItForSameBytes() throws Exception {
+        // Given
+        byte[] bytes = "supplier photo".getBytes(StandardCharsets.UTF_8);
+        String expectedName = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)) + ".jpg";
+        Product product = new Product();
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(imageRepository.findVariantWidthsByPath(expectedName)).thenReturn(List.of("128,400"));
+
+        // When
+        Image first = fileStorageService.storeFile(
+                new MockMultipartFile("file", "Photo.JPG", "image/jpeg", bytes), null, product);
+        Image second = fileStorageService.storeFile(
+                new MockMultipartFile("file", "copy.jpg", "image/jpeg", bytes), null, product);
+
+        // Then
+        assertEquals(expectedName, first.getPath());
+        assertEquals(expectedName, second.getPath());
+        assertNull(first.getVariantWidths());
+        assertEquals("128,400", second.getVariantWidths());
+        Path stored = storageLayout.locate(expectedName);
+        Path shard = storageDir.resolve("images").resolve(expectedName.substring(0, 2));
+        assertEquals(shard.resolve(expectedName.substring(2, 4)), stored.getParent());
+        try (Stream<Path> files = Files.list(stored.getParent())) {
+            assertEquals(List.of(stored), files.toList());
+        }
+        try (Stream<Path> files = Files.list(storageDir.resolve("images"))) {
+            assertEquals(List.of(expectedName.substring(0, 2)),
+                    files.map(file -> file.getFileName().toString()).toList());
+        }
+        assertTrue(FileStorageService.isContentAddressed(expectedName));
+        verify(eventPublisher, times(1)).publishEvent(new ImageStoredEvent(expectedName));
+    }
+
+    @Test
+    void storeFiles_ShouldWriteFilesOnUploadPool_AndSaveRowsInOrder() {
+        // Given
+        Product product = new Product();
+        Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+        List<MultipartFile> files = List.of(
+                recordingFile("a.png", "first", writerThreads),
+                recordingFile("b.png", "second", writerThreads),
+                recordingFile("c.png", "first", writerThreads));
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Image> images = fileStorageService.storeFiles(files, "Front", product);
+
+        // Then
+        assertEquals(3, images.size());
+        assertEquals(images.get(0).getPath(), images.get(2).getPath());
+        assertNotEquals(images.get(0).getPath(), images.get(1).getPath());
+        images.forEach(image -> assertSame(product, image.getProduct()));
+        assertTrue(writerThreads.stream().allMatch(name -> name.startsWith("image-upload-")), writerThreads::toString);
+        verify(imageRepository, times(3)).save(any(Image.class));
+        verify(eventPublisher, times(2)).publishEvent(any(ImageStoredEvent.class));
+    }
+
+    @Test
+    void storeFiles_ShouldRetryFailedWrite_AndFailWhenAttemptsRunOut() throws Exception {
+        // Given
+        MultipartFile flaky = mock(MultipartFile.class);
+        when(flaky.getOriginalFilename()).thenReturn("flaky.png");
+        when(flaky.getInputStream())
+                .thenThrow(new IOException("disk hiccup"))
+                .thenReturn(new ByteArrayInputStream(new byte[]{1, 2, 3}));
+        MultipartFile broken = mock(MultipartFile.class);
+        when(broken.getOriginalFilename()).thenReturn("broken.png");
+        when(broken.getInputStream()).thenThrow(new IOException("disk gone"));
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        List<Image> stored = fileStorageService.storeFiles(List.of(flaky), null, new Product());
+        FileStorageException failure = assertThrows(FileStorageException.class,
+                () -> fileStorageService.storeFiles(List.of(broken), null, new Product()));
+
+        // Then
+        assertEquals(1, stored.size());
+        verify(flaky, times(2)).getInputStream();
+        verify(broken, times(3)).getInputStream();
+        assertEquals("Could not store file broken.png", failure.getMessage());
+        verify(imageRepository, times(1)).save(any(Image.class));
+    }
+
+    @Test
+    void storeFiles_ShouldDeleteRowsAlreadySaved_WhenALaterFileFails() throws Exception {
+        // Given
+        MultipartFile broken = mock(MultipartFile.class);
+        when(broken.getOriginalFilename()).thenReturn("broken.png");
+        when(broken.getInputStream()).thenThrow(new IOException("disk gone"));
+        List<Image> saved = new ArrayList<>();
+        when(imageRepository.save(any(Image.class))).thenAnswer(invocation -> {
+            saved.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        List<MultipartFile> files = List.of(new MockMultipartFile("file", "ok.png", "image/png", new byte[]{1}), broken);
+
+        // When
+        assertThrows(FileStorageException.class, () -> fileStorageService.storeFiles(files, null, new Product()));
+
+        // Then
+        assertEquals(1, saved.size());
+        verify(imageRepository).deleteAll(saved);
+        verify(eventPublisher, never()).publishEvent(any(ImageStoredEvent.class));
+    }
+
+    @Test
+    void storeFiles_ShouldReject_WhenUploadPoolIsFull_WithoutWritingOnCallerThread() {
+        // Given: one writer, one queue slot, and a first file that keeps the writer busy
+        ProductImageProperties imageProperties = new ProductImageProperties();
+        imageProperties.setUploadPoolSize(1);
+        imageProperties.setUploadQueueCapacity(1);
+        FileStorageService saturated = new FileStorageService(storageLayout, imageRepository, imageVariantService,
+                eventPublisher, imageProperties, new SimpleMeterRegistry());
+        saturated.init();
+        Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+        MultipartFile slow = new MockMultipartFile("file", "slow.png", "image/png", new byte[]{1}) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                writerThreads.add(Thread.currentThread().getName());
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getInputStream();
+            }
+        };
+        List<MultipartFile> files = List.of(slow,
+                recordingFile("b.png", "second", writerThreads),
+                recordingFile("c.png", "third", writerThreads));
+
+        // When
+        ImageUploadRejectedException rejected = assertThrows(ImageUploadRejectedException.class,
+                () -> saturated.storeFiles(files, null, new Product()));
+        saturated.shutdown();
+
+        // Then
+        assertEquals(5, rejected.getRetryAfterSeconds());
+        assertTrue(writerThreads.stream().allMatch(name -> name.startsWith("image-upload-")), writerThreads::toString);
+        verify(imageRepository, never()).save(any(Image.class));
+    }
+
+    @Test
+    void deleteImage_ShouldDeleteRow_AndReleaseItsFile() {
+        // Given
+        Image image = Image.builder().id(5L).path("a1b2.jpg").build();
+
+        // When
+        fileStorageService.deleteImage(image);
+
+        // Then
+        verify(imageRepository).delete(image);
+        verify(eventPublisher).publishEvent(new ImageReleasedEvent("a1b2.jpg"));
+    }
+
+    @Test
+    void onImageReleased_ShouldKeepFileWhileReferenced_AndDeleteItWithLastReference() throws Exception {
+        // Given
+        Path file = Files.write(storageDir.resolve("images/a1b2.jpg"), new byte[10]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_714_564_800_000L));
+        when(imageRepository.countByPath("a1b2.jpg")).thenReturn(1L, 0L);
+
+        // When
+        fileStorageService.onImageReleased(new ImageReleasedEvent("a1b2.jpg"));
+        boolean keptWhileShared = Files.exists(file);
+        fileStorageService.onImageReleased(new ImageReleasedEvent("a1b2.jpg"));
+
+        // Then
+        assertTrue(keptWhileShared);
+        assertFalse(Files.exists(file));
+        verify(imageVariantService, times(1)).deleteVariants("a1b2.jpg");
+    }
+
+    @Test
+    void onImageReleased_ShouldLeaveRecentlyReusedFile() throws Exception {
+        // Given
+        Path file = Files.write(storageDir.resolve("images/a1b2.jpg"), new byte[10]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        when(imageRepository.countByPath("a1b2.jpg")).thenReturn(0L);
+
+        // When
+        fileStorageService.onImageReleased(new ImageReleasedEvent("a1b2.jpg"));
+
+        // Then
+        assertTrue(Files.exists(file));
+        verify(imageVariantService, never()).deleteVariants(anyString());
+    }
+
+    @Test
+    void loadStoredImage_ShouldUseNameAsETag_ForContentAddressedFiles() throws Exception {
+        // Given
+        String name = "ab".repeat(32) + ".png";
+        Files.write(storageDir.resolve("images").resolve(name), new byte[10]);
+        when(imageRepository.findMimeTypesByPath(name)).thenReturn(List.of());
+
+        // When
+        StoredImage image = fileStorageService.loadStoredImage(name).orElseThrow();
+
+        // Then
+        assertEquals("\"" + name + "\"", image.etag());
+        assertEquals(MediaType.IMAGE_PNG, image.contentType());
+    }
+
+    @Test
+    void loadStoredImage_ShouldFindFilesInShardDirectory_AndStillInStorageRoot() throws Exception {
+        // Given
+        String sharded = "cd".repeat(32) + ".jpg";
+        Path shardedFile = storageLayout.locate(sharded);
+        Files.createDirectories(shardedFile.getParent());
+        Files.write(shardedFile, new byte[20]);
+        Files.write(storageDir.resolve("images/legacy.jpg"), new byte[30]);
+        when(imageRepository.findMimeTypesByPath(anyString())).thenReturn(List.of());
+
+        // When
+        StoredImage fromShard = fileStorageService.loadStoredImage(sharded).orElseThrow();
+        StoredImage fromRoot = fileStorageService.loadStoredImage("legacy.jpg").orElseThrow();
+
+        // Then
+        assertEquals(storageDir.resolve("images/cd/cd").resolve(sharded), fromShard.path());
+        assertEquals(20, fromShard.length());
+        assertEquals(storageDir.resolve("images/legacy.jpg"), fromRoot.path());
+        assertEquals(30, fromRoot.length());
+    }
+
+    @Test
+    void loadStoredImage_ShouldOnlyServeImageTypes() throws Exception {
+        // Given
+        Files.write(storageDir.resolve("images/photo.jpg"), new byte[10]);
+        Files.write(storageDir.resolve("images/page.html"), new byte[10]);
+        when(imageRepository.findMimeTypesByPath("photo.jpg")).thenReturn(List.of("text/html"));
+        when(imageRepository.findMimeTypesByPath("page.html")).thenReturn(List.of());
+
+        // When
+        MediaType photo = fileStorageService.loadStoredImage("photo.jpg").orElseThrow().contentType();
+        MediaType page = fileStorageService.loadStoredImage("page.html").orElseThrow().contentType();
+
+        // Then
+        assertEquals(MediaType.IMAGE_JPEG, photo);
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, page);
+    }
+
+    @Test
+    void loadImageVariant_ShouldServeRecordedCopy_OrTheOriginalWhenNoneFits() throws Exception {
+        // Given
+        Files.write(storageDir.resolve("images/photo.jpg"), new byte[10]);
+        Files.write(storageDir.resolve("images/photo.jpg-w400.jpg"), new byte[5]);
+        Files.write(storageDir.resolve("images/photo.webp"), new byte[7]);
+        when(imageVariantService.recordedWidths("photo.jpg")).thenReturn(Optional.of(List.of(128, 400)));
+
+        // When
+        Optional<StoredImage> copy = fileStorageService.loadImageVariant("photo.jpg", 300);
+        Optional<StoredImage> tooNarrow = fileStorageService.loadImageVariant("photo.jpg", 1000);
+        Optional<StoredImage> notResized = fileStorageService.loadImageVariant("photo.webp", 300);
+
+        // Then
+        assertEquals(5, copy.orElseThrow().length());
+        assertEquals(MediaType.IMAGE_JPEG, copy.get().contentType());
+        assertEquals(10, tooNarrow.orElseThrow().length());
+        assertEquals(7, notResized.orElseThrow().length());
+        verify(imageVariantService, never()).request(anyString());
+    }
+
+    @Test
+    void loadImageVariant_ShouldRequestCopies_WhenNotMadeYet() throws Exception {
+        // Given
+        Files.write(storageDir.resolve("images/photo.jpg"), new byte[10]);
+        when(imageVariantService.recordedWidths("photo.jpg")).thenReturn(Optional.empty());
+
+        // When
+        Optional<StoredImage> pending = fileStorageService.loadImageVariant("photo.jpg", 300);
+
+        // Then
+        assertTrue(pending.isEmpty());
+        verify(imageVariantService).request("photo.jpg");
+    }
+
+    @Test
+    void loadStoredImage_ShouldReturnEmpty_ForMissingFilesAndPathsOutsideStorage() throws Exception {
+        // Given
+        Files.write(storageDir.resolve("secret.png"), new byte[10]);
+
+        // When
+        Optional<StoredImage> missing = fileStorageService.loadStoredImage("missing.png");
+        Optional<StoredImage> outside = fileStorageService.loadStoredImage("../secret.png");
+
+        // Then
+        assertTrue(missing.isEmpty());
+        assertTrue(outside.isEmpty());
+    }
+
+    private static MultipartFile recordingFile(String name, String content, Set<String> writerThreads) {
+        return new MockMultipartFile("file", name, "image/png", content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                writerThreads.add(Thread.currentThread().getName());
+                return super.getInputStream();
+            }
+        };
+    }
+}
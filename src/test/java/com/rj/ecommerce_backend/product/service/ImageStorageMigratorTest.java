@@ -0,0 +1,115 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.StorageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageStorageMigratorTest {
+
+    @TempDir
+    private Path storageDir;
+
+    private StorageProperties storageProperties;
+    private ImageStorageLayout storageLayout;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageStorageMigrator migrator;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setLocation(storageDir.toString());
+        storageLayout = new ImageStorageLayout(storageProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        migrator = new ImageStorageMigrator(storageProperties, storageLayout, meterRegistry);
+        migrator.init();
+    }
+
+    @Test
+    void migrateBatch_ShouldMoveFlatFilesIntoShardDirectories_AndKeepTheirTimestamps() throws Exception {
+        // Given
+        String contentAddressed = "ef".repeat(32) + ".png";
+        Path original = Files.write(storageDir.resolve("photo.jpg"), new byte[10]);
+        Files.setLastModifiedTime(original, FileTime.fromMillis(1_714_564_800_000L));
+        Files.write(storageDir.resolve("photo.jpg-w128.jpg"), new byte[5]);
+        Files.write(storageDir.resolve(contentAddressed), new byte[7]);
+        Files.write(storageDir.resolve(".upload-1.tmp"), new byte[1]);
+
+        // When
+        int moved = migrator.migrateBatch();
+
+        // Then
+        assertEquals(3, moved);
+        assertTrue(migrator.isFinished());
+        Path photo = storageLayout.locate("photo.jpg");
+        assertEquals(1_714_564_800_000L, Files.getLastModifiedTime(photo).toMillis());
+        assertEquals(photo.getParent(), storageLayout.locate("photo.jpg-w128.jpg").getParent());
+        assertTrue(Files.exists(storageLayout.locate("photo.jpg-w128.jpg")));
+        assertTrue(Files.exists(storageDir.resolve("ef/ef").resolve(contentAddressed)));
+        assertFalse(Files.exists(original));
+        assertTrue(Files.exists(storageDir.resolve(".upload-1.tmp")));
+        assertEquals(3, meterRegistry.get("product.image.storage.migrated").counter().count());
+    }
+
+    @Test
+    void migrate_ShouldMoveOneBatchPerRun_UntilRootIsEmpty() throws Exception {
+        // Given
+        storageProperties.setMigrationBatchSize(2);
+        for (String name : List.of("a.jpg", "b.jpg", "c.jpg")) {
+            Files.write(storageDir.resolve(name), new byte[1]);
+        }
+
+        // When
+        migrator.migrate();
+        boolean finishedAfterFirst = migrator.isFinished();
+        migrator.migrate();
+
+        // Then
+        assertFalse(finishedAfterFirst);
+        assertTrue(migrator.isFinished());
+        for (String name : List.of("a.jpg", "b.jpg", "c.jpg")) {
+            assertTrue(Files.exists(storageLayout.locate(name)), name);
+            assertFalse(Files.exists(storageDir.resolve(name)), name);
+        }
+    }
+
+    @Test
+    void migrateBatch_ShouldDropFlatFile_WhenShardedCopyExists() throws Exception {
+        // Given
+        String name = "0a".repeat(32) + ".jpg";
+        Path sharded = storageLayout.locate(name);
+        Files.createDirectories(sharded.getParent());
+        Files.write(sharded, new byte[4]);
+        Files.write(storageDir.resolve(name), new byte[4]);
+
+        // When
+        int moved = migrator.migrateBatch();
+
+        // Then
+        assertEquals(0, moved);
+        assertTrue(Files.exists(sharded));
+        assertFalse(Files.exists(storageDir.resolve(name)));
+    }
+
+    @Test
+    void migrate_ShouldDoNothing_WhenMigrationIsDisabled() throws Exception {
+        // Given
+        storageProperties.setMigrationEnabled(false);
+        Files.write(storageDir.resolve("a.jpg"), new byte[1]);
+
+        // When
+        migrator.migrate();
+
+        // Then
+        assertTrue(Files.exists(storageDir.resolve("a.jpg")));
+        assertFalse(migrator.isFinished());
+    }
+}
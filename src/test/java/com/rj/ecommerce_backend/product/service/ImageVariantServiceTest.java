@@ -0,0 +1,188 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.ProductImageProperties;
+import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path storageDir;
+
+    private ImageStorageLayout storageLayout;
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        StorageProperties storageProperties = new StorageProperties();
+        storageProperties.setLocation(storageDir.toString());
+        storageLayout = new ImageStorageLayout(storageProperties);
+        imageVariantService = new ImageVariantService(new ProductImageProperties(), storageLayout, imageRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher,
+                new SimpleMeterRegistry());
+        imageVariantService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    void generate_ShouldWriteCopiesNarrowerThanOriginal_AndRecordThem() throws Exception {
+        // Given
+        writeImage("photo.jpg", "jpg", 1000, 500);
+        Image image = givenImageRow("photo.jpg", 7L);
+
+        // When
+        imageVariantService.generate("photo.jpg");
+
+        // Then
+        assertDimensions("photo.jpg-w400.jpg", 400, 200);
+        assertDimensions("photo.jpg-w128.jpg", 128, 64);
+        assertFalse(Files.exists(storageLayout.locate("photo.jpg-w1200.jpg")));
+        assertEquals(storageLayout.locate("photo.jpg").getParent(),
+                storageLayout.locate("photo.jpg-w400.jpg").getParent());
+        assertEquals("128,400", image.getVariantWidths());
+        assertNotNull(image.getProduct().getUpdatedAt());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(7L));
+    }
+
+    @Test
+    void request_ShouldResizeOnPool_AndNotRequeueRecentAttempts() throws Exception {
+        // Given
+        writeImage("logo.gif", "gif", 300, 300);
+        Image image = givenImageRow("logo.gif", 3L);
+
+        // When
+        boolean queued = imageVariantService.request("logo.gif");
+
+        // Then
+        assertTrue(queued);
+        verify(eventPublisher, timeout(5000)).publishEvent(ProductChangedEvent.updated(3L));
+        assertEquals("128", image.getVariantWidths());
+        assertDimensions("logo.gif-w128.png", 128, 128);
+        assertFalse(imageVariantService.request("logo.gif"));
+        assertFalse(imageVariantService.request("manual.pdf"));
+    }
+
+    @Test
+    void variantFileName_ShouldPickNarrowestRecordedCopyAtLeastAsWide() {
+        // Given
+        List<Integer> widths = List.of(128, 400);
+
+        // When & Then
+        assertEquals(Optional.of("a.jpeg-w128.jpg"), ImageVariantService.variantFileName("a.jpeg", 100, widths));
+        assertEquals(Optional.of("a.jpeg-w400.jpg"), ImageVariantService.variantFileName("a.jpeg", 129, widths));
+        assertEquals(Optional.empty(), ImageVariantService.variantFileName("a.jpeg", 1000, widths));
+        assertEquals(Optional.empty(), ImageVariantService.variantFileName("a.jpeg", 100, List.of()));
+        assertEquals(Optional.empty(), ImageVariantService.variantFileName("a.webp", 100, widths));
+    }
+
+    @Test
+    void recordedWidths_ShouldBeEmpty_UntilCopiesAreMade() {
+        // Given
+        when(imageRepository.findVariantWidthsByPath("a.jpg")).thenReturn(List.of(), List.of(""));
+        when(imageRepository.findVariantWidthsByPath("b.jpg")).thenReturn(List.of("128,400"));
+
+        // When & Then
+        assertEquals(Optional.empty(), imageVariantService.recordedWidths("a.jpg"));
+        assertEquals(Optional.of(List.of()), imageVariantService.recordedWidths("a.jpg"));
+        assertEquals(Optional.of(List.of(128, 400)), imageVariantService.recordedWidths("b.jpg"));
+    }
+
+    @Test
+    void generate_ShouldRecordNoCopies_WithoutDecodingOversizedImage() throws Exception {
+        // Given
+        ProductImageProperties properties = new ProductImageProperties();
+        properties.setMaxPixels(100 * 100);
+        ImageVariantService limited = new ImageVariantService(properties, storageLayout, imageRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher,
+                new SimpleMeterRegistry());
+        writeImage("huge.png", "png", 1000, 500);
+        Image image = givenImageRow("huge.png", 9L);
+
+        // When
+        limited.generate("huge.png");
+
+        // Then
+        assertEquals("", image.getVariantWidths());
+        assertFalse(Files.exists(storageLayout.locate("huge.png-w400.png")));
+    }
+
+    @Test
+    void deleteVariants_ShouldRemoveEveryCopy_InEitherLayout() throws Exception {
+        // Given
+        Path sharded = storageLayout.locate("a.png-w400.png");
+        Files.createDirectories(sharded.getParent());
+        Files.write(sharded, new byte[1]);
+        Files.write(storageDir.resolve("a.png-w128.png"), new byte[1]);
+
+        // When
+        imageVariantService.deleteVariants("a.png");
+
+        // Then
+        assertFalse(Files.exists(sharded));
+        assertFalse(Files.exists(storageDir.resolve("a.png-w128.png")));
+    }
+
+    private void writeImage(String fileName, String format, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        assertTrue(ImageIO.write(image, format, storageDir.resolve(fileName).toFile()));
+    }
+
+    private Image givenImageRow(String fileName, Long productId) {
+        Product product = new Product();
+        product.setId(productId);
+        Image image = Image.builder().path(fileName).product(product).build();
+        when(imageRepository.findAllByPath(fileName)).thenReturn(List.of(image));
+        return image;
+    }
+
+    private void assertDimensions(String fileName, int width, int height) throws Exception {
+        BufferedImage variant = ImageIO.read(storageLayout.locate(fileName).toFile());
+        assertNotNull(variant, fileName);
+        assertEquals(width, variant.getWidth());
+        assertEquals(height, variant.getHeight());
+    }
+}
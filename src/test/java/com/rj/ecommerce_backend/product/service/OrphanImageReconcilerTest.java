@@ -0,0 +1,236 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.StorageProperties;
+import com.rj.ecommerce_backend.product.repository.ImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanImageReconcilerTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @TempDir
+    private Path storageDir;
+
+    private StorageProperties storageProperties;
+    private ImageStorageLayout storageLayout;
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanImageReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        storageProperties = new StorageProperties();
+        storageProperties.setLocation(storageDir.toString());
+        storageProperties.setCleanupThresholdDays(7);
+        storageProperties.setCleanupBatchSize(3);
+        storageProperties.setCleanupPauseBetweenBatchesMs(0);
+        storageLayout = new ImageStorageLayout(storageProperties);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void run_ShouldDeleteOldUnreferencedFiles_AndTheirCopies() throws Exception {
+        // Given
+        givenReconciler();
+        givenReferenced("kept.jpg");
+        writeOld("kept.jpg", 100);
+        writeOld("kept.jpg-w128.jpg", 10);
+        writeOld("gone.png", 200);
+        writeOld("gone.png-w128.png", 20);
+        writeOld(".upload-1.tmp", 5);
+        Files.write(storageDir.resolve("fresh.jpg"), new byte[50]);
+        Files.createDirectory(storageDir.resolve("nested"));
+
+        // When
+        OrphanImageReconciler.Result result = reconciler.run();
+
+        // Then
+        assertTrue(result.isComplete());
+        assertEquals(7, result.getScanned());
+        assertEquals(3, result.getDeleted());
+        assertEquals(225, result.getReclaimedBytes());
+        assertEquals(List.of("fresh.jpg", "kept.jpg", "kept.jpg-w128.jpg", "nested"), remainingFiles());
+        assertEquals(7, meterRegistry.get("product.image.orphans.scanned").counter().count());
+        assertEquals(225, meterRegistry.get("product.image.orphans.reclaimed").tag("dry_run", "false")
+                .counter().count());
+    }
+
+    @Test
+    void run_ShouldWalkShardDirectories() throws Exception {
+        // Given
+        storageProperties.setCleanupBatchSize(2);
+        givenReconciler();
+        givenReferenced("kept.jpg");
+        Path kept = writeOldSharded("kept.jpg");
+        Path keptCopy = writeOldSharded("kept.jpg-w128.jpg");
+        Path gone = writeOldSharded("gone.jpg");
+        Path goneCopy = writeOldSharded("gone.jpg-w128.jpg");
+        writeOld("flat.jpg", 1);
+
+        // When
+        OrphanImageReconciler.Result result = reconciler.run();
+
+        // Then
+        assertTrue(result.isComplete());
+        assertEquals(5, result.getScanned());
+        assertEquals(3, result.getDeleted());
+        assertTrue(Files.exists(kept));
+        assertTrue(Files.exists(keptCopy));
+        assertFalse(Files.exists(gone));
+        assertFalse(Files.exists(goneCopy));
+        assertFalse(Files.exists(storageDir.resolve("flat.jpg")));
+    }
+
+    @Test
+    void run_ShouldOnlyReport_InDryRun() throws Exception {
+        // Given
+        storageProperties.setCleanupDryRun(true);
+        givenReconciler();
+        givenReferenced();
+        writeOld("gone.png", 200);
+
+        // When
+        OrphanImageReconciler.Result result = reconciler.run();
+
+        // Then
+        assertEquals(1, result.getDeleted());
+        assertEquals(200, result.getReclaimedBytes());
+        assertEquals(List.of("gone.png"), remainingFiles());
+        assertEquals(1, meterRegistry.get("product.image.orphans.deleted").tag("dry_run", "true")
+                .counter().count());
+    }
+
+    @Test
+    void run_ShouldStopAfterMaxBatches_AndContinueOnNextRun() throws Exception {
+        // Given
+        storageProperties.setCleanupBatchSize(2);
+        storageProperties.setCleanupMaxBatchesPerRun(1);
+        givenReconciler();
+        givenReferenced("kept-1.jpg", "kept-2.jpg");
+        for (String name : List.of("kept-1.jpg", "kept-2.jpg", "a.jpg", "b.jpg", "c.jpg")) {
+            writeOld(name, 1);
+        }
+
+        // When
+        OrphanImageReconciler.Result first = reconciler.run();
+        int runs = 1;
+        int deleted = first.getDeleted();
+        OrphanImageReconciler.Result last = first;
+        while (!last.isComplete() && runs < 10) {
+            last = reconciler.run();
+            deleted += last.getDeleted();
+            runs++;
+        }
+
+        // Then
+        assertFalse(first.isComplete());
+        assertEquals(2, first.getScanned());
+        assertEquals(3, deleted);
+        assertTrue(runs <= 4, "runs: " + runs);
+        assertEquals(List.of("kept-1.jpg", "kept-2.jpg"), remainingFiles());
+    }
+
+    @Test
+    void run_ShouldStopDeleting_AtMaxDeletesPerRun() throws Exception {
+        // Given
+        storageProperties.setCleanupMaxDeletesPerRun(2);
+        givenReconciler();
+        givenReferenced();
+        for (String name : List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg")) {
+            writeOld(name, 1);
+        }
+
+        // When
+        OrphanImageReconciler.Result result = reconciler.run();
+
+        // Then
+        assertEquals(2, result.getDeleted());
+        assertEquals(2, remainingFiles().size());
+    }
+
+    @Test
+    void reconcile_ShouldDoNothing_WhenCleanupIsDisabled() throws Exception {
+        // Given
+        storageProperties.setCleanupEnabled(false);
+        givenReconciler();
+        writeOld("gone.png", 200);
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        assertEquals(List.of("gone.png"), remainingFiles());
+        verify(imageRepository, never()).findExistingPaths(anyCollection());
+    }
+
+    @Test
+    void reconcile_ShouldLookUpEachBatchOnce() throws Exception {
+        // Given
+        givenReconciler();
+        givenReferenced();
+        for (String name : List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg")) {
+            writeOld(name, 1);
+        }
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        assertEquals(List.of(), remainingFiles());
+        verify(imageRepository, times(2)).findExistingPaths(anyCollection());
+        assertEquals(1, meterRegistry.get("product.image.orphans.run").timer().count());
+    }
+
+    private void givenReconciler() {
+        reconciler = new OrphanImageReconciler(storageProperties, storageLayout, imageRepository, meterRegistry);
+        reconciler.init();
+    }
+
+    private void givenReferenced(String... paths) {
+        List<String> referenced = List.of(paths);
+        when(imageRepository.findExistingPaths(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream().filter(referenced::contains).toList());
+    }
+
+    private void writeOld(String name, int size) throws Exception {
+        Path file = Files.write(storageDir.resolve(name), new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+    }
+
+    private Path writeOldSharded(String name) throws Exception {
+        Path file = storageLayout.locate(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[1]);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(30))));
+        return file;
+    }
+
+    private List<String> remainingFiles() throws Exception {
+        try (Stream<Path> files = Files.list(storageDir)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
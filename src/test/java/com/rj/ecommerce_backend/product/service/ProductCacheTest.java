@@ -0,0 +1,145 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.ProductCacheProperties;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import com.rj.ecommerce_backend.testutil.ProductTestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private ProductCacheProperties properties;
+    private ProductCache productCache;
+    private VersionedProduct product;
+    private AtomicInteger loads;
+    private Function<Long, Optional<VersionedProduct>> loader;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ProductCacheProperties();
+        productCache = new ProductCache(properties, new SimpleMeterRegistry());
+        productCache.init();
+        product = new VersionedProduct(ProductTestDataFactory.createValidProductResponseDTO(),
+                Instant.ofEpochMilli(1_000));
+        loads = new AtomicInteger();
+        loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(product);
+        };
+    }
+
+    @Test
+    void get_ShouldLoadOnce_AndServeLaterReadsFromCache() {
+        // When
+        productCache.get(1L, Instant.MIN, loader);
+        Optional<VersionedProduct> result = productCache.get(1L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(Optional.of(product), result);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingProducts() {
+        // When
+        productCache.get(1L, Instant.MIN, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        Optional<VersionedProduct> result = productCache.get(1L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(Optional.of(product), result);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldReload_WhenCachedStateIsOlderThanRequired() {
+        // Given
+        productCache.get(1L, Instant.MIN, loader);
+        VersionedProduct changedElsewhere = new VersionedProduct(product.product(), Instant.ofEpochMilli(2_000));
+
+        // When
+        Optional<VersionedProduct> stale = productCache.get(1L, Instant.ofEpochMilli(2_000), id -> {
+            loads.incrementAndGet();
+            return Optional.of(changedElsewhere);
+        });
+        Optional<VersionedProduct> cached = productCache.get(1L, Instant.ofEpochMilli(2_000), loader);
+
+        // Then
+        assertEquals(Optional.of(changedElsewhere), stale);
+        assertEquals(Optional.of(changedElsewhere), cached);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onProductChanged_ShouldEvictProduct_UnlessItWasJustCreated() {
+        // Given
+        productCache.get(1L, Instant.MIN, loader);
+
+        // When
+        productCache.onProductChanged(ProductChangedEvent.created(1L));
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        productCache.get(1L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onCategoryChanged_ShouldEvictAllProducts() {
+        // Given
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.get(2L, Instant.MIN, loader);
+
+        // When
+        productCache.onCategoryChanged(new CategoryChangedEvent(5L));
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.get(2L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void onProductsStockChanged_ShouldEvictOnlyAdjustedProducts() {
+        // Given
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.get(2L, Instant.MIN, loader);
+        productCache.get(3L, Instant.MIN, loader);
+
+        // When
+        productCache.onProductsStockChanged(new ProductsStockChangedEvent(List.of(1L, 3L)));
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.get(2L, Instant.MIN, loader);
+        productCache.get(3L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void get_ShouldAlwaysLoad_WhenCacheIsDisabled() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        productCache.get(1L, Instant.MIN, loader);
+        productCache.get(1L, Instant.MIN, loader);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+}
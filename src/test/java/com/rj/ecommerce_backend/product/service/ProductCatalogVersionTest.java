@@ -0,0 +1,135 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.domain.CatalogVersion;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.repository.CatalogVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductCatalogVersionTest {
+
+    private final CatalogVersionRepository catalogVersionRepository = mock(CatalogVersionRepository.class);
+    private final CatalogVersion row = new CatalogVersion(CatalogVersion.ID, 1_000L, 0L);
+
+    private ProductCatalogVersion catalogVersion;
+
+    @BeforeEach
+    void setUp() {
+        when(catalogVersionRepository.findById(CatalogVersion.ID)).thenAnswer(invocation -> Optional.of(copy(row)));
+        when(catalogVersionRepository.findForUpdate(CatalogVersion.ID)).thenAnswer(invocation -> Optional.of(row));
+        catalogVersion = new ProductCatalogVersion(catalogVersionRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void current_ShouldMoveForwardOnEveryChange() {
+        // Given
+        long initial = catalogVersion.current();
+
+        // When
+        catalogVersion.onProductChanged(ProductChangedEvent.stockChanged(1L));
+        long afterFirst = catalogVersion.current();
+        catalogVersion.onProductChanged(ProductChangedEvent.stockChanged(1L));
+
+        // Then
+        assertTrue(afterFirst > initial);
+        assertTrue(catalogVersion.current() > afterFirst);
+        assertEquals(Instant.ofEpochMilli(catalogVersion.current()), catalogVersion.lastModified());
+        verify(catalogVersionRepository, times(2)).save(row);
+    }
+
+    @Test
+    void current_ShouldReadTheVersionOtherNodesWrote() {
+        // Given
+        long initial = catalogVersion.current();
+
+        // When
+        row.setVersion(initial + 5);
+
+        // Then
+        assertEquals(initial + 5, catalogVersion.current());
+    }
+
+    @Test
+    void productLastModified_ShouldAccountForCategoryChanges() {
+        // Given
+        LocalDateTime updatedAt = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.MILLIS);
+        Instant updated = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+
+        // When
+        catalogVersion.onProductChanged(ProductChangedEvent.updated(2L));
+        Instant afterProductChange = catalogVersion.productLastModified(updatedAt);
+        catalogVersion.onCategoryChanged(new CategoryChangedEvent(5L));
+
+        // Then
+        assertEquals(updated, afterProductChange);
+        assertEquals(catalogVersion.lastModified(), catalogVersion.productLastModified(updatedAt));
+        assertEquals(updatedAt.plusDays(2).atZone(ZoneId.systemDefault()).toInstant(),
+                catalogVersion.productLastModified(updatedAt.plusDays(2)));
+    }
+
+    @Test
+    void onProductChanged_ShouldNotFailWhenTheVersionCannotBeWritten() {
+        // Given
+        when(catalogVersionRepository.save(any())).thenThrow(new IllegalStateException("database down"));
+
+        // When / Then
+        assertDoesNotThrow(() -> catalogVersion.onProductChanged(ProductChangedEvent.updated(2L)));
+    }
+
+    @Test
+    void listingVersion_ShouldFollowTheSharedVersion_UntilEverySnapshotIsBuilt() {
+        // Given
+        catalogVersion.register("search");
+        catalogVersion.register("facets");
+
+        // When
+        catalogVersion.synced("search", 1_000L);
+        ProductCatalogVersion.ListingVersion partlyBuilt = catalogVersion.listingVersion();
+        row.setVersion(1_500L);
+        catalogVersion.synced("facets", 1_200L);
+
+        // Then
+        assertEquals(new ProductCatalogVersion.ListingVersion(1_000L, 0), partlyBuilt);
+        assertEquals(new ProductCatalogVersion.ListingVersion(1_000L, 0), catalogVersion.listingVersion());
+        assertEquals(1_000L, catalogVersion.listingVersion().lastModified());
+    }
+
+    @Test
+    void listingVersion_ShouldTagLocalChanges_WithoutClaimingChangesMadeElsewhere() {
+        // Given
+        catalogVersion.register("search");
+        catalogVersion.synced("search", 1_000L);
+
+        // When: a change here right after the snapshot caught up
+        catalogVersion.onProductChanged(ProductChangedEvent.updated(1L));
+        ProductCatalogVersion.ListingVersion inSync = catalogVersion.listingVersion();
+        // Another node changes the catalog, then this node does again
+        row.setVersion(row.getVersion() + 1);
+        catalogVersion.onProductChanged(ProductChangedEvent.updated(2L));
+        ProductCatalogVersion.ListingVersion ahead = catalogVersion.listingVersion();
+
+        // Then
+        assertEquals(0, inSync.local());
+        assertTrue(inSync.applied() > 1_000L);
+        assertEquals(inSync.applied(), ahead.applied());
+        assertEquals(row.getVersion(), ahead.local());
+        assertNotEquals(inSync.tag(), ahead.tag());
+        assertEquals(-1, ahead.lastModified());
+    }
+
+    private static CatalogVersion copy(CatalogVersion source) {
+        return new CatalogVersion(source.getId(), source.getVersion(), source.getCategoriesVersion());
+    }
+}
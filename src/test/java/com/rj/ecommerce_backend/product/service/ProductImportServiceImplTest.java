@@ -0,0 +1,152 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rj.ecommerce_backend.product.ProductImportProperties;
+import com.rj.ecommerce_backend.product.domain.Category;
+import com.rj.ecommerce_backend.product.dtos.ProductImportStatusDTO;
+import com.rj.ecommerce_backend.product.events.CategoryChangedEvent;
+import com.rj.ecommerce_backend.product.events.ProductsImportedEvent;
+import com.rj.ecommerce_backend.product.exceptions.InvalidProductImportException;
+import com.rj.ecommerce_backend.product.importer.ProductImportFormat;
+import com.rj.ecommerce_backend.product.repository.ProductBulkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs imports against the embedded database, small chunk and batch sizes so every path is crossed.
+ */
+@DataJpaTest(properties = {
+        // The embedded value objects map to a column named "value", which is a keyword in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "product-import.chunk-size=3",
+        "product-import.batch-size=2"
+})
+@ActiveProfiles("test")
+@Import({ProductImportServiceImpl.class, ProductBulkRepository.class, CategoryCatalog.class,
+        ProductImportProperties.class, ObjectMapper.class, SimpleMeterRegistry.class})
+@RecordApplicationEvents
+class ProductImportServiceImplTest {
+
+    @Autowired
+    private ProductImportServiceImpl productImportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Long phones;
+    private Long audio;
+
+    @BeforeEach
+    void setUp() {
+        phones = entityManager.persist(new Category(null, "Phones", null, null, null, null)).getId();
+        audio = entityManager.persist(new Category(null, "Audio", null, null, null, null)).getId();
+        entityManager.flush();
+        categoryCatalog.onCategoryChanged(new CategoryChangedEvent(audio));
+    }
+
+    @Test
+    void importProducts_ShouldInsertValidNdjsonRows_AndReportRejectedOnes() {
+        // Given
+        String ndjson = """
+                {"name": "Phone X", "description": "Flagship", "price": 999.99, "currencyCode": "EUR", "quantity": 5, "categories": ["Phones"]}
+                {"name": "Cable", "price": "4.5", "quantity": 100}
+
+                {"name": "Broken", "price": 
+                {"name": "Mystery", "price": 1, "quantity": 1, "categories": ["Garden"]}
+                {"name": "Headset", "price": 59, "quantity": 0, "categories": ["Phones", "Audio", "Audio"]}
+                {"name": "Cheap", "price": -1, "quantity": 1}
+                {"name": "Speaker", "price": 120, "quantity": 3, "categories": ["Audio"]}
+                """;
+
+        // When
+        ProductImportStatusDTO result = productImportService.importProducts(stream(ndjson), ProductImportFormat.NDJSON);
+
+        // Then
+        assertEquals("COMPLETED", result.status());
+        assertEquals(7, result.rowsRead());
+        assertEquals(4, result.imported());
+        assertEquals(3, result.rejected());
+        assertTrue(result.errors().get(0).startsWith("Line 4: malformed JSON"));
+        assertEquals("Line 5: unknown categories: [Garden]", result.errors().get(1));
+        assertEquals("Line 7: price must not be negative", result.errors().get(2));
+
+        List<Map<String, Object>> products = jdbcTemplate.queryForList(
+                "SELECT \"name\", \"value\", \"code\", \"quantity\" FROM \"product\" ORDER BY \"id\"");
+        assertEquals(List.of("Phone X", "Cable", "Headset", "Speaker"),
+                products.stream().map(product -> product.get("name")).toList());
+        assertEquals(new BigDecimal("4.50"), products.get(1).get("value"));
+        assertEquals("EUR", products.get(0).get("code"));
+        assertEquals("USD", products.get(1).get("code"));
+
+        List<Long> headsetCategories = jdbcTemplate.queryForList(
+                "SELECT pc.\"category_id\" FROM \"product_category\" pc JOIN \"product\" p ON p.\"id\" = pc.\"product_id\" " +
+                        "WHERE p.\"name\" = 'Headset' ORDER BY pc.\"category_id\"", Long.class);
+        assertEquals(List.of(phones, audio), headsetCategories);
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"product_category\"", Integer.class));
+
+        List<Integer> chunkSizes = events.stream(ProductsImportedEvent.class)
+                .map(event -> event.productIds().size())
+                .toList();
+        assertEquals(List.of(3, 1), chunkSizes);
+    }
+
+    @Test
+    void importProducts_ShouldReadCsvWithQuotedFields_AndTrackProgress() {
+        // Given
+        String csv = "quantity,name,price,categories,description\r\n"
+                + "7,\"Desk lamp, brass\",35.00,,\"Warm light\nwith \"\"dimmer\"\"\"\r\n"
+                + "2,Earbuds,49.90,Audio|Phones,\r\n"
+                + "x,Bad quantity,1.00,,\r\n";
+
+        // When
+        ProductImportStatusDTO result = productImportService.importProducts(stream(csv), ProductImportFormat.CSV);
+
+        // Then
+        assertEquals(2, result.imported());
+        assertEquals(List.of("Line 5: quantity is not a whole number"), result.errors());
+        assertEquals("Warm light\nwith \"dimmer\"", jdbcTemplate.queryForObject(
+                "SELECT \"description\" FROM \"product\" WHERE \"name\" = 'Desk lamp, brass'", String.class));
+        assertEquals(result, productImportService.getImport(result.id()).orElseThrow());
+        assertEquals(List.of(result), productImportService.getImports());
+    }
+
+    @Test
+    void importProducts_ShouldFail_WhenCsvHeaderLacksRequiredColumns() {
+        // When & Then
+        InvalidProductImportException exception = assertThrows(InvalidProductImportException.class,
+                () -> productImportService.importProducts(stream("name,description\nLamp,Bright\n"), ProductImportFormat.CSV));
+        assertEquals("The CSV header is missing columns: [price, quantity]", exception.getMessage());
+        assertEquals("FAILED", productImportService.getImports().get(0).status());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
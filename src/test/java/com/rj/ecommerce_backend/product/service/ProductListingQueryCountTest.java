@@ -0,0 +1,292 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.config.QueryCountInspector;
+import com.rj.ecommerce_backend.paging.CursorPage;
+import com.rj.ecommerce_backend.paging.KeysetCursor;
+import com.rj.ecommerce_backend.paging.KeysetQueryExecutor;
+import com.rj.ecommerce_backend.paging.KeysetRequest;
+import com.rj.ecommerce_backend.paging.ListingCountCache;
+import com.rj.ecommerce_backend.paging.ListingCountProperties;
+import com.rj.ecommerce_backend.paging.ListingSlice;
+import com.rj.ecommerce_backend.paging.SliceQueryExecutor;
+import com.rj.ecommerce_backend.product.ProductSearchProperties;
+import com.rj.ecommerce_backend.product.domain.Category;
+import com.rj.ecommerce_backend.product.domain.Image;
+import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.dtos.ProductFacetsDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
+import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
+import com.rj.ecommerce_backend.product.exceptions.FacetsUnavailableException;
+import com.rj.ecommerce_backend.product.mapper.ProductMapper;
+import com.rj.ecommerce_backend.product.search.ProductFacetIndex;
+import com.rj.ecommerce_backend.product.search.ProductSearchIndex;
+import com.rj.ecommerce_backend.product.valueobject.Amount;
+import com.rj.ecommerce_backend.product.valueobject.CurrencyCode;
+import com.rj.ecommerce_backend.product.valueobject.ProductDescription;
+import com.rj.ecommerce_backend.product.valueobject.ProductName;
+import com.rj.ecommerce_backend.product.valueobject.ProductPrice;
+import com.rj.ecommerce_backend.product.valueobject.StockQuantity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that listing a page of products costs the same number of statements whatever the page size.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.rj.ecommerce_backend.config.QueryCountInspector",
+        // The embedded value objects map to a column named "value", which is a keyword in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true"
+})
+@ActiveProfiles("test")
+@Import({ProductServiceImpl.class, ProductMapper.class, ProductSearchProperties.class, KeysetQueryExecutor.class,
+        SliceQueryExecutor.class, ListingCountCache.class, ListingCountProperties.class, SimpleMeterRegistry.class})
+class ProductListingQueryCountTest {
+
+    // Page query, count query, categories batch and images batch
+    private static final int STATEMENTS_PER_PAGE = 4;
+
+    // Seek or size + 1 query, categories batch and images batch
+    private static final int STATEMENTS_PER_SLICE = 3;
+
+    @Autowired
+    private ProductServiceImpl productService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductSearchProperties productSearchProperties;
+
+    @MockBean
+    private ProductCache productCache;
+
+    @MockBean
+    private FileStorageService fileStorageService;
+
+    @MockBean
+    private ProductSearchIndex productSearchIndex;
+
+    @MockBean
+    private ProductFacetIndex productFacetIndex;
+
+    @MockBean
+    private ProductCatalogVersion catalogVersion;
+
+    private final ProductSearchCriteria noCriteria = new ProductSearchCriteria(null, null, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        Category electronics = entityManager.persist(new Category(null, "Electronics", null, null, null, null));
+        Category audio = entityManager.persist(new Category(null, "Audio", null, null, null, null));
+
+        for (int i = 0; i < 30; i++) {
+            Product product = entityManager.persist(Product.builder()
+                    .productName(new ProductName("Product " + i))
+                    .productDescription(new ProductDescription("Description of product number " + i))
+                    .productPrice(new ProductPrice(new Amount(new BigDecimal("19.99")), new CurrencyCode("USD")))
+                    .stockQuantity(new StockQuantity(10))
+                    .categories(new ArrayList<>(List.of(electronics, audio)))
+                    .imageList(new ArrayList<>())
+                    .build());
+            for (int j = 0; j < 2; j++) {
+                entityManager.persist(Image.builder()
+                        .path("product-" + i + "-" + j + ".jpg")
+                        .altText("Product image")
+                        .mimeType("image/jpeg")
+                        .product(product)
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getAllProducts_ShouldUseConstantNumberOfStatements_RegardlessOfPageSize() {
+        // When
+        int smallPage = countStatements(5);
+        int largePage = countStatements(25);
+
+        // Then
+        assertEquals(STATEMENTS_PER_PAGE, smallPage);
+        assertEquals(STATEMENTS_PER_PAGE, largePage);
+    }
+
+    @Test
+    void getAllProducts_ShouldMapCategoriesAndImagesOfEveryProduct() {
+        // When
+        Page<ProductResponseDTO> page = productService.getAllProducts(PageRequest.of(0, 10), noCriteria);
+
+        // Then
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(30, page.getTotalElements());
+        page.forEach(product -> {
+            assertEquals(2, product.categories().size());
+            assertEquals(2, product.imageList().size());
+        });
+    }
+
+    @Test
+    void scrollProducts_ShouldVisitEveryProductOnce_WithConstantStatementsPerSlice() {
+        // Given
+        List<Long> expectedIds = productService.getAllProducts(
+                        PageRequest.of(0, 30, Sort.by("productName")), noCriteria)
+                .map(ProductResponseDTO::id)
+                .getContent();
+
+        // When
+        List<Long> visitedIds = new ArrayList<>();
+        KeysetCursor after = null;
+        CursorPage<ProductResponseDTO> slice;
+        do {
+            entityManager.clear();
+            QueryCountInspector.start();
+            try {
+                slice = productService.scrollProducts(
+                        new KeysetRequest("productName", "productName.value", Sort.Direction.ASC, after, 7), noCriteria);
+                assertEquals(STATEMENTS_PER_SLICE, QueryCountInspector.current());
+            } finally {
+                QueryCountInspector.stop();
+            }
+            slice.content().forEach(product -> {
+                assertEquals(2, product.imageList().size());
+                visitedIds.add(product.id());
+            });
+            after = slice.hasNext() ? KeysetCursor.decode(slice.nextCursor()) : null;
+        } while (after != null);
+
+        // Then
+        assertEquals(expectedIds, visitedIds);
+    }
+
+    @Test
+    void scrollProducts_ShouldBreakTiesOnSortKeyById() {
+        // Given
+        List<Long> visitedIds = new ArrayList<>();
+        KeysetCursor after = null;
+
+        // When
+        do {
+            CursorPage<ProductResponseDTO> slice = productService.scrollProducts(
+                    new KeysetRequest("productPrice", "productPrice.amount.value", Sort.Direction.DESC, after, 4),
+                    noCriteria);
+            slice.content().forEach(product -> visitedIds.add(product.id()));
+            after = slice.hasNext() ? KeysetCursor.decode(slice.nextCursor()) : null;
+        } while (after != null);
+
+        // Then
+        assertEquals(30, visitedIds.size());
+        assertEquals(visitedIds.stream().sorted(Comparator.reverseOrder()).toList(), visitedIds);
+    }
+
+    @Test
+    void sliceProducts_ShouldSkipCountQuery() {
+        // Given
+        entityManager.clear();
+
+        // When
+        QueryCountInspector.start();
+        ListingSlice<ProductResponseDTO> first;
+        int statements;
+        try {
+            first = productService.sliceProducts(PageRequest.of(0, 10, Sort.by("id")), noCriteria, false);
+            statements = QueryCountInspector.current();
+        } finally {
+            QueryCountInspector.stop();
+        }
+        ListingSlice<ProductResponseDTO> last =
+                productService.sliceProducts(PageRequest.of(2, 10, Sort.by("id")), noCriteria, false);
+
+        // Then
+        assertEquals(STATEMENTS_PER_SLICE, statements);
+        assertEquals(10, first.content().size());
+        assertTrue(first.hasNext());
+        assertNull(first.approximateTotal());
+        assertEquals(10, last.content().size());
+        assertFalse(last.hasNext());
+        assertEquals(2, first.content().get(0).imageList().size());
+    }
+
+    @Test
+    void sliceProducts_ShouldCountOnce_WhenApproximateTotalIsRequested() {
+        // Given
+        ProductSearchCriteria inStock = new ProductSearchCriteria(null, null, null, null, 1, null);
+        entityManager.clear();
+
+        // When
+        QueryCountInspector.start();
+        int firstStatements;
+        int secondStatements;
+        ListingSlice<ProductResponseDTO> second;
+        try {
+            productService.sliceProducts(PageRequest.of(0, 5), inStock, true);
+            firstStatements = QueryCountInspector.current();
+            entityManager.clear();
+            second = productService.sliceProducts(PageRequest.of(1, 5), inStock, true);
+            secondStatements = QueryCountInspector.current() - firstStatements;
+        } finally {
+            QueryCountInspector.stop();
+        }
+
+        // Then
+        assertEquals(STATEMENTS_PER_SLICE + 1, firstStatements);
+        assertEquals(STATEMENTS_PER_SLICE, secondStatements);
+        assertEquals(30L, second.approximateTotal());
+    }
+
+    @Test
+    void getProductFacets_ShouldBoundTheDatabaseSearch_WhenTheIndexCannotAnswer() {
+        // Given
+        when(productFacetIndex.isReady()).thenReturn(true);
+        when(productFacetIndex.facets(any(), any())).thenReturn(Optional.of(new ProductFacetsDTO(0, List.of(), List.of())));
+        ProductSearchCriteria productOne = new ProductSearchCriteria("Product 1", null, null, null, null, null);
+        int limit = productSearchProperties.getMaxFilteredMatches();
+
+        // When
+        productService.getProductFacets(productOne);
+        productSearchProperties.setMaxFilteredMatches(10);
+        try {
+            // Then
+            // "Product 1" matches products 1 and 10 to 19
+            assertThrows(FacetsUnavailableException.class, () -> productService.getProductFacets(productOne));
+        } finally {
+            productSearchProperties.setMaxFilteredMatches(limit);
+        }
+        verify(productFacetIndex).facets(eq(productOne), argThat(ids -> ids.size() == 11));
+    }
+
+    private int countStatements(int pageSize) {
+        entityManager.clear();
+        QueryCountInspector.start();
+        try {
+            Page<ProductResponseDTO> page = productService.getAllProducts(PageRequest.of(0, pageSize), noCriteria);
+            assertEquals(pageSize, page.getNumberOfElements());
+            return QueryCountInspector.current();
+        } finally {
+            QueryCountInspector.stop();
+        }
+    }
+}
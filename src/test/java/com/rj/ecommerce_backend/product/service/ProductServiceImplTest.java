@@ -1,5 +1,6 @@
 package com.rj.ecommerce_backend.product.service;
 
+import com.rj.ecommerce_backend.product.ProductSearchProperties;
 import com.rj.ecommerce_backend.product.domain.Category;
 import com.rj.ecommerce_backend.product.domain.Image;
 import com.rj.ecommerce_backend.product.domain.Product;
@@ -7,11 +8,14 @@ import com.rj.ecommerce_backend.product.dtos.ProductCreateDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductResponseDTO;
 import com.rj.ecommerce_backend.product.dtos.ProductSearchCriteria;
 import com.rj.ecommerce_backend.product.dtos.ProductUpdateDTO;
+import com.rj.ecommerce_backend.product.events.ProductChangedEvent;
+import com.rj.ecommerce_backend.product.exceptions.FileStorageException;
 import com.rj.ecommerce_backend.product.exceptions.ProductNotFoundException;
 import com.rj.ecommerce_backend.product.mapper.ProductMapper;
 import com.rj.ecommerce_backend.product.repository.CategoryRepository;
-import com.rj.ecommerce_backend.product.repository.ImageRepository;
 import com.rj.ecommerce_backend.product.repository.ProductRepository;
+import com.rj.ecommerce_backend.product.search.ProductFacetIndex;
+import com.rj.ecommerce_backend.product.search.ProductSearchIndex;
 import com.rj.ecommerce_backend.product.valueobject.StockQuantity;
 import com.rj.ecommerce_backend.testutil.ProductTestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,18 +24,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,7 +65,22 @@ class ProductServiceImplTest {
     private CategoryRepository categoryRepository;
 
     @Mock
-    private ImageRepository imageRepository;
+    private ProductCache productCache;
+
+    @Mock
+    private ProductCatalogVersion catalogVersion;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+
+    @Spy
+    private ProductSearchProperties productSearchProperties = new ProductSearchProperties();
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -102,8 +129,8 @@ class ProductServiceImplTest {
         when(productMapper.mapToEntity(any(ProductCreateDTO.class))).thenReturn(testProduct);
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
         when(productMapper.mapToDTO(any(Product.class))).thenReturn(testProductResponseDTO);
-        when(fileStorageService.storeFile(any(MultipartFile.class), anyString(), any(Product.class)))
-                .thenReturn(savedImage);
+        when(fileStorageService.storeFiles(images, "Product Image", testProduct))
+                .thenReturn(new ArrayList<>(List.of(savedImage)));
 
         // When
         ProductResponseDTO result = productService.createProduct(testProductCreateDTO, images);
@@ -112,13 +139,15 @@ class ProductServiceImplTest {
         assertNotNull(result);
         assertEquals(testProductResponseDTO, result);
         verify(productRepository).save(any(Product.class));
-        verify(fileStorageService).storeFile(mockImage, "Product Image", testProduct);
+        verify(fileStorageService).storeFiles(images, "Product Image", testProduct);
+        assertEquals(List.of(savedImage), testProduct.getImageList());
     }
 
     @Test
     void getProductById_ShouldReturnProduct_WhenProductExists() {
         // Given
         Long productId = 1L;
+        readThroughCache(productId);
         when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
         when(productMapper.mapToDTO(testProduct)).thenReturn(testProductResponseDTO);
 
@@ -135,6 +164,7 @@ class ProductServiceImplTest {
     void getProductById_ShouldReturnEmpty_WhenProductDoesNotExist() {
         // Given
         Long productId = 999L;
+        readThroughCache(productId);
         when(productRepository.findById(productId)).thenReturn(Optional.empty());
 
         // When
@@ -145,6 +175,40 @@ class ProductServiceImplTest {
         verify(productRepository).findById(productId);
     }
 
+    @Test
+    void getProductById_ShouldDateTheViewFromTheStateItWasMappedFrom() {
+        // Given
+        Long productId = 1L;
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        testProduct.setUpdatedAt(updatedAt);
+        readThroughCache(productId);
+        when(catalogVersion.categoriesVersion()).thenReturn(0L);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productMapper.mapToDTO(testProduct)).thenReturn(testProductResponseDTO);
+
+        // When
+        Optional<VersionedProduct> result = productService.getProductById(productId, Instant.EPOCH);
+
+        // Then
+        assertEquals(testProductResponseDTO, result.orElseThrow().product());
+        assertEquals(updatedAt.atZone(ZoneId.systemDefault()).toInstant(), result.get().lastModified());
+    }
+
+    @Test
+    void getProductById_ShouldNotQueryRepository_WhenProductIsCached() {
+        // Given
+        Long productId = 1L;
+        when(productCache.get(eq(productId), any(), any()))
+                .thenReturn(Optional.of(new VersionedProduct(testProductResponseDTO, Instant.EPOCH)));
+
+        // When
+        Optional<ProductResponseDTO> result = productService.getProductById(productId);
+
+        // Then
+        assertEquals(Optional.of(testProductResponseDTO), result);
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
     @Test
     void getProductEntityForValidation_ShouldReturnProduct_WhenProductExists() {
         // Given
@@ -180,6 +244,76 @@ class ProductServiceImplTest {
         verify(productRepository).findAll(any(Specification.class), eq(pageable));
     }
 
+    @Test
+    void getAllProducts_ShouldServeSearchFromIndex_InRankedOrder() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 2);
+        ProductSearchCriteria criteria = new ProductSearchCriteria("phone", null, null, null, null, null);
+        Product second = ProductTestDataFactory.createValidProduct();
+        second.setId(2L);
+        Product third = ProductTestDataFactory.createValidProduct();
+        third.setId(3L);
+
+        when(productSearchIndex.searchNameOrId("phone")).thenReturn(Optional.of(List.of(3L, 2L, 1L)));
+        when(productRepository.findAllById(List.of(3L, 2L))).thenReturn(List.of(second, third));
+        when(productMapper.mapToDTO(any(Product.class))).thenAnswer(invocation ->
+                new ProductResponseDTO(invocation.getArgument(0, Product.class).getId(),
+                        null, null, null, null, List.of(), List.of()));
+
+        // When
+        Page<ProductResponseDTO> result = productService.getAllProducts(pageable, criteria);
+
+        // Then
+        assertEquals(3, result.getTotalElements());
+        assertEquals(List.of(3L, 2L), result.getContent().stream().map(ProductResponseDTO::id).toList());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_ShouldFilterIndexMatchesInDatabase_WhenOtherFiltersAreSet() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("productName"));
+        ProductSearchCriteria criteria = new ProductSearchCriteria("phone", "1", null, null, null, null);
+        Page<Product> productPage = new PageImpl<>(Collections.singletonList(testProduct), pageable, 1);
+
+        when(productSearchIndex.searchNameOrId("phone")).thenReturn(Optional.of(List.of(1L, 2L)));
+        when(productRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(productPage);
+        when(productMapper.mapToDTO(testProduct)).thenReturn(testProductResponseDTO);
+
+        // When
+        Page<ProductResponseDTO> result = productService.getAllProducts(pageable, criteria);
+
+        // Then
+        assertEquals(List.of(testProductResponseDTO), result.getContent());
+        verify(productRepository, never()).findAllById(anyList());
+    }
+
+    @Test
+    void getAllProducts_ShouldResolveFiltersFromSnapshot_WithoutFilteringInDatabase() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id").descending());
+        ProductSearchCriteria criteria = new ProductSearchCriteria(
+                null, "1", new BigDecimal("10"), new BigDecimal("100"), 1, null);
+        Product fifth = ProductTestDataFactory.createValidProduct();
+        fifth.setId(5L);
+        Product seventh = ProductTestDataFactory.createValidProduct();
+        seventh.setId(7L);
+
+        when(productFacetIndex.filter(criteria, null)).thenReturn(Optional.of(List.of(5L, 7L)));
+        when(productRepository.findAllById(List.of(7L, 5L))).thenReturn(List.of(fifth, seventh));
+        when(productMapper.mapToDTO(any(Product.class))).thenAnswer(invocation ->
+                new ProductResponseDTO(invocation.getArgument(0, Product.class).getId(),
+                        null, null, null, null, List.of(), List.of()));
+
+        // When
+        Page<ProductResponseDTO> result = productService.getAllProducts(pageable, criteria);
+
+        // Then
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(7L, 5L), result.getContent().stream().map(ProductResponseDTO::id).toList());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
     @Test
     void updateProduct_ShouldUpdateAndReturnProduct_WhenProductExists() {
         // Given
@@ -199,6 +333,29 @@ class ProductServiceImplTest {
         assertEquals(testProductResponseDTO, result);
         verify(productRepository).findById(productId);
         verify(productRepository).save(testProduct);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(productId));
+    }
+
+    @Test
+    void updateProduct_ShouldKeepProduct_WhenNewImagesCannotBeStored() {
+        // Given
+        Long productId = 1L;
+        List<MultipartFile> newImages = List.of(mock(MultipartFile.class), mock(MultipartFile.class));
+        int imagesBefore = testProduct.getImageList().size();
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(fileStorageService.storeFiles(newImages, "Product Image", testProduct))
+                .thenThrow(new FileStorageException("Could not store file b.jpg"));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        when(productMapper.mapToDTO(any(Product.class))).thenReturn(testProductResponseDTO);
+
+        // When
+        ProductResponseDTO result = productService.updateProduct(productId, testProductUpdateDTO, newImages);
+
+        // Then
+        assertEquals(testProductResponseDTO, result);
+        assertEquals(imagesBefore, testProduct.getImageList().size());
+        verify(productRepository).save(testProduct);
     }
 
     @Test
@@ -230,8 +387,9 @@ class ProductServiceImplTest {
 
         // Then
         ArgumentCaptor<StockQuantity> stockQuantityCaptor = ArgumentCaptor.forClass(StockQuantity.class);
-        verify(productRepository).updateProductQuantity(eq(productId), stockQuantityCaptor.capture());
+        verify(productRepository).updateProductQuantity(eq(productId), stockQuantityCaptor.capture(), any(LocalDateTime.class));
         assertEquals(currentStock - quantityToReduce, stockQuantityCaptor.getValue().value());
+        verify(eventPublisher).publishEvent(ProductChangedEvent.stockChanged(productId));
     }
 
     @Test
@@ -245,6 +403,7 @@ class ProductServiceImplTest {
 
         // Then
         verify(productRepository).deleteById(productId);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(productId));
     }
 
     @Test
@@ -308,6 +467,13 @@ class ProductServiceImplTest {
         // Then
         verify(productRepository).findById(productId);
         verify(fileStorageService).deleteImage(imageToDelete);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(productId));
         verify(productRepository).save(testProduct);
     }
+
+    @SuppressWarnings("unchecked")
+    private void readThroughCache(Long productId) {
+        when(productCache.get(eq(productId), any(), any())).thenAnswer(invocation ->
+                invocation.getArgument(2, Function.class).apply(productId));
+    }
 }
@@ -0,0 +1,144 @@
+package com.rj.ecommerce_backend.product.service;
+
+import com.rj.ecommerce_backend.product.ProductStockProperties;
+import com.rj.ecommerce_backend.product.domain.Product;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO;
+import com.rj.ecommerce_backend.product.dtos.StockAdjustmentResultDTO.Status;
+import com.rj.ecommerce_backend.product.events.ProductsStockChangedEvent;
+import com.rj.ecommerce_backend.product.exceptions.InvalidStockAdjustmentException;
+import com.rj.ecommerce_backend.product.repository.ProductBulkRepository;
+import com.rj.ecommerce_backend.product.valueobject.Amount;
+import com.rj.ecommerce_backend.product.valueobject.CurrencyCode;
+import com.rj.ecommerce_backend.product.valueobject.ProductDescription;
+import com.rj.ecommerce_backend.product.valueobject.ProductName;
+import com.rj.ecommerce_backend.product.valueobject.ProductPrice;
+import com.rj.ecommerce_backend.product.valueobject.StockQuantity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        // The embedded value objects map to a column named "value", which is a keyword in H2
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers=true",
+        "product-stock.chunk-size=3",
+        "product-stock.max-adjustments=10"
+})
+@ActiveProfiles("test")
+@Import({ProductStockServiceImpl.class, ProductBulkRepository.class, ProductStockProperties.class,
+        SimpleMeterRegistry.class})
+@RecordApplicationEvents
+class ProductStockServiceImplTest {
+
+    @Autowired
+    private ProductStockServiceImpl productStockService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private Long lamp;
+    private Long desk;
+
+    @BeforeEach
+    void setUp() {
+        lamp = persistProduct("Lamp", 10);
+        desk = persistProduct("Desk", 2);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void adjustStock_ShouldApplyDeltasAndAbsoluteQuantities_InRequestOrder() {
+        // Given
+        List<StockAdjustmentDTO> adjustments = List.of(
+                new StockAdjustmentDTO(lamp, -4, null),
+                new StockAdjustmentDTO(desk, null, 7),
+                new StockAdjustmentDTO(lamp, -4, null),
+                new StockAdjustmentDTO(desk, -8, null),
+                new StockAdjustmentDTO(lamp, 5, null));
+
+        // When
+        List<StockAdjustmentResultDTO> results = productStockService.adjustStock(adjustments);
+
+        // Then
+        assertEquals(List.of(
+                StockAdjustmentResultDTO.applied(lamp, 6),
+                StockAdjustmentResultDTO.applied(desk, 7),
+                StockAdjustmentResultDTO.applied(lamp, 2),
+                StockAdjustmentResultDTO.rejected(desk, Status.INSUFFICIENT_STOCK, "Only 7 in stock"),
+                StockAdjustmentResultDTO.applied(lamp, 7)), results);
+        assertEquals(7, quantityOf(lamp));
+        assertEquals(7, quantityOf(desk));
+        assertEquals(List.of(List.of(lamp, desk), List.of(lamp)), events.stream(ProductsStockChangedEvent.class)
+                .map(ProductsStockChangedEvent::productIds)
+                .map(ids -> ids.stream().sorted().toList())
+                .toList());
+    }
+
+    @Test
+    void adjustStock_ShouldReportInvalidAndUnknownProducts_WithoutChangingStock() {
+        // Given
+        List<StockAdjustmentDTO> adjustments = new ArrayList<>();
+        adjustments.add(new StockAdjustmentDTO(Long.MAX_VALUE, 1, null));
+        adjustments.add(new StockAdjustmentDTO(lamp, 1, 5));
+        adjustments.add(new StockAdjustmentDTO(lamp, null, -1));
+        adjustments.add(new StockAdjustmentDTO(null, 1, null));
+        adjustments.add(null);
+
+        // When
+        List<StockAdjustmentResultDTO> results = productStockService.adjustStock(adjustments);
+
+        // Then
+        assertEquals(List.of(Status.NOT_FOUND, Status.INVALID, Status.INVALID, Status.INVALID, Status.INVALID),
+                results.stream().map(StockAdjustmentResultDTO::status).toList());
+        assertEquals(10, quantityOf(lamp));
+        assertEquals(0, events.stream(ProductsStockChangedEvent.class).count());
+    }
+
+    @Test
+    void adjustStock_ShouldRejectOversizedRequests() {
+        // Given
+        List<StockAdjustmentDTO> adjustments = Collections.nCopies(11, new StockAdjustmentDTO(lamp, 1, null));
+
+        // When & Then
+        assertThrows(InvalidStockAdjustmentException.class, () -> productStockService.adjustStock(adjustments));
+        assertEquals(10, quantityOf(lamp));
+    }
+
+    private Long persistProduct(String name, int quantity) {
+        return entityManager.persist(Product.builder()
+                .productName(new ProductName(name))
+                .productDescription(new ProductDescription(name + " for the office"))
+                .productPrice(new ProductPrice(new Amount(new BigDecimal("49.00")), new CurrencyCode("USD")))
+                .stockQuantity(new StockQuantity(quantity))
+                .categories(new ArrayList<>())
+                .imageList(new ArrayList<>())
+                .build()).getId();
+    }
+
+    private int quantityOf(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT \"quantity\" FROM \"product\" WHERE \"id\" = ?",
+                Integer.class, productId);
+    }
+}
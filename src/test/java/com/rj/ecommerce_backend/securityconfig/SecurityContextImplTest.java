@@ -0,0 +1,109 @@
+package com.rj.ecommerce_backend.securityconfig;
+
+import com.rj.ecommerce_backend.user.UserDetailsImpl;
+import com.rj.ecommerce_backend.user.domain.User;
+import com.rj.ecommerce_backend.user.repositories.UserRepository;
+import com.rj.ecommerce_backend.user.valueobject.Email;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityContextImplTest {
+
+    private static final String EMAIL = "test@example.com";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SecurityContextImpl securityContext;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getCurrentUser_ShouldQueryOncePerRequest() {
+        // Arrange
+        authenticate(1L, "ROLE_USER");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findUserByEmail(any(Email.class))).thenReturn(Optional.of(createUser()));
+
+        // Act
+        User first = securityContext.getCurrentUser();
+        User second = securityContext.getCurrentUser();
+
+        // Assert
+        assertSame(first, second);
+        verify(userRepository, times(1)).findUserByEmail(any(Email.class));
+    }
+
+    @Test
+    void getCurrentUser_ShouldQueryEachTimeOutsideRequest() {
+        // Arrange
+        authenticate(1L, "ROLE_USER");
+        when(userRepository.findUserByEmail(any(Email.class))).thenReturn(Optional.of(createUser()));
+
+        // Act
+        securityContext.getCurrentUser();
+        securityContext.getCurrentUser();
+
+        // Assert
+        verify(userRepository, times(2)).findUserByEmail(any(Email.class));
+    }
+
+    @Test
+    void checkAccess_ShouldUsePrincipalWithoutQueryingUsers() {
+        // Arrange
+        authenticate(1L, "ROLE_USER");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> securityContext.checkAccess(1L));
+        assertThrows(AccessDeniedException.class, () -> securityContext.checkAccess(2L));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkAccess_ShouldAllowAdminToAccessOtherUsers() {
+        // Arrange
+        authenticate(1L, "ROLE_ADMIN");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> securityContext.checkAccess(2L));
+        verifyNoInteractions(userRepository);
+    }
+
+    private void authenticate(Long userId, String authority) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(authority));
+        UserDetailsImpl principal = new UserDetailsImpl(userId, EMAIL, null, authorities);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, authorities));
+    }
+
+    private User createUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(new Email(EMAIL));
+        return user;
+    }
+}
@@ -0,0 +1,89 @@
+package com.rj.ecommerce_backend.securityconfig.utils;
+
+import com.rj.ecommerce_backend.securityconfig.config.PasswordHashingProperties;
+import com.rj.ecommerce_backend.securityconfig.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldDelegateToBCrypt() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(properties(4, 1, 8), new SimpleMeterRegistry());
+
+        // Act
+        String encoded = encoder.encode("password123");
+
+        // Assert
+        assertTrue(encoded.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("password123", encoded));
+        assertFalse(encoder.matches("wrong-password", encoded));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeTrueForWeakerHashes() {
+        // Arrange
+        BoundedPasswordEncoder weakEncoder = new BoundedPasswordEncoder(properties(4, 1, 8), new SimpleMeterRegistry());
+        String weakHash = weakEncoder.encode("password123");
+        weakEncoder.shutdown();
+        encoder = new BoundedPasswordEncoder(properties(5, 1, 8), new SimpleMeterRegistry());
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password123")));
+    }
+
+    @Test
+    void encode_ShouldRejectWhenQueueIsFull() {
+        // Arrange: one thread, one queue slot, slow hashes
+        encoder = new BoundedPasswordEncoder(properties(12, 1, 1), new SimpleMeterRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            attempts.add(CompletableFuture.supplyAsync(() -> encoder.encode("password123"), callers));
+        }
+
+        // Assert
+        long rejected = attempts.stream()
+                .filter(attempt -> {
+                    try {
+                        attempt.join();
+                        return false;
+                    } catch (CompletionException e) {
+                        return e.getCause() instanceof PasswordHashingRejectedException;
+                    }
+                })
+                .count();
+        callers.shutdown();
+        assertTrue(rejected >= 2);
+    }
+
+    private PasswordHashingProperties properties(int strength, int poolSize, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxWaitMs(60_000);
+        return properties;
+    }
+}
@@ -143,7 +143,8 @@ public class ProductTestDataFactory {
                 1L,
                 "test-image.jpg",
                 "Test Image",
-                "image/jpeg"
+                "image/jpeg",
+                List.of()
         );
     }
 